@@ -0,0 +1,109 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Reads over every task with a bounded cache: they must see the cold months without pulling
+ * them all into memory, and eviction must not reach listeners as a delete.
+ */
+class BoundedCacheScanTest {
+    private static final int CAPACITY = 40;
+    private static final int MONTHS = 10;
+    private static final int PER_MONTH = 20;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void boundCache() {
+        System.setProperty("taskmanager.cacheTasks", Integer.toString(CAPACITY));
+    }
+
+    @AfterEach
+    void unboundCache() {
+        System.clearProperty("taskmanager.cacheTasks");
+    }
+
+    @Test
+    void scansSeeColdMonthsAndEvictionIsNotADelete() throws Exception {
+        String file = dir.resolve("tasks.txt").toString();
+        AtomicInteger stored = new AtomicInteger();
+        AtomicInteger removed = new AtomicInteger();
+        AtomicInteger evicted = new AtomicInteger();
+        List<Integer> ids = new ArrayList<>();
+
+        try (TaskManager manager = new TaskManager(file, StorageFormat.TEXT, DurabilityPolicy.none())) {
+            manager.addTaskListener(new TaskChangeListener() {
+                @Override
+                public void taskStored(Task previous, Task current) {
+                    stored.incrementAndGet();
+                }
+
+                @Override
+                public void taskRemoved(Task task) {
+                    removed.incrementAndGet();
+                }
+
+                @Override
+                public void taskEvicted(Task task) {
+                    evicted.incrementAndGet();
+                }
+            });
+            for (int m = 0; m < MONTHS; m++) {
+                LocalDateTime due = YearMonth.now().plusMonths(3 + m).atDay(10).atTime(9, 0);
+                List<Task> batch = new ArrayList<>();
+                for (int i = 0; i < PER_MONTH; i++) {
+                    batch.add(new WorkTask("report m" + m + " part " + i, due, 1 + i % 3));
+                }
+                manager.addTasks(batch);
+                batch.forEach(task -> ids.add(task.getId()));
+            }
+
+            assertTrue(evicted.get() > 0, "nothing was evicted");
+            assertEquals(0, removed.get(), "eviction was reported as a delete");
+            assertWithinCache(manager);
+
+            // Loading a month would show up as stored tasks, even if it were evicted again right after.
+            int storedBefore = stored.get();
+            assertEquals(MONTHS * PER_MONTH, manager.getTasks().size());
+            assertEquals(PER_MONTH, manager.searchDescriptions("m7").length);
+            // Parts 0, 3, ..., 18 of each month.
+            assertEquals(MONTHS * 7, manager.getTasksMatching((id, due, priority, type) -> priority == 1).size());
+            assertEquals(storedBefore, stored.get(), "a scan loaded cold months");
+            assertWithinCache(manager);
+        }
+
+        // After a restart the later months were never loaded, so nothing knows which month holds a task.
+        try (TaskManager manager = new TaskManager(file, StorageFormat.TEXT, DurabilityPolicy.none())) {
+            assertNotNull(manager.getTask(ids.get(PER_MONTH * 8)), "a task in a month never read could not be found");
+            assertWithinCache(manager);
+            assertEquals(MONTHS * PER_MONTH, manager.getTasks().size());
+            assertWithinCache(manager);
+            assertNotNull(manager.getTask(ids.get(5)), "a task handed out by a scan could not be read back");
+            assertEquals(1, manager.deleteTasks(new int[] { ids.get(PER_MONTH * 4) }));
+            assertFalse(manager.containsTask(ids.get(PER_MONTH * 4)));
+            assertEquals(MONTHS * PER_MONTH - 1, manager.getTasks().size());
+            assertWithinCache(manager);
+        }
+    }
+
+    // Months are evicted whole, so the cache may sit one month over its capacity until the next eviction.
+    private static void assertWithinCache(TaskManager manager) {
+        long resident = manager.getMetrics().getTaskCount();
+        assertTrue(resident <= CAPACITY + PER_MONTH, "scan left " + resident + " tasks in memory");
+    }
+}
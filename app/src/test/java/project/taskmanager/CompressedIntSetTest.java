@@ -0,0 +1,85 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class CompressedIntSetTest {
+
+    @Test
+    void valuesComeBackInOrderAcrossGapSizes() {
+        // Gaps from neighbouring ids up to ones that skip many 16-bit groups, and the largest int.
+        for (int gap : new int[] { 1, 3, 255, 4_096, 65_535, 65_536, 1 << 20, 1 << 28 }) {
+            CompressedIntSet set = new CompressedIntSet();
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (long value = 0; value <= Integer.MAX_VALUE && expected.size() < 20_000; value += gap) {
+                assertTrue(set.add((int) value));
+                expected.add((int) value);
+            }
+            set.add(Integer.MAX_VALUE);
+            expected.add(Integer.MAX_VALUE);
+            assertMatches(expected, set);
+        }
+    }
+
+    @Test
+    void randomAddsAndRemovesMatchATreeSet() {
+        Random random = new Random(42);
+        CompressedIntSet set = new CompressedIntSet();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            // Mostly three 16-bit groups, so they fill up past the point where they turn into bitmaps.
+            int value = random.nextInt(10) == 0 ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(3 << 16);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+        }
+        assertMatches(expected, set);
+    }
+
+    @Test
+    void shrinksBackThroughEveryForm() {
+        CompressedIntSet set = new CompressedIntSet();
+        int[] values = IntStream.range(0, 10_000).map(i -> i * 2).toArray();
+        for (int value : values) {
+            set.add(value);
+        }
+        assertArrayEquals(values, set.toArray());
+        for (int i = values.length - 1; i >= 0; i--) {
+            assertTrue(set.remove(values[i]));
+            assertFalse(set.contains(values[i]));
+            assertEquals(i, set.size());
+        }
+        assertTrue(set.isEmpty());
+        assertArrayEquals(new int[0], set.toArray());
+        assertTrue(set.add(7));
+        assertArrayEquals(new int[] { 7 }, set.toArray());
+        assertFalse(set.remove(8));
+        assertFalse(set.remove(-1));
+        assertThrows(IllegalArgumentException.class, () -> set.add(-1));
+    }
+
+    private static void assertMatches(TreeSet<Integer> expected, CompressedIntSet set) {
+        int[] values = expected.stream().mapToInt(Integer::intValue).toArray();
+        assertEquals(values.length, set.size());
+        assertArrayEquals(values, set.toArray());
+        IntStream.Builder visited = IntStream.builder();
+        set.forEach(visited::add);
+        assertArrayEquals(values, visited.build().toArray());
+        for (int value : values) {
+            assertTrue(set.contains(value));
+            if (value < Integer.MAX_VALUE && !expected.contains(value + 1)) {
+                assertFalse(set.contains(value + 1));
+            }
+        }
+    }
+}
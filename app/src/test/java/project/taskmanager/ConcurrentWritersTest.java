@@ -0,0 +1,188 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntBinaryOperator;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * N writer threads against one store, with a reader taking snapshots the whole time. Every
+ * writer adds its own tasks and deletes every third, so the expected final ids are known.
+ * A last run reports the store's write throughput from 1 to N writers; ConcurrentWriteBenchmark
+ * in the benchmarks module measures the same through TaskManager under JMH.
+ */
+class ConcurrentWritersTest {
+    private static final int WRITERS = 8;
+    private static final int TASKS_PER_WRITER = 3000;
+    // Enough for each throughput run to last well past timer and thread start-up noise.
+    private static final int TIMED_TASKS_PER_WRITER = 50_000;
+
+    @TempDir
+    Path dir;
+
+    @RepeatedTest(3)
+    void stripedStoreKeepsEveryWriteAndSnapshotsStayConsistent() throws Exception {
+        StripedTaskStore store = new StripedTaskStore(4);
+        LocalDateTime due = LocalDateTime.now().plusDays(30).withNano(0);
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        // Descriptions carry the id, so a torn row in a snapshot shows up as a mismatch.
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                Set<Integer> seen = new HashSet<>();
+                for (Task task : store.snapshot()) {
+                    if (!seen.add(task.getId()) || !task.getDescription().equals("task " + task.getId())) {
+                        failures.add(new AssertionError("torn snapshot at " + task));
+                        return;
+                    }
+                }
+            }
+        });
+        reader.start();
+        runWriters((writer, i) -> {
+            int id = writer * 1_000_000 + i + 1;
+            store.put(new WorkTask(id, "task " + id, due, 1 + i % 3), (previous, task) -> { });
+            if (i % 3 == 0) {
+                store.remove(id, removed -> { });
+            }
+        }, failures);
+        writing.set(false);
+        reader.join();
+
+        assertTrue(failures.isEmpty(), () -> failures.toString());
+        Set<Integer> expected = expectedIds((writer, i) -> writer * 1_000_000 + i + 1);
+        assertEquals(expected.size(), store.size());
+        assertEquals(expected, ids(store.snapshot()));
+    }
+
+    // Prints the scaling rather than asserting it, since a shared build machine gives no stable numbers.
+    @Test
+    void reportsStripedStoreThroughputFromOneToNWriters() throws Exception {
+        LocalDateTime due = LocalDateTime.now().plusDays(30).withNano(0);
+        // The first pass only warms up the JIT.
+        for (int pass = 0; pass < 2; pass++) {
+            for (int writers = 1; writers <= WRITERS; writers *= 2) {
+                StripedTaskStore store = new StripedTaskStore();
+                List<Throwable> failures = new CopyOnWriteArrayList<>();
+                long start = System.nanoTime();
+                runWriters(writers, TIMED_TASKS_PER_WRITER, (writer, i) -> {
+                    int id = writer * 1_000_000 + i + 1;
+                    store.put(new WorkTask(id, "task " + id, due, 1 + i % 3), (previous, task) -> { });
+                    store.remove(id, removed -> { });
+                }, failures);
+                long elapsed = System.nanoTime() - start;
+
+                assertTrue(failures.isEmpty(), () -> failures.toString());
+                assertEquals(0, store.size());
+                if (pass == 1) {
+                    long operations = 2L * writers * TIMED_TASKS_PER_WRITER;
+                    System.out.printf("%d writer(s): %,d store writes/s%n", writers, operations * 1_000_000_000L / elapsed);
+                }
+            }
+        }
+    }
+
+    @RepeatedTest(3)
+    void managerKeepsEveryWriteAcrossARestart() throws Exception {
+        String file = dir.resolve("tasks.txt").toString();
+        LocalDateTime due = LocalDateTime.now().plusDays(30).withNano(0);
+        Map<Integer, String> descriptions = new ConcurrentHashMap<>();
+        Set<Integer> expected = ConcurrentHashMap.newKeySet();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+
+        try (TaskManager manager = new TaskManager(file, StorageFormat.TEXT, DurabilityPolicy.every(10))) {
+            runWriters((writer, i) -> {
+                Task task = new WorkTask("writer " + writer + " task " + i, due, 1 + i % 3);
+                descriptions.put(task.getId(), task.getDescription());
+                manager.addTask(task);
+                if (i % 3 == 0) {
+                    assertEquals(1, manager.deleteTasks(new int[] { task.getId() }));
+                } else {
+                    expected.add(task.getId());
+                }
+            }, failures);
+
+            assertTrue(failures.isEmpty(), () -> failures.toString());
+            assertEquals(WRITERS * TASKS_PER_WRITER, descriptions.size(), "ids were handed out twice");
+            List<Task> stored = manager.getTasks();
+            assertEquals(expected.size(), stored.size());
+            assertEquals(expected, ids(stored));
+            for (Task task : stored) {
+                assertEquals(descriptions.get(task.getId()), task.getDescription());
+            }
+        }
+
+        try (TaskJournal journal = new TaskJournal(file)) {
+            assertEquals(expected, ids(journal.load()));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run(int writer, int i) throws Exception;
+    }
+
+    private static void runWriters(Step step, List<Throwable> failures) throws InterruptedException {
+        runWriters(WRITERS, TASKS_PER_WRITER, step, failures);
+    }
+
+    // Starts every writer at once and waits for all of them.
+    private static void runWriters(int writers, int perWriter, Step step, List<Throwable> failures) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        step.run(writer, i);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }, "writer-" + w);
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static Set<Integer> expectedIds(IntBinaryOperator id) {
+        Set<Integer> ids = new HashSet<>();
+        for (int writer = 0; writer < WRITERS; writer++) {
+            for (int i = 0; i < TASKS_PER_WRITER; i++) {
+                if (i % 3 != 0) {
+                    ids.add(id.applyAsInt(writer, i));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static Set<Integer> ids(List<Task> tasks) {
+        Set<Integer> ids = new HashSet<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
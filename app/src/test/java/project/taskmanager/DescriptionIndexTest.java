@@ -0,0 +1,75 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DescriptionIndexTest {
+    private static final LocalDateTime DUE = LocalDateTime.now().plusDays(5).withNano(0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void searchIntersectsEveryTerm() throws Exception {
+        DescriptionIndex index = new DescriptionIndex();
+        // "common" is on every task and "even" on every other one, so the sets hold every form.
+        for (int id = 1; id <= 20_000; id++) {
+            String description = "common " + (id % 2 == 0 ? "even" : "odd") + (id % 1000 == 0 ? " Thousand" : "");
+            index.add(new WorkTask(id, description, DUE, 1));
+        }
+        index.add(new WorkTask(70_000, "common even thousandth", DUE, 1));
+
+        assertArrayEquals(IntStream.rangeClosed(1, 20).map(i -> i * 1000).toArray(), index.search("thousand EVEN common"));
+        assertArrayEquals(IntStream.concat(IntStream.rangeClosed(1, 20).map(i -> i * 1000), IntStream.of(70_000)).toArray(),
+                index.search("even thou*"));
+        assertEquals(10_001, index.search("common even").length);
+        assertArrayEquals(new int[0], index.search("odd thousand"));
+        assertArrayEquals(new int[0], index.search("common missing"));
+        assertEquals(21, index.estimate(DescriptionIndex.terms("common thou*")));
+    }
+
+    @Test
+    void updateAndRemoveMoveTheIds() throws Exception {
+        DescriptionIndex index = new DescriptionIndex();
+        Task before = new WorkTask(1, "Buy milk", DUE, 1);
+        index.add(before);
+        index.add(new WorkTask(2, "Buy bread", DUE, 1));
+
+        Task after = new WorkTask(1, "Sell milk", DUE, 1);
+        index.update(before, after);
+        assertArrayEquals(new int[] { 2 }, index.search("buy"));
+        assertArrayEquals(new int[] { 1 }, index.search("sell milk"));
+
+        index.remove(after);
+        assertArrayEquals(new int[0], index.search("milk"));
+        // Words no task uses any more are dropped.
+        assertEquals(2, index.wordCount());
+    }
+
+    @Test
+    void managerKeepsTheIndexInStepWithEditsAndDeletes() throws Exception {
+        try (TaskManager manager = new TaskManager(dir.resolve("tasks.txt").toString(), StorageFormat.TEXT, DurabilityPolicy.none())) {
+            Task first = new WorkTask("Draft quarterly report", DUE, 1);
+            Task second = new PersonalTask("Read report notes", DUE, 2);
+            manager.addTasks(List.of(first, second));
+            assertArrayEquals(new int[] { first.getId(), second.getId() }, manager.searchDescriptions("report"));
+
+            manager.updateTask(first.getId(), "Draft quarterly budget", DUE, 1);
+            assertArrayEquals(new int[] { second.getId() }, manager.searchDescriptions("report"));
+            assertArrayEquals(new int[] { first.getId() }, manager.searchDescriptions("budg*"));
+
+            manager.deleteTask(second.getId());
+            assertArrayEquals(new int[0], manager.searchDescriptions("report"));
+            assertArrayEquals(new int[0], manager.searchDescriptions("notes"));
+            assertTrue(manager.query(TaskQuery.all().describedBy("read")).findAny().isEmpty());
+        }
+    }
+}
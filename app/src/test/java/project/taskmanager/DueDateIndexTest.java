@@ -0,0 +1,102 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DueDateIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(10).withNano(0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void equalDueDatesAreOrderedById() throws Exception {
+        DueDateIndex index = new DueDateIndex();
+        index.add(task(7, BASE));
+        index.add(task(3, BASE));
+        index.add(task(5, BASE));
+        index.add(task(1, BASE.plusSeconds(1)));
+        index.add(task(9, BASE.minusSeconds(1)));
+
+        assertArrayEquals(new int[] { 9, 3, 5, 7, 1 }, index.dueBefore(BASE.plusDays(1)));
+        assertArrayEquals(new int[] { 3, 5, 7 }, index.dueBetween(BASE, BASE.plusSeconds(1)));
+        assertArrayEquals(new int[] { 1, 7, 5, 3, 9 }, index.idsBetween(null, null, true).toArray());
+        assertEquals(BASE.minusSeconds(1), index.earliestDue());
+    }
+
+    @Test
+    void rangesIncludeFromAndExcludeTo() throws Exception {
+        DueDateIndex index = new DueDateIndex();
+        index.addAll(List.of(task(1, BASE), task(2, BASE.plusHours(1)), task(3, BASE.plusHours(2))));
+
+        assertArrayEquals(new int[] { 1, 2 }, index.dueBetween(BASE, BASE.plusHours(2)));
+        assertArrayEquals(new int[] { 2, 3 }, index.dueBetween(BASE.plusSeconds(1), BASE.plusHours(3)));
+        assertArrayEquals(new int[0], index.dueBetween(BASE.plusHours(2), BASE.plusHours(2)));
+        assertArrayEquals(new int[0], index.dueBetween(BASE.plusHours(2), BASE));
+        assertArrayEquals(new int[0], index.dueBefore(BASE));
+        assertArrayEquals(new int[] { 1 }, index.dueBefore(BASE.plusSeconds(1)));
+        // A bound with a fraction of a second rounds up, so it never takes in the second before it.
+        assertArrayEquals(new int[] { 2, 3 }, index.dueBetween(BASE.plusNanos(1), BASE.plusDays(1)));
+        assertArrayEquals(new int[] { 1 }, index.dueBefore(BASE.plusNanos(1)));
+        assertEquals(3, index.countBetween(BASE, null, 10));
+        assertEquals(2, index.countBetween(BASE, null, 2));
+        assertEquals(1, index.countBetween(null, null, 1));
+        assertArrayEquals(new int[] { 2, 3 }, index.idsBetween(BASE.plusHours(1), null, false).toArray());
+    }
+
+    @Test
+    void removeTakesOutOnlyThatVersion() throws Exception {
+        DueDateIndex index = new DueDateIndex();
+        Task first = task(1, BASE);
+        Task moved = task(1, BASE.plusDays(2));
+        index.add(first);
+        index.add(task(2, BASE.plusDays(1)));
+
+        // An update replaces the entry under the old due date with one under the new.
+        index.remove(first);
+        index.add(moved);
+        assertArrayEquals(new int[] { 2, 1 }, index.dueBefore(BASE.plusDays(3)));
+        assertArrayEquals(new int[0], index.dueBetween(BASE, BASE.plusSeconds(1)));
+
+        // Removing with a stale due date finds nothing to remove.
+        index.remove(first);
+        assertEquals(2, index.size());
+        index.remove(moved);
+        index.remove(task(2, BASE.plusDays(1)));
+        assertEquals(0, index.size());
+        assertNull(index.earliestDue());
+    }
+
+    @Test
+    void managerKeepsTheIndexInStepWithUpdatesAndDeletes() throws Exception {
+        try (TaskManager manager = new TaskManager(dir.resolve("tasks.txt").toString(), StorageFormat.TEXT, DurabilityPolicy.none())) {
+            Task a = new WorkTask("a", BASE, 1);
+            Task b = new PersonalTask("b", BASE, 2);
+            Task c = new WorkTask("c", BASE.plusHours(5), 3);
+            manager.addTasks(List.of(a, b, c));
+
+            manager.updateTask(a.getId(), "a", BASE.plusHours(10), 1);
+            assertEquals(List.of(b.getId()), ids(manager.getTasksDueBetween(BASE, BASE.plusHours(1))));
+            assertEquals(List.of(b.getId(), c.getId(), a.getId()), ids(manager.getTasksDueBefore(BASE.plusDays(1))));
+
+            manager.deleteTask(c.getId());
+            assertEquals(List.of(b.getId(), a.getId()), ids(manager.getTasksDueBefore(BASE.plusDays(1))));
+            assertEquals(2, manager.getDueDateIndex().size());
+        }
+    }
+
+    private static Task task(int id, LocalDateTime due) throws InvalidTaskException {
+        return new WorkTask(id, "task " + id, due, 1);
+    }
+
+    private static List<Integer> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
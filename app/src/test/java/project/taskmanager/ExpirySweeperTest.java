@@ -0,0 +1,133 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs the sweeper and the manager's sweep against a clock moved by hand, so expiry can be
+ * tested hours ahead without waiting for it.
+ */
+class ExpirySweeperTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+    @TempDir
+    Path dir;
+
+    private final AtomicReference<LocalDateTime> now = new AtomicReference<>(START);
+    private final AtomicReference<LocalDateTime> nextDue = new AtomicReference<>();
+    private final List<LocalDateTime> sweeps = new ArrayList<>();
+    private final ExpirySweeper sweeper = new ExpirySweeper(nextDue::get, sweeps::add, now::get);
+
+    @Test
+    void sweepsWhenTheEarliestDueDatePasses() {
+        nextDue.set(START.plusMinutes(10));
+        assertTrue(sweeper.sweepIfDue(), "the first call sweeps straight away");
+        assertEquals(List.of(START), sweeps);
+
+        now.set(START.plusMinutes(10).minusSeconds(1));
+        assertFalse(sweeper.sweepIfDue());
+        now.set(START.plusMinutes(10));
+        nextDue.set(null);
+        assertTrue(sweeper.sweepIfDue());
+        assertEquals(List.of(START, START.plusMinutes(10)), sweeps);
+
+        // With nothing stored the sweeper waits for a store to tell it of a due date.
+        now.set(START.plusDays(30));
+        assertFalse(sweeper.sweepIfDue());
+        sweeper.dueAt(START.plusDays(31));
+        assertFalse(sweeper.sweepIfDue());
+        now.set(START.plusDays(31));
+        assertTrue(sweeper.sweepIfDue());
+        assertEquals(3, sweeps.size());
+    }
+
+    @Test
+    void anEarlierDueDateBringsTheSweepForward() {
+        nextDue.set(START.plusHours(5));
+        sweeper.sweepIfDue();
+        sweeper.dueAt(START.plusHours(6));
+        sweeper.dueAt(START.plusHours(1));
+        now.set(START.plusHours(1).minusSeconds(1));
+        assertFalse(sweeper.sweepIfDue());
+        now.set(START.plusHours(1));
+        assertTrue(sweeper.sweepIfDue());
+    }
+
+    @Test
+    void somethingLeftDueIsNotRetriedRightAway() {
+        // A sweep that could not remove a task still reports it as due.
+        nextDue.set(START.minusMinutes(1));
+        sweeper.sweepIfDue();
+        now.set(START.plusNanos(999_000_000));
+        assertFalse(sweeper.sweepIfDue());
+        now.set(START.plusSeconds(1));
+        assertTrue(sweeper.sweepIfDue());
+    }
+
+    @Test
+    void expiredTasksAreRemovedAndJournaledWhileLiveOnesStay() throws Exception {
+        String file = dir.resolve("tasks.txt").toString();
+        LocalDateTime due = LocalDateTime.now().plusHours(1).withNano(0);
+        int[] expired = new int[3];
+        int[] live = new int[2];
+        int recurring;
+        LocalDateTime sweptAt = due.plusMinutes(1);
+        try (TaskManager manager = new TaskManager(file, StorageFormat.TEXT, DurabilityPolicy.none())) {
+            for (int i = 0; i < expired.length; i++) {
+                Task task = new WorkTask("expires " + i, due.plusSeconds(i), 1);
+                manager.addTask(task);
+                expired[i] = task.getId();
+            }
+            // Still inside the grace period when the sweep runs.
+            Task graced = new PersonalTask("just due", sweptAt.minusSeconds(2), 2);
+            Task later = new WorkTask("due tomorrow", due.plusDays(1), 3);
+            manager.addTasks(List.of(graced, later));
+            live[0] = graced.getId();
+            live[1] = later.getId();
+            Task daily = new RecurringTask("stand-up", Recurrence.daily(due), 1);
+            manager.addTask(daily);
+            recurring = daily.getId();
+            TaskEventRing.Subscription events = manager.getEvents().subscribe();
+
+            manager.sweepExpired(sweptAt);
+
+            for (int id : expired) {
+                assertNull(manager.getTask(id));
+            }
+            for (int id : live) {
+                assertNotNull(manager.getTask(id));
+            }
+            assertEquals(due.plusDays(1), manager.getTask(recurring).getDueDate());
+            assertEquals(3, manager.getDueDateIndex().size());
+            List<Integer> expiredEvents = new ArrayList<>();
+            events.poll(event -> {
+                if (event.type() == TaskEvent.Type.EXPIRED) {
+                    expiredEvents.add(event.taskId());
+                }
+            }, 100);
+            assertEquals(List.of(expired[0], expired[1], expired[2]), expiredEvents);
+        }
+
+        // Reopened as of the real time, the tasks are not due yet, so only the journaled deletes keep them out.
+        try (TaskManager manager = new TaskManager(file, StorageFormat.TEXT, DurabilityPolicy.none())) {
+            for (int id : expired) {
+                assertNull(manager.getTask(id), "task " + id + " came back after a restart");
+            }
+            for (int id : live) {
+                assertNotNull(manager.getTask(id));
+            }
+            assertEquals(due.plusDays(1), manager.getTask(recurring).getDueDate());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GroupCommitWriterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void fullQueueMakesProducersWaitForTheWriter() throws Exception {
+        Path file = dir.resolve("tasks.journal");
+        GroupCommitWriter writer = new GroupCommitWriter(file, DurabilityPolicy.none());
+        try {
+            // A hold keeps the writer off the queue, so it fills up.
+            writer.holdWrites();
+            for (int i = 0; i < GroupCommitWriter.MAX_PENDING; i++) {
+                writer.append("+" + i);
+            }
+            CountDownLatch admitted = new CountDownLatch(1);
+            Thread producer = new Thread(() -> {
+                writer.awaitCapacity();
+                writer.append("+last");
+                admitted.countDown();
+            });
+            producer.start();
+            assertFalse(admitted.await(200, TimeUnit.MILLISECONDS), "a full queue let the producer in");
+
+            writer.releaseWrites();
+            assertTrue(admitted.await(10, TimeUnit.SECONDS), "the producer never got room");
+            producer.join();
+            writer.flush();
+            assertEquals(GroupCommitWriter.MAX_PENDING + 1, Files.readAllLines(file).size());
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void journalCountsTheBytesTheWriterWrites() throws IOException {
+        Path file = dir.resolve("tasks.journal");
+        String record = "+3|Café ☕ 🎉 review|2030-01-01T09:00:00|1|WorkTask";
+        GroupCommitWriter writer = new GroupCommitWriter(file, DurabilityPolicy.none());
+        writer.append(record);
+        writer.close();
+
+        assertEquals(Files.size(file), TaskJournal.utf8Length(record) + 1);
+    }
+}
@@ -0,0 +1,151 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RecurrenceTest {
+    // A leap year far enough ahead that every task below is still due in the future.
+    private static final LocalDateTime JAN_31 = LocalDateTime.of(2028, 1, 31, 9, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void monthlyFromThe31stFallsOnEachMonthsLastDayWithoutDrifting() {
+        Recurrence monthly = Recurrence.monthly(JAN_31);
+        assertEquals(List.of(
+                        JAN_31,
+                        LocalDateTime.of(2028, 2, 29, 9, 0),
+                        LocalDateTime.of(2028, 3, 31, 9, 0),
+                        LocalDateTime.of(2028, 4, 30, 9, 0),
+                        LocalDateTime.of(2028, 5, 31, 9, 0)),
+                monthly.between(null, LocalDateTime.of(2028, 6, 1, 0, 0)).toList());
+        assertEquals(LocalDateTime.of(2029, 2, 28, 9, 0), monthly.occurrence(13));
+        assertEquals(LocalDateTime.of(2029, 3, 31, 9, 0), monthly.occurrence(14));
+        // Just past an occurrence moves on to the next one; exactly on it keeps it.
+        assertEquals(LocalDateTime.of(2028, 3, 31, 9, 0), monthly.firstAtOrAfter(LocalDateTime.of(2028, 2, 29, 9, 0, 1)));
+        assertEquals(LocalDateTime.of(2028, 2, 29, 9, 0), monthly.firstAtOrAfter(LocalDateTime.of(2028, 2, 29, 9, 0)));
+    }
+
+    @Test
+    void leapDaysAreKeptOnlyInLeapYears() {
+        LocalDateTime leapDay = LocalDateTime.of(2028, 2, 29, 18, 30);
+        Recurrence monthly = Recurrence.monthly(leapDay);
+        assertEquals(LocalDateTime.of(2028, 3, 29, 18, 30), monthly.occurrence(1));
+        assertEquals(LocalDateTime.of(2029, 2, 28, 18, 30), monthly.occurrence(12));
+        assertEquals(LocalDateTime.of(2032, 2, 29, 18, 30), monthly.occurrence(48));
+
+        Recurrence daily = Recurrence.daily(LocalDateTime.of(2028, 2, 27, 8, 0));
+        assertEquals(List.of(LocalDateTime.of(2028, 2, 28, 8, 0), LocalDateTime.of(2028, 2, 29, 8, 0), LocalDateTime.of(2028, 3, 1, 8, 0)),
+                daily.between(LocalDateTime.of(2028, 2, 27, 8, 0, 1), LocalDateTime.of(2028, 3, 2, 8, 0)).toList());
+        Recurrence weekly = Recurrence.weekly(LocalDateTime.of(2028, 2, 22, 8, 0));
+        assertEquals(LocalDateTime.of(2028, 2, 29, 8, 0), weekly.occurrence(1));
+        assertEquals(LocalDateTime.of(2029, 2, 27, 8, 0), weekly.firstAtOrAfter(LocalDateTime.of(2029, 2, 21, 8, 0, 1)));
+    }
+
+    @Test
+    void occurrencesOfARecurringTaskStartAtTheStoredOne() throws Exception {
+        RecurringTask task = new RecurringTask(5, "rent", LocalDateTime.of(2028, 4, 30, 9, 0), 1, Recurrence.monthly(JAN_31));
+        assertEquals(List.of(LocalDateTime.of(2028, 4, 30, 9, 0), LocalDateTime.of(2028, 5, 31, 9, 0)),
+                task.occurrencesBetween(JAN_31, LocalDateTime.of(2028, 6, 30, 9, 0)).map(Task::getDueDate).toList());
+        RecurringTask rolled = task.rolledForward(LocalDateTime.of(2028, 5, 1, 0, 0));
+        assertEquals(LocalDateTime.of(2028, 5, 31, 9, 0), rolled.getDueDate());
+        assertEquals(task.getId(), rolled.getId());
+        assertFalse(rolled.isExpired());
+    }
+
+    @Test
+    void formatAndParseRoundTrip() {
+        for (Recurrence rule : List.of(Recurrence.monthly(JAN_31), Recurrence.weekly(JAN_31.plusSeconds(59)),
+                Recurrence.everyMinutes(90, LocalDateTime.of(2028, 2, 29, 23, 59, 30)), new Recurrence(Recurrence.Unit.DAYS, 3, JAN_31))) {
+            assertEquals(rule, Recurrence.parse(rule.format()));
+        }
+        assertEquals("MONTHS/1/2028-01-31T09:00:00", Recurrence.monthly(JAN_31).format());
+        assertEquals(JAN_31, Recurrence.monthly(JAN_31.plusNanos(500)).start());
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("MONTHS/1"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("YEARS/1/2028-01-31T09:00:00"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("DAYS/0/2028-01-31T09:00:00"));
+    }
+
+    @Test
+    void recurringTasksSurviveTheTextRecordAndBothSnapshotFormats() throws Exception {
+        List<Task> tasks = List.of(
+                new RecurringTask(1, "pay | rent", LocalDateTime.of(2028, 2, 29, 9, 0), 2, Recurrence.monthly(JAN_31)),
+                new RecurringTask(2, "stand-up", LocalDateTime.of(2028, 3, 1, 9, 45), 0, Recurrence.everyMinutes(15, LocalDateTime.of(2028, 3, 1, 9, 0))),
+                new WorkTask(3, "plain", JAN_31, 1));
+
+        for (Task task : tasks) {
+            String line = task.toFileString();
+            ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            assertSameTask(task, Task.parse(line));
+            assertSameTask(task, ParallelTaskLoader.parseRecord(buffer, 0, buffer.limit()));
+        }
+
+        for (StorageFormat format : StorageFormat.values()) {
+            String journaled = dir.resolve("journaled-" + format.name()).toString();
+            try (TaskJournal journal = new TaskJournal(journaled, format, 0, DurabilityPolicy.none())) {
+                journal.load();
+                journal.appendNextId(tasks.size() + 1);
+                for (Task task : tasks) {
+                    journal.appendAdd(task);
+                }
+            }
+            assertSameTasks(tasks, reload(journaled, format));
+
+            String compacted = dir.resolve("compacted-" + format.name()).toString();
+            try (TaskJournal journal = new TaskJournal(compacted, format, 0, DurabilityPolicy.none())) {
+                journal.load();
+                journal.appendNextId(tasks.size() + 1);
+                for (Task task : tasks) {
+                    journal.appendAdd(task);
+                }
+                journal.compact(capture -> capture.accept(tasks));
+                journal.flush();
+                awaitSnapshotWritten(compacted);
+            }
+            assertSameTasks(tasks, reload(compacted, format));
+        }
+    }
+
+    private static List<Task> reload(String file, StorageFormat format) throws Exception {
+        try (TaskJournal journal = new TaskJournal(file, format, 0, DurabilityPolicy.none())) {
+            return journal.load().stream().sorted(Comparator.comparingInt(Task::getId)).toList();
+        }
+    }
+
+    private static void assertSameTasks(List<Task> expected, List<Task> actual) {
+        assertEquals(expected.size(), actual.size(), "loaded " + actual);
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameTask(expected.get(i), actual.get(i));
+        }
+    }
+
+    private static void assertSameTask(Task expected, Task actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.toFileString(), actual.toFileString());
+        if (expected instanceof RecurringTask recurring) {
+            assertEquals(recurring.getRecurrence(), assertInstanceOf(RecurringTask.class, actual).getRecurrence());
+        }
+    }
+
+    private static void awaitSnapshotWritten(String file) throws InterruptedException {
+        Path rotated = Path.of(file + ".journal.old");
+        for (int i = 0; i < 500 && Files.exists(rotated); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(Files.notExists(rotated), "compaction did not finish");
+    }
+}
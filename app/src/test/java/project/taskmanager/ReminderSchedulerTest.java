@@ -0,0 +1,127 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Drives the timing wheel by hand with one-millisecond ticks, so deadlines can sit just on either
+ * side of the points where a level wraps and its reminders cascade to the level below.
+ */
+class ReminderSchedulerTest {
+    // Ticks covered by one slot of level 1, 2 and 3; level 4 holds everything up to 64^5 ticks.
+    private static final long LEVEL1 = 64;
+    private static final long LEVEL2 = 64 * 64;
+    private static final long LEVEL3 = 64 * 64 * 64;
+    private static final long SPAN = 1L << 30;
+
+    // Deliberately not a multiple of the tick, and far from zero.
+    private final AtomicLong now = new AtomicLong(1_700_000_000_123L);
+    private final long start = now.get();
+    private final ReminderScheduler scheduler = new ReminderScheduler(1, now::get);
+    private final List<Integer> fired = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        scheduler.close();
+    }
+
+    @Test
+    void firesOnItsTickAndNotBefore() {
+        scheduleIn(1, 5);
+        advanceTo(4);
+        assertTrue(fired.isEmpty());
+        advanceTo(5);
+        assertEquals(List.of(1), fired);
+        assertEquals(0, scheduler.pending());
+    }
+
+    @Test
+    void cascadesThroughEveryLevelOnTime() {
+        long[] deadlines = {
+                LEVEL1 - 1, LEVEL1, LEVEL1 + 1,
+                LEVEL2 - 1, LEVEL2, LEVEL2 + 3,
+                LEVEL3 - 1, LEVEL3, LEVEL3 + 5,
+                64 * LEVEL3 + 7 };
+        for (int key = 0; key < deadlines.length; key++) {
+            scheduleIn(key, deadlines[key]);
+        }
+        for (int key = 0; key < deadlines.length; key++) {
+            advanceTo(deadlines[key] - 1);
+            assertEquals(key, fired.size(), "fired early before deadline " + deadlines[key]);
+            advanceTo(deadlines[key]);
+            assertEquals(key + 1, fired.size(), "missed deadline " + deadlines[key]);
+            assertEquals(key, fired.get(key));
+        }
+        assertEquals(0, scheduler.pending());
+    }
+
+    @Test
+    void cancelledReminderNeverFiresEvenAfterItCascaded() {
+        scheduleIn(1, LEVEL1 + 10);
+        scheduleIn(2, LEVEL2 + 10);
+        assertTrue(scheduler.cancel(2));
+        // By now reminder 1 has moved down from level 1 into level 0.
+        advanceTo(LEVEL1 + 1);
+        assertTrue(scheduler.cancel(1));
+        assertFalse(scheduler.cancel(1));
+        advanceTo(LEVEL2 + 20);
+        assertTrue(fired.isEmpty());
+        assertEquals(0, scheduler.pending());
+    }
+
+    @Test
+    void rescheduleReplacesThePendingReminder() {
+        scheduleIn(1, 10);
+        scheduleIn(1, LEVEL1 + 30);
+        assertEquals(1, scheduler.pending());
+        advanceTo(LEVEL1 + 29);
+        assertTrue(fired.isEmpty());
+        advanceTo(LEVEL1 + 30);
+        assertEquals(List.of(1), fired);
+
+        // Moving a reminder earlier works too, including out of a higher level.
+        scheduleIn(2, LEVEL2 + 500);
+        scheduleIn(2, LEVEL1 + 40);
+        advanceTo(LEVEL1 + 40);
+        assertEquals(List.of(1, 2), fired);
+        advanceTo(LEVEL2 + 600);
+        assertEquals(List.of(1, 2), fired);
+    }
+
+    @Test
+    void deadlineAlreadyDueFiresOnTheNextTick() {
+        advanceTo(100);
+        scheduler.schedule(1, now.get() - 50, fired::add);
+        scheduler.runDue();
+        assertTrue(fired.isEmpty(), "fired on the tick it was scheduled in");
+        advanceTo(101);
+        assertEquals(List.of(1), fired);
+    }
+
+    @Test
+    void deadlinePastTheTopLevelWaitsAtItsEdgeThenFiresOnTime() {
+        scheduleIn(1, SPAN + 100);
+        scheduleIn(2, 3 * LEVEL3);
+        advanceTo(SPAN + 99);
+        assertEquals(List.of(2), fired);
+        assertEquals(1, scheduler.pending());
+        advanceTo(SPAN + 100);
+        assertEquals(List.of(2, 1), fired);
+    }
+
+    private void scheduleIn(int key, long ticks) {
+        scheduler.schedule(key, start + ticks, fired::add);
+    }
+
+    private void advanceTo(long tick) {
+        now.set(start + tick);
+        scheduler.runDue();
+    }
+}
@@ -0,0 +1,38 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StoreLockTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void fileLockedElsewhereInThisProcessIsReportedNotThrown() throws Exception {
+        Path snapshot = dir.resolve("tasks.txt");
+        StoreLock lock = StoreLock.forStore(snapshot);
+        try (FileChannel channel = FileChannel.open(Path.of(snapshot + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock held = channel.lock()) {
+            lock.lock(this);
+            lock.unlock();
+            assertTrue(held.isValid());
+        }
+
+        // Once the other lock is gone the store lock takes the file again.
+        lock.lock(this);
+        try (FileChannel channel = FileChannel.open(Path.of(snapshot + ".lock"), StandardOpenOption.WRITE)) {
+            assertThrows(OverlappingFileLockException.class, channel::tryLock);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
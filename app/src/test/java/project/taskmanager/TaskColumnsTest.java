@@ -0,0 +1,74 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TaskColumnsTest {
+    private static final LocalDateTime DUE = LocalDateTime.now().plusDays(10).withNano(0);
+
+    private static Task task(int id, String description) throws InvalidTaskException {
+        return new PersonalTask(id, description, DUE, 1 + id % 3);
+    }
+
+    private static void assertHolds(TaskColumns columns, Map<Integer, String> expected) {
+        assertEquals(expected.size(), columns.size());
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), columns.get(entry.getKey()).getDescription(), "task " + entry.getKey());
+        }
+    }
+
+    @Test
+    void reusedSlotDoesNotCarryTheRemovedDescriptionIntoAReclaim() throws InvalidTaskException {
+        TaskColumns columns = new TaskColumns();
+        Map<Integer, String> expected = new HashMap<>();
+        // Long descriptions in many rows, then remove all but one: the arena is mostly garbage.
+        for (int id = 1; id <= 20; id++) {
+            String description = "x".repeat(90) + id;
+            columns.put(task(id, description));
+            expected.put(id, description);
+        }
+        for (int id = 2; id <= 20; id++) {
+            columns.remove(id);
+            expected.remove(id);
+        }
+        assertHolds(columns, expected);
+
+        // Reusing the freed slots fills the arena until an append reclaims it.
+        for (int id = 100; id < 140; id++) {
+            String description = "y".repeat(60) + id;
+            columns.put(task(id, description));
+            expected.put(id, description);
+            assertHolds(columns, expected);
+        }
+    }
+
+    @Test
+    void randomPutsAndRemovesKeepEveryRow() throws InvalidTaskException {
+        TaskColumns columns = new TaskColumns();
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 20_000; step++) {
+            int id = 1 + random.nextInt(64);
+            if (random.nextInt(3) == 0) {
+                Task removed = columns.remove(id);
+                String description = expected.remove(id);
+                if (description == null) {
+                    assertNull(removed);
+                } else {
+                    assertEquals(description, removed.getDescription());
+                }
+            } else {
+                String description = "task " + id + " " + "z".repeat(random.nextInt(200));
+                columns.put(task(id, description));
+                expected.put(id, description);
+            }
+        }
+        assertHolds(columns, expected);
+    }
+}
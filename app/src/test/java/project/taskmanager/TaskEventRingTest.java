@@ -0,0 +1,159 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class TaskEventRingTest {
+    private static final int POOL = 97;
+    private static final TaskEvent.Type[] TYPES = TaskEvent.Type.values();
+
+    // Every event's fields follow from its sequence, so a reader can tell a torn copy from a whole one.
+    private final Task[] tasks = new Task[POOL];
+
+    TaskEventRingTest() throws InvalidTaskException {
+        LocalDateTime due = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < POOL; i++) {
+            tasks[i] = new WorkTask(i, "task " + i, due, i % 4);
+        }
+    }
+
+    @Test
+    void aLappedReaderIsToldWhatItMissedAndCarriesOn() {
+        TaskEventRing ring = new TaskEventRing(8);
+        TaskEventRing.Subscription slow = ring.subscribe();
+        for (long sequence = 0; sequence < 5; sequence++) {
+            publish(ring, sequence);
+        }
+        Recorder recorder = new Recorder();
+        assertEquals(2, slow.poll(recorder, 2));
+        for (long sequence = 5; sequence < 30; sequence++) {
+            publish(ring, sequence);
+        }
+        assertEquals(28, slow.lag());
+
+        // Events 2 to 21 were overwritten; 22 to 29 are still in the ring.
+        assertEquals(8, slow.poll(recorder, 100));
+        assertEquals(List.of(List.of(2L, 22L)), recorder.missed);
+        assertEquals(List.of(0L, 1L, 22L, 23L, 24L, 25L, 26L, 27L, 28L, 29L), recorder.read);
+        assertEquals(30, slow.position());
+        assertEquals(0, slow.poll(recorder, 100));
+
+        publish(ring, 30);
+        assertEquals(1, slow.poll(recorder, 100));
+        assertEquals(1, recorder.missed.size());
+        assertEquals(31, slow.position());
+    }
+
+    @Test
+    void subscriptionsStartWhereAsked() {
+        TaskEventRing ring = new TaskEventRing(4);
+        for (long sequence = 0; sequence < 10; sequence++) {
+            publish(ring, sequence);
+        }
+        Recorder recorder = new Recorder();
+        ring.subscribeFrom(3).poll(recorder, 100);
+        assertEquals(List.of(List.of(3L, 6L)), recorder.missed);
+        assertEquals(List.of(6L, 7L, 8L, 9L), recorder.read);
+        assertEquals(0, ring.subscribe().poll(recorder, 100));
+        assertThrows(IllegalArgumentException.class, () -> ring.subscribeFrom(11));
+        assertThrows(IllegalArgumentException.class, () -> new TaskEventRing(6));
+    }
+
+    @Test
+    void aReaderLappedWhileItReadsNeverSeesATornEvent() throws Exception {
+        TaskEventRing ring = new TaskEventRing(16);
+        long total = 200_000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (long sequence = 0; sequence < total; sequence++) {
+                publish(ring, sequence);
+                // Gives the reader a turn now and then, so it reads some slots while they are being overwritten.
+                if (sequence % 16 == 0) {
+                    Thread.yield();
+                }
+            }
+        }, "ring-writer");
+
+        TaskEventRing.Subscription reader = ring.subscribe();
+        long[] counts = new long[2];
+        TaskEventRing.Handler check = new TaskEventRing.Handler() {
+            private long expected;
+
+            @Override
+            public void onEvent(TaskEvent event) {
+                try {
+                    assertEquals(expected, event.sequence());
+                    assertWhole(event);
+                    counts[0]++;
+                    expected++;
+                    // Slow enough that the writer keeps lapping it.
+                    if (expected % 64 == 0) {
+                        Thread.yield();
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                    throw e;
+                }
+            }
+
+            @Override
+            public void missed(long from, long to) {
+                if (from != expected || to <= from) {
+                    failure.compareAndSet(null, new AssertionError("missed [" + from + ", " + to + ") at " + expected));
+                }
+                counts[1] += to - from;
+                expected = to;
+            }
+        };
+        writer.start();
+        while (reader.position() < total && failure.get() == null) {
+            reader.poll(check, 1000);
+        }
+        writer.join();
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(total, counts[0] + counts[1]);
+        assertTrue(counts[0] > 0 && counts[1] > 0, "read " + counts[0] + ", missed " + counts[1]);
+    }
+
+    private void publish(TaskEventRing ring, long sequence) {
+        ring.publish(TYPES[(int) (sequence % TYPES.length)], tasks[(int) (sequence % POOL)], tasks[(int) ((sequence + 1) % POOL)]);
+    }
+
+    private void assertWhole(TaskEvent event) {
+        long sequence = event.sequence();
+        assertEquals(TYPES[(int) (sequence % TYPES.length)], event.type());
+        assertSame(tasks[(int) (sequence % POOL)], event.task());
+        if (event.type() == TaskEvent.Type.UPDATED) {
+            assertSame(tasks[(int) ((sequence + 1) % POOL)], event.previous());
+        } else {
+            assertNull(event.previous());
+        }
+    }
+
+    private class Recorder implements TaskEventRing.Handler {
+        final List<Long> read = new ArrayList<>();
+        final List<List<Long>> missed = new ArrayList<>();
+
+        @Override
+        public void onEvent(TaskEvent event) {
+            assertWhole(event);
+            read.add(event.sequence());
+        }
+
+        @Override
+        public void missed(long from, long to) {
+            missed.add(List.of(from, to));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TaskFileConverterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void convertsEveryMonthOfACompactedStore() throws Exception {
+        Path input = dir.resolve("tasks.txt");
+        YearMonth first = YearMonth.now().plusMonths(1);
+        List<Task> state = new ArrayList<>();
+        for (int id = 1; id <= 12; id++) {
+            LocalDateTime due = first.plusMonths(id % 4).atDay(10).atTime(9, 0);
+            state.add(id % 2 == 0 ? new WorkTask(id, "work " + id, due, 1) : new PersonalTask(id, "personal " + id, due, 2));
+        }
+        Task journaled = new WorkTask(13, "only in the journal", first.atDay(20).atTime(9, 0), 3);
+
+        // Compaction moves the store into monthly segments and deletes tasks.txt; one more add stays in the journal.
+        try (TaskJournal journal = new TaskJournal(input.toString(), StorageFormat.TEXT, 0, DurabilityPolicy.none())) {
+            journal.load();
+            journal.appendNextId(state.size() + 1);
+            for (Task task : state) {
+                journal.appendAdd(task);
+            }
+            journal.compact(capture -> capture.accept(state));
+            journal.appendAdd(journaled);
+            journal.flush();
+            awaitSnapshotWritten(input);
+        }
+        assertFalse(Files.exists(input), "compaction left the single snapshot file");
+
+        Path output = dir.resolve("tasks.bin");
+        TaskJournal.LoadReport report = TaskFileConverter.convert(StorageFormat.TEXT, StorageFormat.BINARY, input, output);
+        assertEquals(state.size() + 1, report.tasks());
+        assertTrue(Files.exists(Path.of(output + ".segments", "manifest")));
+
+        Set<Integer> expected = new HashSet<>();
+        for (int id = 1; id <= 13; id++) {
+            expected.add(id);
+        }
+        try (TaskJournal converted = new TaskJournal(output.toString(), StorageFormat.BINARY,
+                TaskJournal.DEFAULT_COMPACT_THRESHOLD, DurabilityPolicy.none())) {
+            Set<Integer> ids = new HashSet<>();
+            for (Task task : converted.load()) {
+                ids.add(task.getId());
+            }
+            assertEquals(expected, ids);
+            assertTrue(converted.nextId() > 13, "the converted store would reissue ids");
+        }
+    }
+
+    // Compaction writes the snapshot in the background and deletes the rotated journal once it is in place.
+    private static void awaitSnapshotWritten(Path file) throws InterruptedException {
+        Path rotated = Path.of(file + ".journal.old");
+        for (int i = 0; i < 500 && Files.exists(rotated); i++) {
+            Thread.sleep(10);
+        }
+        assertFalse(Files.exists(rotated), "compaction did not finish");
+    }
+}
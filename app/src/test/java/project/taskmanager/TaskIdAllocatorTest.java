@@ -0,0 +1,53 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class TaskIdAllocatorTest {
+
+    @Test
+    void aLeaseAboveTheMarkKeepsTheCurrentBlock() {
+        TaskIdAllocator allocator = new TaskIdAllocator(8);
+        assertEquals(1, allocator.next());
+        // Another process leased the next block, as a tailer reports it.
+        allocator.advanceTo(9, 17);
+        assertEquals(17, allocator.highWater());
+        assertEquals(2, allocator.next());
+    }
+
+    @Test
+    void aRangeOverlappingTheUnusedIdsDropsTheBlock() {
+        TaskIdAllocator allocator = new TaskIdAllocator(8);
+        assertEquals(1, allocator.next());
+        assertEquals(2, allocator.next());
+        allocator.advanceTo(5, 30);
+        assertEquals(30, allocator.next());
+    }
+
+    @Test
+    void onlyTheBlockTheRangeReachesIsDropped() throws Exception {
+        TaskIdAllocator allocator = new TaskIdAllocator(8);
+        assertEquals(1, allocator.next());
+        int[] other = new int[2];
+        Thread thread = new Thread(() -> {
+            other[0] = allocator.next();
+            // Reaches into this thread's block [9, 17), not into the test thread's [1, 9).
+            allocator.advanceTo(12, 20);
+            other[1] = allocator.next();
+        });
+        thread.start();
+        thread.join();
+        assertEquals(9, other[0]);
+        assertEquals(20, other[1]);
+        assertEquals(2, allocator.next());
+    }
+
+    @Test
+    void aStoreLoadedWithAHigherMarkDropsEveryBlock() {
+        TaskIdAllocator allocator = new TaskIdAllocator(8);
+        assertEquals(1, allocator.next());
+        allocator.advanceTo(100);
+        assertEquals(100, allocator.next());
+    }
+}
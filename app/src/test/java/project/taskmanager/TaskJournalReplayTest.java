@@ -0,0 +1,54 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TaskJournalReplayTest {
+    private static final DateTimeFormatter DUE = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    @TempDir
+    Path dir;
+
+    private List<Task> replay(String... records) throws IOException {
+        Path snapshot = dir.resolve("tasks.txt");
+        Files.write(Path.of(snapshot + ".journal"), List.of(records));
+        try (TaskJournal journal = new TaskJournal(snapshot.toString())) {
+            return journal.load();
+        }
+    }
+
+    private static String add(int id, String description, LocalDateTime due) {
+        return "+" + id + "|" + description + "|" + due.withNano(0).format(DUE) + "|1|WorkTask";
+    }
+
+    @Test
+    void updateThatHasSinceExpiredDropsTheEarlierVersion() throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        // An update is journaled as a second add; by the restart its new due date has passed.
+        List<Task> tasks = replay(
+                add(7, "original", now.plusDays(3)),
+                add(7, "moved earlier", now.minusMinutes(5)));
+
+        assertTrue(tasks.isEmpty(), "the earlier version came back: " + tasks);
+    }
+
+    @Test
+    void updateStillDueKeepsOnlyTheLatestVersion() throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = replay(
+                add(7, "original", now.plusDays(3)),
+                add(7, "updated", now.plusDays(4)));
+
+        assertEquals(1, tasks.size());
+        assertEquals("updated", tasks.get(0).getDescription());
+    }
+}
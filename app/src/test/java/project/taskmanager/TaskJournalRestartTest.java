@@ -0,0 +1,71 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TaskJournalRestartTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void restartAfterASweepLeavesLaterMonthsCold() throws Exception {
+        String file = dir.resolve("tasks.txt").toString();
+        YearMonth hotThrough = YearMonth.now().plusMonths(1);
+        LocalDateTime soon = LocalDateTime.now().plusSeconds(1);
+        LocalDateTime later = hotThrough.plusMonths(3).atDay(10).atTime(9, 0);
+        Task expiring = new WorkTask(1, "due soon", soon, 1);
+        List<Task> state = new ArrayList<>(List.of(expiring));
+        for (int id = 2; id <= 10; id++) {
+            state.add(new PersonalTask(id, "later " + id, later, 2));
+        }
+
+        // A segmented snapshot with the later tasks in a month startup leaves cold.
+        try (TaskJournal journal = new TaskJournal(file, StorageFormat.TEXT, 0, DurabilityPolicy.none())) {
+            journal.load();
+            journal.appendNextId(state.size() + 1);
+            for (Task task : state) {
+                journal.appendAdd(task);
+            }
+            journal.compact(capture -> capture.accept(state));
+            journal.flush();
+            awaitSnapshotWritten(file);
+        }
+
+        // The sweep removes the expired task, which journals a delete.
+        try (TaskJournal journal = new TaskJournal(file)) {
+            journal.load(hotThrough);
+            assertEquals(1, journal.coldSegments().size());
+            journal.appendDelete(expiring);
+        }
+        // By the next start the snapshot read skips the task as expired, so the delete finds nothing loaded.
+        while (!LocalDateTime.now().isAfter(soon)) {
+            Thread.sleep(50);
+        }
+
+        try (TaskJournal journal = new TaskJournal(file)) {
+            List<Task> loaded = journal.load(hotThrough);
+            assertTrue(loaded.isEmpty(), "startup loaded cold tasks: " + loaded);
+            assertEquals(1, journal.coldSegments().size(), "the delete made startup read the later month");
+            assertFalse(journal.needsCompaction(), "the delete forced a compaction");
+        }
+    }
+
+    // Compaction writes the snapshot in the background and deletes the rotated journal once it is in place.
+    private static void awaitSnapshotWritten(String file) throws InterruptedException {
+        Path rotated = Path.of(file + ".journal.old");
+        for (int i = 0; i < 500 && Files.exists(rotated); i++) {
+            Thread.sleep(10);
+        }
+        assertFalse(Files.exists(rotated), "compaction did not finish");
+    }
+}
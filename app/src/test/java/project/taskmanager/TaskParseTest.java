@@ -0,0 +1,37 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class TaskParseTest {
+    private static Task parseRecord(String line) throws InvalidTaskException {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        return ParallelTaskLoader.parseRecord(buffer, 0, buffer.limit());
+    }
+
+    @Test
+    void bothParsersReadADescriptionContainingSeparators() throws InvalidTaskException {
+        Task task = new WorkTask(12, "call | then email | Bob", LocalDateTime.now().plusDays(1).withNano(0), 2);
+        String line = task.toFileString();
+
+        for (Task parsed : new Task[] { Task.parse(line), parseRecord(line) }) {
+            assertEquals(12, parsed.getId());
+            assertEquals("call | then email | Bob", parsed.getDescription());
+            assertEquals(task.getDueDate(), parsed.getDueDate());
+            assertEquals(2, parsed.getPriority());
+            assertEquals(WorkTask.class, parsed.getClass());
+        }
+    }
+
+    @Test
+    void bothParsersRejectAMissingField() {
+        String line = "12|no date|2|WorkTask";
+        assertThrows(IllegalArgumentException.class, () -> Task.parse(line));
+        assertThrows(IllegalArgumentException.class, () -> parseRecord(line));
+    }
+}
@@ -0,0 +1,119 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks which plan the planner picks, and that every plan able to answer a query gives the
+ * same page as filtering and sorting all tasks by hand.
+ */
+class TaskQueryPlannerTest {
+    private static final int TASKS = 400;
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(30).withNano(0);
+    private static final String[] WORDS = { "report", "review", "invoice", "meeting" };
+
+    private final StripedTaskStore store = new StripedTaskStore(4);
+    private final DueDateIndex dueIndex = new DueDateIndex();
+    private final DescriptionIndex descriptionIndex = new DescriptionIndex();
+    private final List<Task> all = new ArrayList<>();
+    private TaskQueryPlanner planner;
+
+    @BeforeEach
+    void fillStore() throws Exception {
+        for (int id = 1; id <= TASKS; id++) {
+            String description = WORDS[id % WORDS.length] + " " + WORDS[(id / 7) % WORDS.length] + " item" + id;
+            if (id == 123) {
+                description += " unicorn";
+            }
+            // A handful of tasks share a due date, so ties have to be broken the same way by every plan.
+            LocalDateTime due = BASE.plusHours(id - id % 3);
+            Task task = id % 2 == 0
+                    ? new WorkTask(id, description, due, id % 5)
+                    : new PersonalTask(id, description, due, id % 5);
+            store.put(task, (previous, current) -> {
+                dueIndex.add(current);
+                descriptionIndex.add(current);
+            });
+            all.add(task);
+        }
+        planner = new TaskQueryPlanner(store, dueIndex, descriptionIndex, Set.of());
+    }
+
+    @Test
+    void picksThePlanThatTouchesFewestTasks() {
+        assertEquals(TaskQuery.Plan.COLUMN_SCAN, planner.plan(TaskQuery.all()));
+        assertEquals(TaskQuery.Plan.COLUMN_SCAN, planner.plan(TaskQuery.all().withPriorities(1, 2)));
+        // The threshold is an eighth of the store: 50 tasks.
+        assertEquals(TaskQuery.Plan.DUE_INDEX, planner.plan(TaskQuery.all().dueBetween(BASE, BASE.plusHours(20))));
+        assertEquals(TaskQuery.Plan.COLUMN_SCAN, planner.plan(TaskQuery.all().dueBetween(BASE, BASE.plusHours(300))));
+        assertEquals(TaskQuery.Plan.DUE_INDEX, planner.plan(TaskQuery.all().sortedBy(TaskQuery.Sort.DUE_DATE)));
+        assertEquals(TaskQuery.Plan.TEXT_INDEX, planner.plan(TaskQuery.all().describedBy("unicorn")));
+        assertEquals(TaskQuery.Plan.TEXT_INDEX,
+                planner.plan(TaskQuery.all().describedBy("unicorn").sortedBy(TaskQuery.Sort.DUE_DATE)));
+        assertEquals(TaskQuery.Plan.TEXT_INDEX,
+                planner.plan(TaskQuery.all().describedBy("unicorn").dueBetween(BASE, BASE.plusHours(300))));
+        // A common word loses to a range holding fewer tasks than it matches, and to a due-date walk.
+        assertEquals(TaskQuery.Plan.DUE_INDEX,
+                planner.plan(TaskQuery.all().describedBy("report").dueBetween(BASE, BASE.plusHours(20))));
+        assertEquals(TaskQuery.Plan.DUE_INDEX,
+                planner.plan(TaskQuery.all().describedBy("report").sortedBy(TaskQuery.Sort.DUE_DATE)));
+    }
+
+    @Test
+    void everyPlanGivesTheSameResults() {
+        List<TaskQuery> queries = new ArrayList<>();
+        for (TaskQuery.Sort sort : TaskQuery.Sort.values()) {
+            for (boolean descending : new boolean[] { false, true }) {
+                TaskQuery base = TaskQuery.all().sortedBy(sort, descending);
+                queries.add(base);
+                queries.add(base.withPriorities(0, 3));
+                queries.add(base.dueBetween(BASE.plusHours(10), BASE.plusHours(40)));
+                queries.add(base.dueBetween(BASE.plusMinutes(30), BASE.plusHours(250)).withPriorities(2));
+                queries.add(base.dueBefore(BASE.plusHours(90)).ofType(WorkTask.class));
+                queries.add(base.describedBy("report"));
+                queries.add(base.describedBy("rev* invoice"));
+                queries.add(base.describedBy("report").withPriorities(1, 4).dueBetween(BASE.plusHours(50), BASE.plusHours(200)));
+                queries.add(base.describedBy("meeting").dueFrom(BASE.plusHours(300)).ofType(PersonalTask.class));
+                queries.add(base.describedBy("unicorn").dueBetween(BASE, BASE.plusHours(400)));
+                queries.add(base.describedBy("nothing"));
+            }
+        }
+        for (TaskQuery query : queries) {
+            for (TaskQuery paged : List.of(query, query.page(0, 7), query.page(5, 10), query.page(1000, 10))) {
+                List<Integer> expected = expected(paged);
+                for (TaskQuery.Plan plan : TaskQuery.Plan.values()) {
+                    if (plan == TaskQuery.Plan.TEXT_INDEX && !paged.hasText()) continue;
+                    assertEquals(expected, ids(paged, plan), plan + " for " + describe(paged));
+                }
+                assertEquals(expected, ids(paged, planner.plan(paged)));
+            }
+        }
+        assertFalse(expected(TaskQuery.all().describedBy("report").dueBetween(BASE, BASE.plusHours(100))).isEmpty());
+    }
+
+    private List<Integer> expected(TaskQuery query) {
+        return all.stream()
+                .filter(query::matches)
+                .sorted(query.comparator())
+                .skip(query.offset())
+                .limit(query.limit())
+                .map(Task::getId)
+                .toList();
+    }
+
+    private List<Integer> ids(TaskQuery query, TaskQuery.Plan plan) {
+        return planner.run(query, plan).map(Task::getId).toList();
+    }
+
+    private static String describe(TaskQuery query) {
+        return query.sort() + (query.descending() ? " desc" : "") + " terms=" + query.terms()
+                + " due=[" + query.dueFrom() + ", " + query.dueBefore() + ") page=" + query.offset() + "+" + query.limit();
+    }
+}
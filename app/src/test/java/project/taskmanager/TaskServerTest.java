@@ -0,0 +1,106 @@
+package project.taskmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TaskServerTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void oversizedBodyIsRefusedWithoutStoringAnything() throws Exception {
+        String due = LocalDateTime.now().plusDays(1).withNano(0).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        String line = "x".repeat(1000) + "|" + due + "|1|WorkTask\n";
+        try (TaskManager manager = new TaskManager(dir.resolve("tasks.txt").toString(), StorageFormat.TEXT,
+                DurabilityPolicy.none())) {
+            TaskServer server = new TaskServer(manager, 0);
+            server.start();
+            try {
+                HttpClient client = HttpClient.newHttpClient();
+                URI batch = URI.create("http://localhost:" + server.port() + "/tasks/batch");
+
+                // About 9 MB in 9000 lines, under the batch limit but over the body limit.
+                HttpResponse<String> tooLarge = client.send(HttpRequest.newBuilder(batch)
+                        .POST(HttpRequest.BodyPublishers.ofString(line.repeat(9000))).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                assertEquals(413, tooLarge.statusCode());
+                assertEquals(0, manager.size());
+
+                HttpResponse<String> created = client.send(HttpRequest.newBuilder(batch)
+                        .POST(HttpRequest.BodyPublishers.ofString(line.repeat(3))).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                assertEquals(201, created.statusCode());
+                assertEquals(3, manager.size());
+            } finally {
+                server.stop();
+            }
+        }
+    }
+
+    @Test
+    void onlyTheTasksPathAndPathsBelowItAreServed() throws Exception {
+        try (TaskManager manager = new TaskManager(dir.resolve("tasks.txt").toString(), StorageFormat.TEXT,
+                DurabilityPolicy.none())) {
+            TaskServer server = new TaskServer(manager, 0);
+            server.start();
+            try {
+                HttpClient client = HttpClient.newHttpClient();
+                String base = "http://localhost:" + server.port();
+                for (String path : new String[] { "/tasksx", "/tasks2/batch", "/tasks/batch/x" }) {
+                    HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + path)).GET().build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    assertEquals(404, response.statusCode(), path);
+                }
+                HttpResponse<String> posted = client.send(HttpRequest.newBuilder(URI.create(base + "/tasksx"))
+                        .POST(HttpRequest.BodyPublishers.ofString("nope|2099-01-01T00:00:00|1|WorkTask\n")).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                assertEquals(404, posted.statusCode());
+                assertEquals(0, manager.size());
+                for (String path : new String[] { "/tasks", "/tasks/" }) {
+                    assertEquals(200, client.send(HttpRequest.newBuilder(URI.create(base + path)).GET().build(),
+                            HttpResponse.BodyHandlers.ofString()).statusCode(), path);
+                }
+            } finally {
+                server.stop();
+            }
+        }
+    }
+
+    @Test
+    void descriptionMayContainTheFieldSeparator() throws Exception {
+        String due = LocalDateTime.now().plusDays(1).withNano(0).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        try (TaskManager manager = new TaskManager(dir.resolve("tasks.txt").toString(), StorageFormat.TEXT,
+                DurabilityPolicy.none())) {
+            TaskServer server = new TaskServer(manager, 0);
+            server.start();
+            try {
+                HttpClient client = HttpClient.newHttpClient();
+                URI tasks = URI.create("http://localhost:" + server.port() + "/tasks");
+                HttpResponse<String> created = client.send(HttpRequest.newBuilder(tasks)
+                        .POST(HttpRequest.BodyPublishers.ofString("call | then email | Bob|" + due + "|2|WorkTask\n")).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                assertEquals(201, created.statusCode(), created.body());
+                Task stored = Task.parse(created.body().strip());
+                assertEquals("call | then email | Bob", manager.getTask(stored.getId()).getDescription());
+                assertEquals(2, stored.getPriority());
+
+                HttpResponse<String> missingField = client.send(HttpRequest.newBuilder(tasks)
+                        .POST(HttpRequest.BodyPublishers.ofString(due + "|2|WorkTask\n")).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                assertEquals(400, missingField.statusCode());
+                assertEquals(1, manager.size());
+            } finally {
+                server.stop();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package project.taskmanager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import project.taskmanager.DurabilityPolicy;
+import project.taskmanager.StorageFormat;
+import project.taskmanager.Task;
+import project.taskmanager.TaskManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of one TaskManager as the number of writer threads grows.
+ *
+ * Every operation adds a task and deletes it again, so the store stays at {@code size} tasks
+ * and each operation journals two records. The methods only differ in their thread count;
+ * with stripes that do not contend, throughput should keep rising up to the core count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ConcurrentWriteBenchmark {
+    @Param({"100000"})
+    public int size;
+
+    private Path directory;
+    private TaskManager manager;
+
+    // One writer thread's own tasks.
+    @State(Scope.Thread)
+    public static class Writer {
+        private final int[] single = new int[1];
+        private LocalDateTime base;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void start() {
+            base = LocalDateTime.now().plusHours(1);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createStore() throws IOException {
+        directory = TaskFixtures.tempDirectory();
+        Path snapshot = TaskFixtures.snapshot(directory, StorageFormat.BINARY, size);
+        manager = new TaskManager(snapshot.toString(), StorageFormat.BINARY,
+                DurabilityPolicy.every(DurabilityPolicy.DEFAULT_INTERVAL_MILLIS));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStore() {
+        manager.close();
+        TaskFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int writers01(Writer writer) {
+        return addAndDelete(writer);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public int writers02(Writer writer) {
+        return addAndDelete(writer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int writers04(Writer writer) {
+        return addAndDelete(writer);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int writers08(Writer writer) {
+        return addAndDelete(writer);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int writers16(Writer writer) {
+        return addAndDelete(writer);
+    }
+
+    private int addAndDelete(Writer writer) {
+        Task task = TaskFixtures.task(writer.next++, writer.base);
+        manager.addTask(task);
+        writer.single[0] = task.getId();
+        return manager.deleteTasks(writer.single);
+    }
+}
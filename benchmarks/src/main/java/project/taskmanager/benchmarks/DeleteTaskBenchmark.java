@@ -0,0 +1,81 @@
+package project.taskmanager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import project.taskmanager.DurabilityPolicy;
+import project.taskmanager.StorageFormat;
+import project.taskmanager.Task;
+import project.taskmanager.TaskManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deleting tasks one id at a time from a store of {@code size} tasks.
+ *
+ * Each measured batch deletes {@value #BATCH} tasks that were added just before it, so the
+ * store is back to {@code size} tasks after every batch. The single-id deleteTasks call is
+ * the path deleteTask() takes, without its console message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = DeleteTaskBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = DeleteTaskBenchmark.BATCH)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class DeleteTaskBenchmark {
+    static final int BATCH = 10_000;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private Path directory;
+    private TaskManager manager;
+    private final int[] victims = new int[BATCH];
+    private final int[] single = new int[1];
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void createStore() throws IOException {
+        directory = TaskFixtures.tempDirectory();
+        Path snapshot = TaskFixtures.snapshot(directory, StorageFormat.BINARY, size);
+        manager = new TaskManager(snapshot.toString(), StorageFormat.BINARY,
+                DurabilityPolicy.every(DurabilityPolicy.DEFAULT_INTERVAL_MILLIS));
+    }
+
+    @Setup(Level.Iteration)
+    public void addVictims() {
+        LocalDateTime base = LocalDateTime.now().plusHours(1);
+        for (int i = 0; i < BATCH; i++) {
+            Task task = TaskFixtures.task(i, base);
+            manager.addTask(task);
+            victims[i] = task.getId();
+        }
+        cursor = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStore() {
+        manager.close();
+        TaskFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int deleteTask() {
+        single[0] = victims[cursor++];
+        return manager.deleteTasks(single);
+    }
+}
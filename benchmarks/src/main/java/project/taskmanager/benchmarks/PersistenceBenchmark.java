@@ -0,0 +1,70 @@
+package project.taskmanager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import project.taskmanager.SnapshotContents;
+import project.taskmanager.StorageFormat;
+import project.taskmanager.Task;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading and saving a snapshot of {@code size} tasks in each storage format: the work
+ * TaskManager does at startup and on every journal compaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class PersistenceBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"TEXT", "BINARY"})
+    public StorageFormat format;
+
+    private Path directory;
+    private Path snapshot;
+    private Path target;
+    private List<Task> loaded;
+
+    @Setup(Level.Trial)
+    public void writeSnapshot() throws IOException {
+        directory = TaskFixtures.tempDirectory();
+        snapshot = TaskFixtures.snapshot(directory, format, size);
+        target = directory.resolve("saved-" + format.defaultFile());
+        loaded = format.read(snapshot).tasks();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() {
+        TaskFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public SnapshotContents loadTasks() throws IOException {
+        return format.read(snapshot);
+    }
+
+    @Benchmark
+    public Path saveTasks() throws IOException {
+        format.write(target, loaded, size + 1);
+        return target;
+    }
+}
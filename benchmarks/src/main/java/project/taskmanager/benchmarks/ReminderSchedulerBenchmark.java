@@ -0,0 +1,73 @@
+package project.taskmanager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import project.taskmanager.ReminderScheduler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Scheduling and cancelling reminders on a timing wheel that already holds {@code pending}
+ * reminders spread over the next year. Rescheduling an existing key keeps the count steady.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class ReminderSchedulerBenchmark {
+    private static final IntConsumer IGNORE = key -> { };
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int pending;
+
+    private ReminderScheduler scheduler;
+    private long now;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void fillWheel() {
+        scheduler = new ReminderScheduler();
+        now = System.currentTimeMillis();
+        for (int key = 0; key < pending; key++) {
+            scheduler.schedule(key, deadline(key), IGNORE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopWheel() {
+        scheduler.close();
+    }
+
+    @Benchmark
+    public void reschedule() {
+        int key = next++ % pending;
+        scheduler.schedule(key, deadline(key + next), IGNORE);
+    }
+
+    @Benchmark
+    public boolean cancelAndSchedule() {
+        int key = next++ % pending;
+        boolean cancelled = scheduler.cancel(key);
+        scheduler.schedule(key, deadline(key), IGNORE);
+        return cancelled;
+    }
+
+    // At least an hour out, so nothing fires while the benchmark runs.
+    private long deadline(int seed) {
+        return now + 3_600_000L + (seed * 7919L) % (TaskFixtures.SPREAD_SECONDS * 1000L);
+    }
+}
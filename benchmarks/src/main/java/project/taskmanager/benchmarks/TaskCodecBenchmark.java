@@ -0,0 +1,52 @@
+package project.taskmanager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import project.taskmanager.InvalidTaskException;
+import project.taskmanager.Task;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The text record codec used by the journal and the text snapshot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskCodecBenchmark {
+    private Task task;
+    private String line;
+
+    @Setup
+    public void createTask() {
+        task = TaskFixtures.task(42, LocalDateTime.now().plusDays(30));
+        line = task.toFileString();
+    }
+
+    @Benchmark
+    public String toFileString() {
+        return task.toFileString();
+    }
+
+    @Benchmark
+    public Task fromFileString() throws InvalidTaskException {
+        return Task.fromFileString(line);
+    }
+
+    @Benchmark
+    public Task roundTrip() throws InvalidTaskException {
+        return Task.fromFileString(task.toFileString());
+    }
+}
@@ -0,0 +1,83 @@
+package project.taskmanager.benchmarks;
+
+import project.taskmanager.InvalidTaskException;
+import project.taskmanager.PersonalTask;
+import project.taskmanager.StorageFormat;
+import project.taskmanager.Task;
+import project.taskmanager.WorkTask;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic task data shared by the benchmarks.
+ *
+ * Tasks alternate between work and personal, cycle through the three priorities and are
+ * due at evenly spread points over the next year, so about 1/365 of any store is due in
+ * the next 24 hours. Lists are generated on access, so even 10M tasks can be written to a
+ * snapshot without holding them all in memory.
+ */
+final class TaskFixtures {
+    static final int SPREAD_SECONDS = 365 * 24 * 3600;
+
+    private TaskFixtures() {
+    }
+
+    static Task task(int index, LocalDateTime base) {
+        LocalDateTime due = base.plusSeconds(1 + (index * 7919L) % SPREAD_SECONDS);
+        int priority = 1 + index % 3;
+        try {
+            return index % 2 == 0
+                    ? new WorkTask("Work task number " + index, due, priority)
+                    : new PersonalTask("Personal task number " + index, due, priority);
+        } catch (InvalidTaskException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // count tasks built on demand; every get() creates a new task with a fresh id.
+    static List<Task> tasks(int count) {
+        LocalDateTime base = LocalDateTime.now().plusHours(1);
+        return new AbstractList<>() {
+            @Override
+            public Task get(int index) {
+                return task(index, base);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    // Writes a snapshot of count generated tasks and returns its path. Loaders take the next
+    // free id from the highest stored id, so the header's next id can stay at 1.
+    static Path snapshot(Path directory, StorageFormat format, int count) throws IOException {
+        Path file = directory.resolve(format.defaultFile());
+        format.write(file, tasks(count), 1);
+        return file;
+    }
+
+    static Path tempDirectory() throws IOException {
+        return Files.createTempDirectory("taskmanager-bench");
+    }
+
+    static void deleteRecursively(Path directory) {
+        if (directory == null || !Files.exists(directory)) return;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package project.taskmanager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import project.taskmanager.DurabilityPolicy;
+import project.taskmanager.StorageFormat;
+import project.taskmanager.Task;
+import project.taskmanager.TaskManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskManager operations against a store already holding {@code size} tasks.
+ *
+ * Tasks added during a measurement iteration are deleted again afterwards, so every
+ * iteration starts from the same store size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class TaskManagerBenchmark {
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private Path directory;
+    private TaskManager manager;
+    private LocalDateTime base;
+    private int[] added = new int[1024];
+    private int addedCount;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createStore() throws IOException {
+        directory = TaskFixtures.tempDirectory();
+        Path snapshot = TaskFixtures.snapshot(directory, StorageFormat.BINARY, size);
+        manager = new TaskManager(snapshot.toString(), StorageFormat.BINARY,
+                DurabilityPolicy.every(DurabilityPolicy.DEFAULT_INTERVAL_MILLIS));
+        base = LocalDateTime.now().plusHours(1);
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeAdded() {
+        manager.deleteTasks(Arrays.copyOf(added, addedCount));
+        addedCount = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStore() {
+        manager.close();
+        TaskFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Task addTask() {
+        Task task = TaskFixtures.task(next++, base);
+        manager.addTask(task);
+        if (addedCount == added.length) {
+            added = Arrays.copyOf(added, addedCount * 2);
+        }
+        added[addedCount++] = task.getId();
+        return task;
+    }
+
+    // The range query behind showUrgentTasks, without printing the table.
+    @Benchmark
+    public List<Task> urgentTasks() {
+        LocalDateTime now = LocalDateTime.now();
+        return manager.getTasksDueBetween(now, now.plusHours(24));
+    }
+
+    @Benchmark
+    public Task getTask() {
+        return manager.getTask(next++ % size + 1);
+    }
+}
@@ -0,0 +1,212 @@
+package project.taskmanager.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load test against a running {@code TaskServer}.
+ *
+ * Requests go out at a fixed rate whether or not earlier ones were answered, mixing creates
+ * (single or batched), lookups, queries and deletes of tasks the test created. Each latency is
+ * measured from the time its request was scheduled to go out, not from when it was sent, so a
+ * server that stalls is charged for every request that should have gone out meanwhile instead
+ * of the test quietly waiting with it. Requests scheduled during the warm-up are not counted.
+ * Reports requests and tasks per second and exact p50/p99/max latency for each endpoint, from
+ * every recorded sample.
+ *
+ * {@code java -cp benchmarks.jar project.taskmanager.benchmarks.TaskServerLoadTest
+ * [url] [requestsPerSecond] [seconds] [batch] [warmupSeconds]}, by default against
+ * {@code http://localhost:8080} at 1000 requests per second for 30 seconds, batches of 100
+ * and 5 seconds of warm-up. A batch of 1 creates through {@code POST /tasks} instead of
+ * {@code /tasks/batch}. A rate the server cannot keep up with shows as latencies that grow
+ * for the whole run.
+ */
+public final class TaskServerLoadTest {
+    private static final String[] ENDPOINTS = { "create", "get", "query", "delete" };
+    private static final int CREATE = 0, GET = 1, QUERY = 2, DELETE = 3;
+    private static final DateTimeFormatter DUE = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private TaskServerLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080";
+        int rate = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int batch = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        int warmupSeconds = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        Load load = new Load(client, url, batch);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupSeconds * 1_000_000_000L;
+        long stopAt = measureFrom + seconds * 1_000_000_000L;
+        long interval = 1_000_000_000L / rate;
+        for (long scheduled = start; scheduled < stopAt; scheduled += interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // Late or not, the request is timed from when it was due.
+            load.send(scheduled, scheduled >= measureFrom);
+        }
+        load.awaitAnswers();
+        report(load, rate, seconds, batch);
+    }
+
+    private static void report(Load load, int rate, int seconds, int batch) {
+        System.out.printf("%d requests/s scheduled, %d s, batches of %d%n", rate, seconds, batch);
+        System.out.printf("%-8s %10s %10s %10s %10s %10s%n", "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "max ms");
+        long[] total = new long[0];
+        for (int endpoint = 0; endpoint < ENDPOINTS.length; endpoint++) {
+            long[] all = load.sorted(endpoint);
+            System.out.printf("%-8s %10d %10.0f %10.2f %10.2f %10.2f%n", ENDPOINTS[endpoint], all.length,
+                    all.length / (double) seconds, millis(all, 0.50), millis(all, 0.99), millis(all, 1.0));
+            total = Arrays.copyOf(total, total.length + all.length);
+            System.arraycopy(all, 0, total, total.length - all.length, all.length);
+        }
+        Arrays.sort(total);
+        long requests = total.length;
+        System.out.printf("%-8s %10d %10.0f %10.2f %10.2f %10.2f%n", "all", requests,
+                requests / (double) seconds, millis(total, 0.50), millis(total, 0.99), millis(total, 1.0));
+        System.out.printf("tasks created %d (%.0f/s), errors %d%n", load.tasksCreated(),
+                load.tasksCreated() / (double) seconds, load.errors());
+    }
+
+    // Nearest-rank percentile of sorted nanosecond samples, in milliseconds.
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    // The requests in flight and their results; answers arrive on the HTTP client's threads.
+    private static final class Load {
+        private final HttpClient http;
+        private final String url;
+        private final int batch;
+        // One party per request still waiting for its answer, plus the dispatching thread.
+        private final Phaser inFlight = new Phaser(1);
+        private final long[][] samples = new long[ENDPOINTS.length][1024];
+        private final int[] counts = new int[ENDPOINTS.length];
+        // Ids created and not deleted yet.
+        private final List<Integer> ids = new ArrayList<>();
+        private final AtomicLong tasksCreated = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        // Only used by the dispatching thread.
+        private int sequence;
+
+        Load(HttpClient http, String url, int batch) {
+            this.http = http;
+            this.url = url;
+            this.batch = batch;
+        }
+
+        void send(long scheduled, boolean measured) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int roll = random.nextInt(100);
+            HttpRequest request;
+            int endpoint;
+            synchronized (ids) {
+                endpoint = ids.isEmpty() || roll < 30 ? CREATE : roll < 65 ? GET : roll < 85 ? QUERY : DELETE;
+                request = request(endpoint, random);
+            }
+            inFlight.register();
+            http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+                try {
+                    long elapsed = System.nanoTime() - scheduled;
+                    if (failure != null || (response.statusCode() >= 400 && response.statusCode() != 404)) {
+                        errors.incrementAndGet();
+                        return;
+                    }
+                    handled(endpoint, response, measured);
+                    if (measured) {
+                        record(endpoint, elapsed);
+                    }
+                } finally {
+                    inFlight.arriveAndDeregister();
+                }
+            });
+        }
+
+        void awaitAnswers() {
+            inFlight.arriveAndAwaitAdvance();
+        }
+
+        long tasksCreated() {
+            return tasksCreated.get();
+        }
+
+        long errors() {
+            return errors.get();
+        }
+
+        synchronized long[] sorted(int endpoint) {
+            long[] all = Arrays.copyOf(samples[endpoint], counts[endpoint]);
+            Arrays.sort(all);
+            return all;
+        }
+
+        // Called with ids locked.
+        private HttpRequest request(int endpoint, ThreadLocalRandom random) {
+            switch (endpoint) {
+                case CREATE -> {
+                    StringBuilder body = new StringBuilder();
+                    LocalDateTime base = LocalDateTime.now().plusHours(1);
+                    for (int i = 0; i < batch; i++) {
+                        int n = sequence++;
+                        LocalDateTime due = base.plusMinutes(random.nextInt(365 * 24 * 60));
+                        body.append("Load task ").append(n).append('|').append(due.format(DUE)).append('|')
+                                .append(1 + n % 3).append('|').append(n % 2 == 0 ? "WorkTask" : "PersonalTask").append('\n');
+                    }
+                    return HttpRequest.newBuilder(URI.create(url + (batch == 1 ? "/tasks" : "/tasks/batch")))
+                            .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+                }
+                case GET -> {
+                    return HttpRequest.newBuilder(URI.create(url + "/tasks/" + ids.get(random.nextInt(ids.size())))).GET().build();
+                }
+                case QUERY -> {
+                    String from = LocalDateTime.now().plusDays(random.nextInt(300)).withNano(0).format(DUE);
+                    return HttpRequest.newBuilder(URI.create(url + "/tasks?from=" + from + "&sort=due_date&limit=20")).GET().build();
+                }
+                default -> {
+                    int id = ids.remove(random.nextInt(ids.size()));
+                    return HttpRequest.newBuilder(URI.create(url + "/tasks/" + id)).DELETE().build();
+                }
+            }
+        }
+
+        // Remembers the ids a create handed back, so later lookups and deletes hit real tasks.
+        private void handled(int endpoint, HttpResponse<String> response, boolean measured) {
+            if (endpoint != CREATE) return;
+            for (String line : response.body().split("\n")) {
+                if (line.isEmpty()) continue;
+                synchronized (ids) {
+                    ids.add(Integer.parseInt(line.substring(0, line.indexOf('|'))));
+                }
+                if (measured) {
+                    tasksCreated.incrementAndGet();
+                }
+            }
+        }
+
+        private synchronized void record(int endpoint, long nanos) {
+            if (counts[endpoint] == samples[endpoint].length) {
+                samples[endpoint] = Arrays.copyOf(samples[endpoint], samples[endpoint].length * 2);
+            }
+            samples[endpoint][counts[endpoint]++] = nanos;
+        }
+    }
+}
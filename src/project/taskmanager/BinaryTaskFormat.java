@@ -0,0 +1,115 @@
+package project.taskmanager;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Versioned binary snapshot format, the compact alternative to the pipe-delimited text file.
+ *
+ * <pre>
+ * file header (16 bytes): magic "TSKB" | version u16 | reserved u16 | next id i32 | record count i32
+ * record header (18 bytes): id i32 | due epoch second i64 | priority u8 | type u8 | description length i32
+ * record body: description as UTF-8
+ * recurring tasks only (13 bytes): rule unit u8 | rule interval i32 | rule start epoch second i64
+ * </pre>
+ *
+ * All numbers are big-endian. The due date is stored as the epoch second of its wall-clock
+ * value read as UTC, so it round-trips exactly regardless of the system time zone; anything
+ * below a second is dropped. Records are read through {@link MappedTaskFile}. Version 2 added
+ * recurring tasks; version 1 files, which cannot hold any, are still read.
+ */
+public final class BinaryTaskFormat {
+    public static final int MAGIC = 0x54534B42;
+    public static final short VERSION = 2;
+    public static final int FILE_HEADER_BYTES = 16;
+    public static final int RECORD_HEADER_BYTES = 18;
+    public static final int RECURRENCE_BYTES = 13;
+    public static final byte TYPE_WORK = 1;
+    public static final byte TYPE_PERSONAL = 2;
+    public static final byte TYPE_RECURRING = 3;
+
+    private BinaryTaskFormat() {
+    }
+
+    public static void write(Path path, Collection<Task> tasks, int nextId) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(0);
+            out.writeInt(nextId);
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(task.getId());
+                out.writeLong(toEpochSecond(task.getDueDate()));
+                out.writeByte(task.getPriority());
+                out.writeByte(typeOf(task));
+                out.writeInt(description.length);
+                out.write(description);
+                if (task instanceof RecurringTask recurring) {
+                    Recurrence rule = recurring.getRecurrence();
+                    out.writeByte(rule.unit().ordinal());
+                    out.writeInt(rule.interval());
+                    out.writeLong(toEpochSecond(rule.start()));
+                }
+            }
+        }
+    }
+
+    // Materializes every live record; expired and unreadable records are counted separately.
+    public static SnapshotContents read(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return new SnapshotContents(new ArrayList<>(), 0, 0, 1, 0);
+        }
+        try (MappedTaskFile file = MappedTaskFile.open(path)) {
+            List<Task> tasks = new ArrayList<>(file.count());
+            long now = toEpochSecond(LocalDateTime.now());
+            int expired = 0;
+            int invalid = 0;
+            int nextId = file.nextId();
+            long end = file.endOffset();
+            for (long offset = file.firstOffset(); offset < end; offset = file.nextOffset(offset)) {
+                nextId = Math.max(nextId, file.idAt(offset) + 1);
+                // A recurring task is rolled forward once loaded rather than dropped.
+                if (file.dueEpochSecondAt(offset) < now && file.typeAt(offset) != TYPE_RECURRING) {
+                    expired++;
+                    continue;
+                }
+                try {
+                    tasks.add(file.taskAt(offset));
+                } catch (InvalidTaskException e) {
+                    invalid++;
+                }
+            }
+            return new SnapshotContents(tasks, expired, invalid, nextId, 1);
+        }
+    }
+
+    public static byte typeOf(Task task) {
+        return typeOf(task.getClass());
+    }
+
+    public static byte typeOf(Class<? extends Task> type) {
+        if (WorkTask.class.isAssignableFrom(type)) return TYPE_WORK;
+        if (PersonalTask.class.isAssignableFrom(type)) return TYPE_PERSONAL;
+        if (RecurringTask.class.isAssignableFrom(type)) return TYPE_RECURRING;
+        throw new IllegalArgumentException("Unsupported task type: " + type.getSimpleName());
+    }
+
+    public static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime fromEpochSecond(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
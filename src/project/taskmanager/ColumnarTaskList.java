@@ -0,0 +1,207 @@
+package project.taskmanager;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of tasks held as columns, as returned by {@link StripedTaskStore#snapshot()}.
+ *
+ * Each {@link #get(int)} builds a fresh Task from the columns, so a snapshot of a million tasks
+ * costs a few primitive arrays rather than a million objects, and callers that only look at
+ * part of it only pay for that part. {@link #filter}, {@link #sortedById()} and {@link #sortedByPriority()}
+ * work on the columns and return new views that share them.
+ */
+public final class ColumnarTaskList extends AbstractList<Task> implements RandomAccess {
+    private final int[] ids;
+    private final long[] dueEpochSeconds;
+    private final byte[] priorities;
+    private final byte[] types;
+    private final int[] descriptionOffsets;
+    private final int[] descriptionLengths;
+    private final byte[] arena;
+    // Rules of recurring tasks by row; null when no row is recurring.
+    private final Recurrence[] recurrences;
+    // Rows in list order, or null for the natural row order.
+    private final int[] order;
+
+    private ColumnarTaskList(int[] ids, long[] dueEpochSeconds, byte[] priorities, byte[] types,
+                             int[] descriptionOffsets, int[] descriptionLengths, byte[] arena, Recurrence[] recurrences,
+                             int[] order) {
+        this.ids = ids;
+        this.dueEpochSeconds = dueEpochSeconds;
+        this.priorities = priorities;
+        this.types = types;
+        this.descriptionOffsets = descriptionOffsets;
+        this.descriptionLengths = descriptionLengths;
+        this.arena = arena;
+        this.recurrences = recurrences;
+        this.order = order;
+    }
+
+    // Joins stripe slices into one set of columns with a single description arena.
+    static ColumnarTaskList concat(List<TaskColumns.Slice> slices) {
+        int rows = 0;
+        long descriptionBytes = 0;
+        boolean anyRecurring = false;
+        for (TaskColumns.Slice slice : slices) {
+            rows += slice.rows();
+            anyRecurring |= slice.recurrences() != null;
+            for (int i = 0; i < slice.rows(); i++) {
+                descriptionBytes += slice.descriptionLengths()[i];
+            }
+        }
+        if (descriptionBytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Task descriptions exceed 2 GB.");
+        }
+
+        int[] ids = new int[rows];
+        long[] dueEpochSeconds = new long[rows];
+        byte[] priorities = new byte[rows];
+        byte[] types = new byte[rows];
+        int[] descriptionOffsets = new int[rows];
+        int[] descriptionLengths = new int[rows];
+        byte[] arena = new byte[(int) descriptionBytes];
+        Recurrence[] recurrences = anyRecurring ? new Recurrence[rows] : null;
+        int row = 0;
+        int used = 0;
+        for (TaskColumns.Slice slice : slices) {
+            int count = slice.rows();
+            System.arraycopy(slice.ids(), 0, ids, row, count);
+            System.arraycopy(slice.dueEpochSeconds(), 0, dueEpochSeconds, row, count);
+            System.arraycopy(slice.priorities(), 0, priorities, row, count);
+            System.arraycopy(slice.types(), 0, types, row, count);
+            System.arraycopy(slice.descriptionLengths(), 0, descriptionLengths, row, count);
+            if (slice.recurrences() != null) {
+                System.arraycopy(slice.recurrences(), 0, recurrences, row, count);
+            }
+            for (int i = 0; i < count; i++) {
+                int length = slice.descriptionLengths()[i];
+                System.arraycopy(slice.arena(), slice.descriptionOffsets()[i], arena, used, length);
+                descriptionOffsets[row + i] = used;
+                used += length;
+            }
+            row += count;
+        }
+        return new ColumnarTaskList(ids, dueEpochSeconds, priorities, types,
+                descriptionOffsets, descriptionLengths, arena, recurrences, null);
+    }
+
+    // This list's rows, in its order, followed by every row of more.
+    ColumnarTaskList plus(TaskColumns more) {
+        if (more.size() == 0) return this;
+        int size = size();
+        int[] rowIds = new int[size];
+        long[] rowDue = new long[size];
+        byte[] rowPriorities = new byte[size];
+        byte[] rowTypes = new byte[size];
+        int[] rowOffsets = new int[size];
+        int[] rowLengths = new int[size];
+        Recurrence[] rowRecurrences = recurrences == null ? null : new Recurrence[size];
+        for (int i = 0; i < size; i++) {
+            int row = row(i);
+            rowIds[i] = ids[row];
+            rowDue[i] = dueEpochSeconds[row];
+            rowPriorities[i] = priorities[row];
+            rowTypes[i] = types[row];
+            rowOffsets[i] = descriptionOffsets[row];
+            rowLengths[i] = descriptionLengths[row];
+            if (rowRecurrences != null) {
+                rowRecurrences[i] = recurrences[row];
+            }
+        }
+        TaskColumns.Slice own = new TaskColumns.Slice(size, rowIds, rowDue, rowPriorities, rowTypes,
+                rowOffsets, rowLengths, arena, rowRecurrences);
+        return concat(List.of(own, more.slice()));
+    }
+
+    @Override
+    public int size() {
+        return order == null ? ids.length : order.length;
+    }
+
+    @Override
+    public Task get(int index) {
+        int row = row(index);
+        return TaskColumns.materialize(types[row], ids[row], arena, descriptionOffsets[row], descriptionLengths[row],
+                dueEpochSeconds[row], priorities[row], recurrences == null ? null : recurrences[row]);
+    }
+
+    public int idAt(int index) {
+        return ids[row(index)];
+    }
+
+    public long dueEpochSecondAt(int index) {
+        return dueEpochSeconds[row(index)];
+    }
+
+    public int priorityAt(int index) {
+        return priorities[row(index)];
+    }
+
+    public byte typeAt(int index) {
+        return types[row(index)];
+    }
+
+    // The tasks accepted by filter, in this list's order.
+    public ColumnarTaskList filter(TaskRowFilter filter) {
+        int size = size();
+        int[] selected = new int[Math.min(size, 16)];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int row = row(i);
+            if (filter.test(ids[row], dueEpochSeconds[row], priorities[row], types[row])) {
+                if (count == selected.length) {
+                    selected = Arrays.copyOf(selected, Math.max(16, count * 2));
+                }
+                selected[count++] = row;
+            }
+        }
+        return withOrder(Arrays.copyOf(selected, count));
+    }
+
+    public ColumnarTaskList sortedById() {
+        int size = size();
+        // Id in the high half and row in the low half, so one primitive sort orders the rows.
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            int row = row(i);
+            keys[i] = ((long) ids[row] << 32) | row;
+        }
+        Arrays.sort(keys);
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = (int) keys[i];
+        }
+        return withOrder(sorted);
+    }
+
+    // Ordered by priority, ties by id; a stable counting sort over the id order, as priorities are single bytes.
+    public ColumnarTaskList sortedByPriority() {
+        ColumnarTaskList byId = sortedById();
+        int size = byId.size();
+        int[] starts = new int[257];
+        for (int i = 0; i < size; i++) {
+            starts[priorities[byId.order[i]] + 129]++;
+        }
+        for (int b = 1; b < starts.length; b++) {
+            starts[b] += starts[b - 1];
+        }
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            int row = byId.order[i];
+            sorted[starts[priorities[row] + 128]++] = row;
+        }
+        return withOrder(sorted);
+    }
+
+    private int row(int index) {
+        return order == null ? index : order[index];
+    }
+
+    private ColumnarTaskList withOrder(int[] rows) {
+        return new ColumnarTaskList(ids, dueEpochSeconds, priorities, types,
+                descriptionOffsets, descriptionLengths, arena, recurrences, rows);
+    }
+}
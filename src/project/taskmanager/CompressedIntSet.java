@@ -0,0 +1,232 @@
+package project.taskmanager;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Sorted set of non-negative {@code int}s, compressed the way roaring bitmaps are.
+ *
+ * Values are grouped by their high 16 bits. Each group keeps its low 16 bits either as a sorted
+ * {@code char[]} while it is sparse, or as a 65536-bit bitmap once it holds more than 4096 values,
+ * so a set never costs more than two bytes per value and a dense run of ids costs one bit each.
+ * A set of a handful of values skips the groups and stays a small sorted {@code int[]}, which is
+ * what most posting lists in a text index look like. Not thread-safe.
+ */
+public class CompressedIntSet {
+    private static final int SMALL_MAX = 8;
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final int[] NO_VALUES = new int[0];
+
+    private int size;
+    // Small form, used while groups is null.
+    private int[] small = NO_VALUES;
+    // Grouped form: high 16 bits in ascending order, each with a char[] or long[] container.
+    private char[] highs;
+    private Object[] groups;
+    private int[] counts;
+    private int groupCount;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int value) {
+        if (groups == null) {
+            return Arrays.binarySearch(small, 0, size, value) >= 0;
+        }
+        int g = findGroup((char) (value >>> 16));
+        if (g < 0) return false;
+        char low = (char) value;
+        if (groups[g] instanceof long[] bits) {
+            return (bits[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) groups[g], 0, counts[g], low) >= 0;
+    }
+
+    public boolean add(int value) {
+        if (value < 0) throw new IllegalArgumentException("Values must be non-negative.");
+        if (groups == null) {
+            int at = Arrays.binarySearch(small, 0, size, value);
+            if (at >= 0) return false;
+            if (size < SMALL_MAX) {
+                at = -at - 1;
+                if (size == small.length) {
+                    small = Arrays.copyOf(small, Math.max(2, size * 2));
+                }
+                System.arraycopy(small, at, small, at + 1, size - at);
+                small[at] = value;
+                size++;
+                return true;
+            }
+            toGroups();
+        }
+        char high = (char) (value >>> 16);
+        int g = findGroup(high);
+        if (g < 0) {
+            g = insertGroup(-g - 1, high);
+        }
+        if (addToGroup(g, (char) value)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean remove(int value) {
+        if (value < 0) return false;
+        if (groups == null) {
+            int at = Arrays.binarySearch(small, 0, size, value);
+            if (at < 0) return false;
+            System.arraycopy(small, at + 1, small, at, size - at - 1);
+            size--;
+            return true;
+        }
+        int g = findGroup((char) (value >>> 16));
+        if (g < 0 || !removeFromGroup(g, (char) value)) return false;
+        size--;
+        if (counts[g] == 0) {
+            removeGroup(g);
+        }
+        return true;
+    }
+
+    // Calls action with every value in ascending order.
+    public void forEach(IntConsumer action) {
+        if (groups == null) {
+            for (int i = 0; i < size; i++) {
+                action.accept(small[i]);
+            }
+            return;
+        }
+        for (int g = 0; g < groupCount; g++) {
+            int base = highs[g] << 16;
+            if (groups[g] instanceof long[] bits) {
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    long w = bits[word];
+                    while (w != 0) {
+                        action.accept(base | (word << 6) | Long.numberOfTrailingZeros(w));
+                        w &= w - 1;
+                    }
+                }
+            } else {
+                char[] lows = (char[]) groups[g];
+                for (int i = 0; i < counts[g]; i++) {
+                    action.accept(base | lows[i]);
+                }
+            }
+        }
+    }
+
+    // The values in ascending order.
+    public int[] toArray() {
+        if (groups == null) {
+            return Arrays.copyOf(small, size);
+        }
+        int[] values = new int[size];
+        int[] next = new int[1];
+        forEach(value -> values[next[0]++] = value);
+        return values;
+    }
+
+    private void toGroups() {
+        int[] values = small;
+        int count = size;
+        small = NO_VALUES;
+        highs = new char[4];
+        groups = new Object[4];
+        counts = new int[4];
+        groupCount = 0;
+        size = 0;
+        for (int i = 0; i < count; i++) {
+            add(values[i]);
+        }
+    }
+
+    private int findGroup(char high) {
+        // Ids are handed out in increasing order, so the last group is by far the likeliest.
+        if (groupCount > 0 && highs[groupCount - 1] == high) return groupCount - 1;
+        return Arrays.binarySearch(highs, 0, groupCount, high);
+    }
+
+    private int insertGroup(int at, char high) {
+        if (groupCount == highs.length) {
+            int capacity = groupCount * 2;
+            highs = Arrays.copyOf(highs, capacity);
+            groups = Arrays.copyOf(groups, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        System.arraycopy(highs, at, highs, at + 1, groupCount - at);
+        System.arraycopy(groups, at, groups, at + 1, groupCount - at);
+        System.arraycopy(counts, at, counts, at + 1, groupCount - at);
+        highs[at] = high;
+        groups[at] = new char[4];
+        counts[at] = 0;
+        groupCount++;
+        return at;
+    }
+
+    private void removeGroup(int at) {
+        int tail = groupCount - at - 1;
+        System.arraycopy(highs, at + 1, highs, at, tail);
+        System.arraycopy(groups, at + 1, groups, at, tail);
+        System.arraycopy(counts, at + 1, counts, at, tail);
+        groupCount--;
+        groups[groupCount] = null;
+    }
+
+    private boolean addToGroup(int g, char low) {
+        if (groups[g] instanceof long[] bits) {
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) != 0) return false;
+            bits[low >>> 6] |= mask;
+            counts[g]++;
+            return true;
+        }
+        char[] lows = (char[]) groups[g];
+        int count = counts[g];
+        int at = count > 0 && lows[count - 1] < low ? -count - 1 : Arrays.binarySearch(lows, 0, count, low);
+        if (at >= 0) return false;
+        at = -at - 1;
+        if (count == ARRAY_MAX) {
+            // Past this point a bitmap is smaller than the array.
+            long[] bits = new long[BITMAP_WORDS];
+            for (int i = 0; i < count; i++) {
+                bits[lows[i] >>> 6] |= 1L << lows[i];
+            }
+            bits[low >>> 6] |= 1L << low;
+            groups[g] = bits;
+            counts[g]++;
+            return true;
+        }
+        if (count == lows.length) {
+            lows = Arrays.copyOf(lows, Math.min(ARRAY_MAX, count * 2));
+            groups[g] = lows;
+        }
+        System.arraycopy(lows, at, lows, at + 1, count - at);
+        lows[at] = low;
+        counts[g]++;
+        return true;
+    }
+
+    private boolean removeFromGroup(int g, char low) {
+        if (groups[g] instanceof long[] bits) {
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) == 0) return false;
+            bits[low >>> 6] &= ~mask;
+            counts[g]--;
+            return true;
+        }
+        char[] lows = (char[]) groups[g];
+        int count = counts[g];
+        int at = Arrays.binarySearch(lows, 0, count, low);
+        if (at < 0) return false;
+        System.arraycopy(lows, at + 1, lows, at, count - at - 1);
+        counts[g]--;
+        return true;
+    }
+}
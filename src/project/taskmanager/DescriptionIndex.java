@@ -0,0 +1,275 @@
+package project.taskmanager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from the words of task descriptions to the ids of the tasks that use them.
+ *
+ * A description is split into lower-case runs of letters and digits, and each distinct word
+ * keeps the ids of its tasks in a {@link CompressedIntSet}. A search is a list of terms that
+ * must all match: a plain term matches that word exactly, and a term ending in {@code *}
+ * matches every word that starts with it. Words are kept in sorted order, so a prefix term
+ * only visits the words that share its prefix, and terms are intersected starting from the
+ * one with the fewest ids, so a rare word keeps a search over millions of tasks cheap.
+ */
+public class DescriptionIndex {
+    public static final char PREFIX_MARK = '*';
+
+    private final TreeMap<String, CompressedIntSet> postings = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // The distinct words of text, lower-cased, in order of first appearance.
+    public static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); ) {
+            int c = i < text.length() ? text.codePointAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.appendCodePoint(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+            i += i < text.length() ? Character.charCount(c) : 1;
+        }
+        return words;
+    }
+
+    /**
+     * Search terms for a query typed by a user. Words are split the same way as descriptions;
+     * a {@code *} after a word turns it into a prefix term, marked with a trailing {@code *}.
+     */
+    public static List<String> terms(String query) {
+        List<String> terms = new ArrayList<>();
+        for (String part : query.trim().split("\\s+")) {
+            boolean prefix = part.endsWith(String.valueOf(PREFIX_MARK));
+            List<String> words = new ArrayList<>(words(part));
+            for (int i = 0; i < words.size(); i++) {
+                String term = prefix && i == words.size() - 1 ? words.get(i) + PREFIX_MARK : words.get(i);
+                if (!terms.contains(term)) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+
+    // Whether description matches every term; the same test a search applies through the index.
+    public static boolean matches(String description, List<String> terms) {
+        Set<String> words = words(description);
+        for (String term : terms) {
+            if (!isPrefix(term)) {
+                if (!words.contains(term)) return false;
+                continue;
+            }
+            String prefix = term.substring(0, term.length() - 1);
+            if (words.stream().noneMatch(word -> word.startsWith(prefix))) return false;
+        }
+        return true;
+    }
+
+    public void add(Task task) {
+        lock.writeLock().lock();
+        try {
+            insert(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Task task) {
+        lock.writeLock().lock();
+        try {
+            delete(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Moves a task from its previous description to its current one; nothing to do if the text is unchanged.
+    public void update(Task previous, Task task) {
+        if (previous != null && previous.getId() == task.getId()
+                && previous.getDescription().equals(task.getDescription())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                delete(previous);
+            }
+            insert(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Throws the index away and indexes tasks from scratch, e.g. from a snapshot of the store.
+     * Descriptions are split into words in parallel; ids go in in the order given, which is
+     * cheapest when it is ascending.
+     */
+    public void rebuild(List<Task> tasks) {
+        List<Split> split = tasks.parallelStream().map(task -> new Split(task.getId(), words(task.getDescription()))).toList();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            for (Split task : split) {
+                insert(task.id(), task.words());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of the tasks matching every term, in ascending order.
+    public int[] search(List<String> terms) {
+        if (terms.isEmpty()) return new int[0];
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings list = postings(term);
+                if (list.size() == 0) return new int[0];
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+            int[] ids = lists.get(0).toArray();
+            int count = ids.length;
+            for (int l = 1; l < lists.size() && count > 0; l++) {
+                Postings list = lists.get(l);
+                int kept = 0;
+                for (int i = 0; i < count; i++) {
+                    if (list.contains(ids[i])) {
+                        ids[kept++] = ids[i];
+                    }
+                }
+                count = kept;
+            }
+            return count == ids.length ? ids : Arrays.copyOf(ids, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int[] search(String query) {
+        return search(terms(query));
+    }
+
+    // Upper bound on how many tasks match terms, without intersecting anything.
+    public int estimate(List<String> terms) {
+        lock.readLock().lock();
+        try {
+            int best = Integer.MAX_VALUE;
+            for (String term : terms) {
+                if (!isPrefix(term)) {
+                    CompressedIntSet ids = postings.get(term);
+                    best = Math.min(best, ids == null ? 0 : ids.size());
+                    continue;
+                }
+                // Summing stops once it can no longer beat the best term so far.
+                long sum = 0;
+                for (CompressedIntSet ids : prefixRange(term).values()) {
+                    sum += ids.size();
+                    if (sum >= best) break;
+                }
+                best = (int) Math.min(best, sum);
+            }
+            return best;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of distinct words indexed.
+    public int wordCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(Task task) {
+        insert(task.getId(), words(task.getDescription()));
+    }
+
+    private void insert(int id, Set<String> words) {
+        for (String word : words) {
+            postings.computeIfAbsent(word, w -> new CompressedIntSet()).add(id);
+        }
+    }
+
+    private void delete(Task task) {
+        for (String word : words(task.getDescription())) {
+            CompressedIntSet ids = postings.get(word);
+            if (ids != null && ids.remove(task.getId()) && ids.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    private static boolean isPrefix(String term) {
+        return term.length() > 1 && term.charAt(term.length() - 1) == PREFIX_MARK;
+    }
+
+    private Map<String, CompressedIntSet> prefixRange(String term) {
+        String prefix = term.substring(0, term.length() - 1);
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    // One term's ids: a stored set for a word, or the merged ids of every word under a prefix.
+    private Postings postings(String term) {
+        if (!isPrefix(term)) {
+            CompressedIntSet ids = postings.get(term);
+            return new Postings(ids == null ? new CompressedIntSet() : ids, null);
+        }
+        Collection<CompressedIntSet> sets = prefixRange(term).values();
+        if (sets.size() == 1) {
+            return new Postings(sets.iterator().next(), null);
+        }
+        int total = 0;
+        for (CompressedIntSet ids : sets) {
+            total += ids.size();
+        }
+        int[] merged = new int[total];
+        int[] next = new int[1];
+        for (CompressedIntSet ids : sets) {
+            ids.forEach(id -> merged[next[0]++] = id);
+        }
+        Arrays.sort(merged);
+        int distinct = 0;
+        for (int i = 0; i < total; i++) {
+            if (distinct == 0 || merged[distinct - 1] != merged[i]) {
+                merged[distinct++] = merged[i];
+            }
+        }
+        return new Postings(null, Arrays.copyOf(merged, distinct));
+    }
+
+    private record Split(int id, Set<String> words) {
+    }
+
+    private record Postings(CompressedIntSet set, int[] sorted) {
+        int size() {
+            return set != null ? set.size() : sorted.length;
+        }
+
+        boolean contains(int id) {
+            return set != null ? set.contains(id) : Arrays.binarySearch(sorted, id) >= 0;
+        }
+
+        int[] toArray() {
+            return set != null ? set.toArray() : sorted.clone();
+        }
+    }
+}
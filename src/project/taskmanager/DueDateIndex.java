@@ -0,0 +1,128 @@
+package project.taskmanager;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.IntStream;
+
+/**
+ * Secondary index that keeps task ids ordered by due date, ties broken by id.
+ *
+ * Backed by a skip list, so "due between" and "due before" lookups cost O(log n + k)
+ * for k matching tasks instead of a scan over the whole store. Entries hold only the
+ * id and the due date as an epoch second, not the task, so lookups return ids and the
+ * caller fetches whichever tasks it actually needs.
+ */
+public class DueDateIndex {
+    private final ConcurrentSkipListSet<Key> index = new ConcurrentSkipListSet<>();
+
+    public void add(Task task) {
+        index.add(Key.of(task));
+    }
+
+    // Bulk insert for loading: inserting in key order keeps the skip list walk in cache.
+    public void addAll(Collection<Task> tasks) {
+        Key[] sorted = new Key[tasks.size()];
+        int i = 0;
+        for (Task task : tasks) {
+            sorted[i++] = Key.of(task);
+        }
+        Arrays.sort(sorted);
+        for (Key key : sorted) {
+            index.add(key);
+        }
+    }
+
+    public void remove(Task task) {
+        index.remove(Key.of(task));
+    }
+
+    // Ids of tasks due in [from, to), earliest first.
+    public int[] dueBetween(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) return new int[0];
+        return ids(index.subSet(Key.lowest(from), true, Key.lowest(to), false));
+    }
+
+    // Ids of tasks due strictly before the given time, earliest first.
+    public int[] dueBefore(LocalDateTime time) {
+        return ids(index.headSet(Key.lowest(time), false));
+    }
+
+    /**
+     * Ids of tasks due in [from, to), walked lazily from the skip list, latest first when
+     * descending. A null bound leaves that end open. Stopping the stream early stops the walk,
+     * so a caller that only needs the first few ids never touches the rest of the range.
+     */
+    public IntStream idsBetween(LocalDateTime from, LocalDateTime to, boolean descending) {
+        NavigableSet<Key> keys = range(from, to);
+        if (descending) {
+            keys = keys.descendingSet();
+        }
+        return keys.stream().mapToInt(Key::id);
+    }
+
+    // Number of tasks due in [from, to), counting no further than cap.
+    public int countBetween(LocalDateTime from, LocalDateTime to, int cap) {
+        int count = 0;
+        for (Key ignored : range(from, to)) {
+            if (++count >= cap) break;
+        }
+        return count;
+    }
+
+    // Due date of the earliest task, or null when the index is empty.
+    public LocalDateTime earliestDue() {
+        Key first = index.ceiling(new Key(Long.MIN_VALUE, Integer.MIN_VALUE));
+        return first == null ? null : BinaryTaskFormat.fromEpochSecond(first.due);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private NavigableSet<Key> range(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null) {
+            if (!from.isBefore(to)) return new ConcurrentSkipListSet<>();
+            return index.subSet(Key.lowest(from), true, Key.lowest(to), false);
+        }
+        if (from != null) return index.tailSet(Key.lowest(from), true);
+        if (to != null) return index.headSet(Key.lowest(to), false);
+        return index;
+    }
+
+    // First whole epoch second at or after time; stored due dates have no fraction of a second.
+    static long ceilEpochSecond(LocalDateTime time) {
+        long second = BinaryTaskFormat.toEpochSecond(time);
+        return time.getNano() > 0 ? second + 1 : second;
+    }
+
+    private static int[] ids(NavigableSet<Key> keys) {
+        int[] ids = new int[16];
+        int count = 0;
+        for (Key key : keys) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = key.id;
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private record Key(long due, int id) implements Comparable<Key> {
+        static Key of(Task task) {
+            return new Key(BinaryTaskFormat.toEpochSecond(task.getDueDate()), task.getId());
+        }
+
+        static Key lowest(LocalDateTime due) {
+            return new Key(ceilEpochSecond(due), Integer.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byDue = Long.compare(due, other.due);
+            return byDue != 0 ? byDue : Integer.compare(id, other.id);
+        }
+    }
+}
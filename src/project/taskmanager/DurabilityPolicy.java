@@ -0,0 +1,47 @@
+package project.taskmanager;
+
+/**
+ * How often journaled records are forced to disk, which bounds what a crash can lose.
+ *
+ * {@link Mode#BATCH} forces after every group of records the writer commits, so nothing that
+ * was written is lost. {@link Mode#INTERVAL} forces at most every {@code intervalMillis}, so a
+ * crash loses at most that much recent work. {@link Mode#NONE} leaves flushing to the operating
+ * system. Records still reach the OS within one batch in every mode, so a crash of the process
+ * alone loses nothing once a batch has been written.
+ */
+public record DurabilityPolicy(Mode mode, long intervalMillis) {
+    public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+
+    public enum Mode { BATCH, INTERVAL, NONE }
+
+    public DurabilityPolicy {
+        if (mode == Mode.INTERVAL && intervalMillis <= 0) {
+            throw new IllegalArgumentException("Sync interval must be positive.");
+        }
+    }
+
+    public static DurabilityPolicy perBatch() {
+        return new DurabilityPolicy(Mode.BATCH, 0);
+    }
+
+    public static DurabilityPolicy every(long intervalMillis) {
+        return new DurabilityPolicy(Mode.INTERVAL, intervalMillis);
+    }
+
+    public static DurabilityPolicy none() {
+        return new DurabilityPolicy(Mode.NONE, 0);
+    }
+
+    // Reads -Dtaskmanager.durability=batch|none|<millis>, defaulting to a sync every second.
+    public static DurabilityPolicy fromSystemProperty() {
+        String value = System.getProperty("taskmanager.durability", "").trim();
+        if (value.equalsIgnoreCase("batch")) return perBatch();
+        if (value.equalsIgnoreCase("none")) return none();
+        try {
+            return every(value.isEmpty() ? DEFAULT_INTERVAL_MILLIS : Long.parseLong(value));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown durability '" + value + "', syncing every " + DEFAULT_INTERVAL_MILLIS + " ms.");
+            return every(DEFAULT_INTERVAL_MILLIS);
+        }
+    }
+}
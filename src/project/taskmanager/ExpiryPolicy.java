@@ -0,0 +1,16 @@
+package project.taskmanager;
+
+/**
+ * What the expiry sweep does with a task whose due date has passed. {@link #DELETE} drops it;
+ * {@link #ARCHIVE} first appends its record to an archive file next to the store, in the same
+ * line format as a text snapshot, and then drops it from the store.
+ */
+public enum ExpiryPolicy {
+    DELETE, ARCHIVE;
+
+    // Picks the policy from -Dtaskmanager.expiry=delete|archive, defaulting to delete.
+    public static ExpiryPolicy fromSystemProperty() {
+        String value = System.getProperty("taskmanager.expiry", "delete");
+        return value.equalsIgnoreCase("archive") ? ARCHIVE : DELETE;
+    }
+}
@@ -0,0 +1,127 @@
+package project.taskmanager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Background thread that runs the expiry sweep when the earliest due date in the store passes.
+ *
+ * The thread asks for the next due date, sleeps until then and runs the sweep, so it never
+ * polls a store with nothing to expire and the sweep only ever meets tasks that have expired.
+ * A task stored with an earlier due date than the one the thread is waiting for wakes it
+ * through {@link #dueAt}; the check is one volatile read, so writers pay nothing otherwise.
+ * Sleeps are capped, so a clock change only delays a sweep by that much.
+ */
+final class ExpirySweeper {
+    private static final long MAX_SLEEP_MILLIS = 60_000;
+    // A sweep that left something due behind, e.g. a task it could not remove, is not retried any sooner than this.
+    private static final long MIN_SLEEP_MILLIS = 1000;
+
+    private final Supplier<LocalDateTime> nextDue;
+    // Handed the time the sweep runs at, as read from clock.
+    private final Consumer<LocalDateTime> sweep;
+    private final Supplier<LocalDateTime> clock;
+    private final Object lock = new Object();
+    private final Thread thread;
+    // When the thread next sweeps; LocalDateTime.MAX while it sweeps, so every store during a sweep is noted.
+    private volatile LocalDateTime wakeAt = LocalDateTime.MAX;
+    private volatile boolean stopped;
+
+    // nextDue gives the earliest time a sweep would find work, or null when nothing is stored.
+    ExpirySweeper(Supplier<LocalDateTime> nextDue, Consumer<LocalDateTime> sweep) {
+        this.nextDue = nextDue;
+        this.sweep = sweep;
+        this.clock = LocalDateTime::now;
+        this.thread = new Thread(this::run, "task-expiry-sweeper");
+        this.thread.setDaemon(true);
+    }
+
+    // Reads time from clock and only sweeps when sweepIfDue() is called, on the caller's thread; for tests.
+    ExpirySweeper(Supplier<LocalDateTime> nextDue, Consumer<LocalDateTime> sweep, Supplier<LocalDateTime> clock) {
+        this.nextDue = nextDue;
+        this.sweep = sweep;
+        this.clock = clock;
+        this.thread = null;
+        // Like the thread, the first call sweeps straight away.
+        this.wakeAt = LocalDateTime.MIN;
+    }
+
+    // The first sweep runs straight away.
+    void start() {
+        thread.start();
+    }
+
+    // Stops the thread, letting a sweep in progress finish first.
+    void stop() {
+        stopped = true;
+        if (thread == null) return;
+        thread.interrupt();
+        if (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Brings the next sweep forward to time if the thread was going to sleep past it.
+    void dueAt(LocalDateTime time) {
+        if (!time.isBefore(wakeAt)) return;
+        synchronized (lock) {
+            if (time.isBefore(wakeAt)) {
+                wakeAt = time;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // Sweeps if the clock has reached the time the thread would wake at, and works out the next one; false if it was not yet due.
+    boolean sweepIfDue() {
+        if (clock.get().isBefore(wakeAt)) return false;
+        wakeAt = LocalDateTime.MAX;
+        sweepAndSchedule();
+        return true;
+    }
+
+    private void run() {
+        while (!stopped) {
+            sweepAndSchedule();
+            synchronized (lock) {
+                try {
+                    while (!stopped) {
+                        LocalDateTime now = clock.get();
+                        if (!now.isBefore(wakeAt)) break;
+                        LocalDateTime cap = now.plus(Duration.ofMillis(MAX_SLEEP_MILLIS));
+                        lock.wait(wakeAt.isBefore(cap) ? Math.max(1, Duration.between(now, wakeAt).toMillis()) : MAX_SLEEP_MILLIS);
+                        if (!clock.get().isBefore(cap)) break;
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                wakeAt = LocalDateTime.MAX;
+            }
+        }
+    }
+
+    private void sweepAndSchedule() {
+        try {
+            sweep.accept(clock.get());
+        } catch (RuntimeException e) {
+            System.out.println("Error sweeping expired tasks: " + e.getMessage());
+        }
+        synchronized (lock) {
+            // Anything stored while this runs waits on the lock and then lowers wakeAt itself.
+            LocalDateTime next = nextDue.get();
+            LocalDateTime soonest = clock.get().plus(Duration.ofMillis(MIN_SLEEP_MILLIS));
+            if (next != null && next.isBefore(soonest)) {
+                next = soonest;
+            }
+            if (next != null && next.isBefore(wakeAt)) {
+                wakeAt = next;
+            }
+        }
+    }
+}
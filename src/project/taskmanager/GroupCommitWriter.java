@@ -0,0 +1,374 @@
+package project.taskmanager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Appends records to a file from one background thread, committing them in groups.
+ *
+ * {@link #append(String)} only queues the record, so callers never wait for the disk.
+ * The writer thread takes everything queued since its last pass and writes it with one
+ * call, so a burst of mutations costs one write instead of one per record, and forces
+ * the file as the {@link DurabilityPolicy} asks. When nothing was queued, nothing is
+ * written or forced. Records are written in the order they were queued. Between
+ * {@link #holdWrites()} and {@link #releaseWrites()} the writer leaves the queue alone, so a
+ * batch of records queued from many calls still costs one write.
+ *
+ * The queue is bounded: once it holds {@link #MAX_PENDING} entries, {@link #awaitCapacity()}
+ * waits for the writer to take them. append() itself never waits, since it runs under locks the
+ * writer may need; callers check for room first, before they take any lock.
+ *
+ * When other processes append to the same file, a {@link WriteGuard} brackets every write
+ * and file action, typically with a lock they all take. Under the guard the writer checks that
+ * the path still names the file it has open, and reopens it if another process replaced it.
+ */
+public class GroupCommitWriter implements Closeable {
+    // Entries the queue takes before awaitCapacity() makes callers wait for the writer.
+    public static final int MAX_PENDING = 64 * 1024;
+
+    private final Path path;
+    private final DurabilityPolicy policy;
+    private final TaskMetrics metrics;
+    private final Object lock = new Object();
+    private final Thread thread;
+    private List<Object> pending = new ArrayList<>();
+    private boolean closed;
+    // Callers between holdWrites() and releaseWrites(); set draining stops new ones while the writer waits.
+    private int holds;
+    private boolean draining;
+    private volatile WriteGuard guard;
+
+    // Only touched by the writer thread.
+    private FileChannel channel;
+    // Identifies the file channel was opened on, to notice when the path has been replaced.
+    private Object channelKey;
+    private boolean dirty;
+    private long lastSyncMillis = System.currentTimeMillis();
+
+    // Work run on the writer thread while the file is closed, such as rotating it.
+    @FunctionalInterface
+    public interface FileAction {
+        void run() throws IOException;
+    }
+
+    // Brackets file access when the file is shared with other processes.
+    public interface WriteGuard {
+        // Runs on the writer thread before it touches the file.
+        void before();
+
+        // Runs after records were written (0 for a file action); end is where the file now ends, or -1 if unknown.
+        void after(int records, long end);
+    }
+
+    public GroupCommitWriter(Path path, DurabilityPolicy policy) {
+        this(path, policy, new TaskMetrics());
+    }
+
+    public GroupCommitWriter(Path path, DurabilityPolicy policy, TaskMetrics metrics) {
+        this.path = path;
+        this.policy = policy;
+        this.metrics = metrics;
+        this.thread = new Thread(this::runWriter, "task-journal-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public void append(String record) {
+        enqueue(record);
+    }
+
+    // Set before anything is appended.
+    public void setWriteGuard(WriteGuard guard) {
+        this.guard = guard;
+    }
+
+    /**
+     * Writes and forces everything queued so far, closes the file and runs action on the
+     * writer thread. Records queued after this call go to a freshly opened file. False if the
+     * writer is closed and the action will never run.
+     */
+    public boolean runWithFileClosed(FileAction action) {
+        return enqueue(action);
+    }
+
+    // Blocks until every record queued before this call is written and forced to disk.
+    public void flush() {
+        CountDownLatch barrier = new CountDownLatch(1);
+        if (!enqueue(barrier)) return;
+        try {
+            barrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Blocks until every record queued before this call is written, without forcing it to disk.
+    public void awaitWritten() {
+        WriteBarrier barrier = new WriteBarrier(new CountDownLatch(1));
+        if (!enqueue(barrier)) return;
+        try {
+            barrier.latch().await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits while the queue is full, so producers slow down to the pace of the disk instead of
+     * growing the queue without bound. Must be called without holding any lock the writer or its
+     * guard takes and outside a hold, since the writer has to run for the queue to empty.
+     */
+    public void awaitCapacity() {
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (pending.size() >= MAX_PENDING && !closed) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Keeps the writer from taking queued records until the matching {@link #releaseWrites()},
+     * so everything queued in between goes out in one write. Waits while the writer is waiting
+     * for earlier holds to end, so a stream of overlapping holds cannot starve it. Holds must
+     * not nest, and nothing that waits for the writer, such as {@link #flush()}, may run inside one.
+     */
+    public void holdWrites() {
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (draining) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            holds++;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public void releaseWrites() {
+        synchronized (lock) {
+            if (--holds == 0) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // Flushes, then stops the writer thread. Records appended afterwards are dropped.
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean enqueue(Object entry) {
+        synchronized (lock) {
+            if (closed) return false;
+            pending.add(entry);
+            // The writer only ever sleeps on an empty queue.
+            if (pending.size() == 1) {
+                lock.notifyAll();
+            }
+            return true;
+        }
+    }
+
+    private void runWriter() {
+        List<Object> batch = new ArrayList<>();
+        while (true) {
+            boolean stop;
+            synchronized (lock) {
+                while ((pending.isEmpty() || holds > 0) && !closed) {
+                    long wait = 0;
+                    draining = holds > 0 && !pending.isEmpty();
+                    if (holds == 0 && dirty && policy.mode() == DurabilityPolicy.Mode.INTERVAL) {
+                        wait = lastSyncMillis + policy.intervalMillis() - System.currentTimeMillis();
+                        if (wait <= 0) break;
+                    }
+                    try {
+                        lock.wait(wait);
+                    } catch (InterruptedException e) {
+                        // Only close() stops the writer.
+                    }
+                }
+                if (draining) {
+                    draining = false;
+                    lock.notifyAll();
+                }
+                List<Object> taken = pending;
+                pending = batch;
+                batch = taken;
+                stop = closed;
+                if (taken.size() >= MAX_PENDING) {
+                    // Producers waiting in awaitCapacity() have room again.
+                    lock.notifyAll();
+                }
+            }
+
+            try {
+                commit(batch);
+                if (stop) {
+                    sync();
+                    closeFile();
+                    return;
+                }
+                if (policy.mode() == DurabilityPolicy.Mode.INTERVAL
+                        && System.currentTimeMillis() - lastSyncMillis >= policy.intervalMillis()) {
+                    sync();
+                }
+            } catch (IOException e) {
+                System.out.println("Error saving tasks: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Writes runs of records with one call each, handling barriers and file actions in queue order.
+    private void commit(List<Object> batch) throws IOException {
+        StringBuilder records = new StringBuilder();
+        int count = 0;
+        try {
+            for (Object entry : batch) {
+                if (entry instanceof String record) {
+                    records.append(record).append('\n');
+                    count++;
+                    continue;
+                }
+                write(records, count);
+                count = 0;
+                if (entry instanceof CountDownLatch barrier) {
+                    try {
+                        sync();
+                    } finally {
+                        barrier.countDown();
+                    }
+                } else if (entry instanceof WriteBarrier barrier) {
+                    barrier.latch().countDown();
+                } else if (entry instanceof FileAction action) {
+                    WriteGuard current = guard;
+                    if (current != null) {
+                        current.before();
+                    }
+                    try {
+                        sync();
+                        closeFile();
+                        action.run();
+                    } finally {
+                        if (current != null) {
+                            current.after(0, -1);
+                        }
+                    }
+                }
+            }
+            write(records, count);
+            if (policy.mode() == DurabilityPolicy.Mode.BATCH) {
+                sync();
+            }
+        } finally {
+            // A failed write must not leave a flush() waiting forever.
+            for (Object entry : batch) {
+                if (entry instanceof CountDownLatch barrier) {
+                    barrier.countDown();
+                } else if (entry instanceof WriteBarrier barrier) {
+                    barrier.latch().countDown();
+                }
+            }
+        }
+    }
+
+    private void write(StringBuilder records, int count) throws IOException {
+        if (records.length() == 0) return;
+        long start = System.nanoTime();
+        ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+        records.setLength(0);
+        WriteGuard current = guard;
+        long end = -1;
+        if (current != null) {
+            current.before();
+        }
+        try {
+            if (current != null && channel != null && !Objects.equals(channelKey, fileKey(path))) {
+                // Another process rotated the file away; what is left to force goes to the old one.
+                sync();
+                closeFile();
+            }
+            if (channel == null) {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                channelKey = fileKey(path);
+            }
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            dirty = true;
+            end = channel.position();
+        } finally {
+            if (current != null) {
+                current.after(count, end);
+            }
+        }
+        metrics.recordJournalWrite(count, System.nanoTime() - start);
+    }
+
+    // What tells one file apart from another that later took its name, or null if there is no file.
+    static Object fileKey(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void sync() throws IOException {
+        if (dirty && channel != null) {
+            long start = System.nanoTime();
+            channel.force(false);
+            metrics.recordJournalSync(System.nanoTime() - start);
+        }
+        dirty = false;
+        lastSyncMillis = System.currentTimeMillis();
+    }
+
+    // Released once the records before it are written, where a CountDownLatch also waits for the sync.
+    private record WriteBarrier(CountDownLatch latch) {
+    }
+
+    private void closeFile() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            channelKey = null;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package project.taskmanager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Follows a journal that other processes append to and hands their new records to a consumer.
+ *
+ * The tailer remembers how far into the journal it has read and only ever reads what was
+ * appended since, a whole line at a time, so a record another process is still writing waits
+ * for the next pass. A {@link WatchService} on the journal's directory wakes it as soon as the
+ * file changes, with a periodic check as a fallback. When the journal is rotated, the file the
+ * tailer has open keeps what was appended before the rotation; it is read to the end first and
+ * the tailer then starts the new journal from its first record.
+ *
+ * The process's own writer reads what is new while it holds the store lock, appends, and then
+ * moves the position past its own records with {@link #caughtUpTo}, so nothing it wrote
+ * itself comes back. Those steps run under {@link #lock()}, which keeps the background pass out.
+ */
+final class JournalTailer implements Closeable {
+    private static final long POLL_MILLIS = 1000;
+    private static final int READ_BYTES = 64 * 1024;
+
+    private final Path path;
+    private final Consumer<String> records;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ByteBuffer buffer = ByteBuffer.allocate(READ_BYTES);
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    private FileChannel channel;
+    private Object channelKey;
+    private long position;
+    private volatile boolean following;
+    private volatile boolean closed;
+    private Thread thread;
+
+    JournalTailer(Path path, Consumer<String> records) {
+        this.path = path;
+        this.records = records;
+    }
+
+    void lock() {
+        lock.lock();
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+
+    // Puts the position at the end of the journal as it is now; called with the store locked, once it has been replayed.
+    void startAtEnd() throws IOException {
+        lock.lock();
+        try {
+            closeFile();
+            if (openCurrent()) {
+                position = channel.size();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Starts handing records on and the background thread that waits for them.
+    void follow() {
+        lock.lock();
+        try {
+            if (following || closed) return;
+            following = true;
+            thread = new Thread(this::run, "task-journal-tailer");
+            thread.setDaemon(true);
+            thread.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands on every complete record appended since the last pass, following a rotation if
+     * there was one. Does nothing until {@link #follow()} is called, so records are never read
+     * before there is anything to apply them to.
+     */
+    void catchUp() {
+        if (!following) return;
+        lock.lock();
+        try {
+            readToEnd();
+            Object currentKey = GroupCommitWriter.fileKey(path);
+            if (channel != null && Objects.equals(channelKey, currentKey)) return;
+            // The old file only changes under the store lock, which the rotation held, so it is final by now.
+            readToEnd();
+            closeFile();
+            if (openCurrent()) {
+                readToEnd();
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading changes from other processes: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The journal ends at end after this process's own append, which the caller made right after a catchUp().
+    void caughtUpTo(long end) {
+        if (!following) return;
+        lock.lock();
+        try {
+            if (channel == null || !Objects.equals(channelKey, GroupCommitWriter.fileKey(path))) {
+                closeFile();
+                openCurrent();
+            }
+            position = end;
+        } catch (IOException e) {
+            System.out.println("Error reading changes from other processes: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        lock.lock();
+        try {
+            if (thread != null) {
+                thread.interrupt();
+            }
+            closeFile();
+        } catch (IOException e) {
+            // Only ever read from.
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        try (WatchService watcher = path.getFileSystem().newWatchService()) {
+            Path directory = path.toAbsolutePath().getParent();
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            Path name = path.getFileName();
+            while (!closed) {
+                WatchKey key = watcher.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                boolean changed = key == null;
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context());
+                    }
+                    key.reset();
+                }
+                if (changed) {
+                    catchUp();
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error watching for changes from other processes: " + e.getMessage());
+        } catch (InterruptedException e) {
+            // Closed.
+        }
+    }
+
+    // Opens the journal the path names now, if there is one; the position starts at its beginning.
+    private boolean openCurrent() throws IOException {
+        position = 0;
+        while (true) {
+            Object before = GroupCommitWriter.fileKey(path);
+            if (before == null) return false;
+            FileChannel opened;
+            try {
+                opened = FileChannel.open(path, StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            // Only keep it if no rotation slipped in between looking the file up and opening it.
+            if (Objects.equals(before, GroupCommitWriter.fileKey(path))) {
+                channel = opened;
+                channelKey = before;
+                return true;
+            }
+            opened.close();
+        }
+    }
+
+    private void readToEnd() throws IOException {
+        if (channel == null) return;
+        long size = channel.size();
+        long offset = position;
+        line.reset();
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) break;
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                offset++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                String record = line.toString(StandardCharsets.UTF_8);
+                line.reset();
+                position = offset;
+                if (!record.isEmpty()) {
+                    records.accept(record);
+                }
+            }
+        }
+        // A record whose writer is not done yet is read again, whole, on the next pass.
+        line.reset();
+    }
+
+    private void closeFile() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            channelKey = null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package project.taskmanager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with power-of-two buckets.
+ *
+ * Recording is a few atomic increments, cheap enough for every store operation. Bucket
+ * {@code b} holds values in {@code [2^(b-1), 2^b)}, so reported percentiles are the upper
+ * bound of the bucket they fall in and are within a factor of two of the true value.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(value));
+        count.increment();
+        total.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public LatencyStats stats() {
+        long[] counts = new long[BUCKETS];
+        long recorded = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            recorded += counts[i];
+        }
+        long largest = max.get();
+        double mean = recorded == 0 ? 0 : (double) total.sum() / recorded;
+        return new LatencyStats(recorded, micros(mean),
+                micros(percentile(counts, recorded, 0.50, largest)),
+                micros(percentile(counts, recorded, 0.90, largest)),
+                micros(percentile(counts, recorded, 0.99, largest)),
+                micros(largest));
+    }
+
+    // Not atomic with concurrent records, which may land on either side of the reset.
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    private static long percentile(long[] counts, long recorded, double fraction, long largest) {
+        if (recorded == 0) return 0;
+        long rank = (long) Math.ceil(recorded * fraction);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                long upper = bucket == 0 ? 0 : bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+                return Math.min(upper, largest);
+            }
+        }
+        return largest;
+    }
+
+    private static double micros(double nanos) {
+        return nanos / 1_000.0;
+    }
+}
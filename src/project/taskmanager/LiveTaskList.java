@@ -0,0 +1,451 @@
+package project.taskmanager;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live, filtered and sorted view of a {@link TaskManager}'s tasks for a TableView.
+ *
+ * The list holds only a sort key and an id per row and builds a Task when a row is read, so
+ * the table pays for the rows on screen rather than for millions of task objects. Store
+ * changes arrive as {@link TaskChangeListener} events and are applied on the FX thread once
+ * per pulse. A few are applied in place; a burst that would move too many rows is merged on a
+ * background thread and then reported as the same fine-grained adds and removes, and a new
+ * filter or sort order is rebuilt there from the store's columns and swapped in with one
+ * change. Rows dropped by a merge or rebuild are reported as removed nulls, since the old
+ * tasks are not kept. Tasks a bounded cache evicts keep their rows. Only the FX thread may use
+ * the list.
+ */
+public class LiveTaskList extends ObservableListBase<Task> implements TaskChangeListener {
+    public enum Order { ID, DUE_DATE, PRIORITY, TYPE }
+
+    public static final TaskRowFilter ALL = (id, due, priority, type) -> true;
+
+    // Above this many changes, or this many row moves, a batch is merged off the FX thread instead.
+    private static final int INCREMENTAL_CHANGES = 256;
+    private static final long INCREMENTAL_MOVES = 4_000_000;
+
+    private static final ExecutorService BUILDER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "task-view-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TaskManager manager;
+    private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    // Only touched on the FX thread, apart from the builder reading a base it was handed.
+    private TaskRowFilter filter = ALL;
+    private Order order = Order.ID;
+    private boolean descending;
+    // Rows sorted ascending by (key, id).
+    private long[] keys = new long[16];
+    private int[] ids = new int[16];
+    private int size;
+    private long generation;
+    // While a build runs it owns the change queue; the FX thread leaves the rows alone.
+    private boolean building;
+
+    public LiveTaskList(TaskManager manager) {
+        this.manager = manager;
+        manager.addTaskListener(this);
+        rebuild();
+    }
+
+    // Stops following the store.
+    public void dispose() {
+        manager.removeTaskListener(this);
+    }
+
+    public void setFilter(TaskRowFilter filter) {
+        this.filter = filter;
+        rebuild();
+    }
+
+    public void setOrder(Order order, boolean descending) {
+        if (order == this.order && descending == this.descending) return;
+        if (order == this.order) {
+            // Same rows read backwards: every index moves but nothing has to be sorted.
+            int[] mapping = new int[size];
+            for (int i = 0; i < size; i++) {
+                mapping[i] = size - 1 - i;
+            }
+            this.descending = descending;
+            beginChange();
+            nextPermutation(0, size, mapping);
+            endChange();
+            return;
+        }
+        this.order = order;
+        this.descending = descending;
+        rebuild();
+    }
+
+    @Override
+    public Task get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        int id = ids[position(index, size)];
+        Task task = manager.residentTask(id);
+        // A row whose month a bounded cache evicted, or never loaded, is read back with that month.
+        // Null only for a task deleted since the last pulse; its removal is already queued.
+        return task != null ? task : manager.getTask(id);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void taskStored(Task previous, Task current) {
+        enqueue(new Change(previous, current));
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        enqueue(new Change(task, null));
+    }
+
+    private void enqueue(Change change) {
+        changes.add(change);
+        queued.incrementAndGet();
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        if (building) return;
+        int pending = queued.get();
+        if (pending == 0) return;
+        if (pending > INCREMENTAL_CHANGES || (long) pending * size > INCREMENTAL_MOVES) {
+            startBuild(keys, ids, size);
+            return;
+        }
+        // Only the changes counted above; later ones get a drain of their own.
+        beginChange();
+        for (int i = 0; i < pending; i++) {
+            queued.decrementAndGet();
+            apply(changes.poll());
+        }
+        endChange();
+    }
+
+    private void apply(Change change) {
+        if (change.previous != null) {
+            int at = find(keys, ids, size, key(order, change.previous), change.previous.getId());
+            if (at >= 0) {
+                int index = position(at, size);
+                System.arraycopy(keys, at + 1, keys, at, size - at - 1);
+                System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+                size--;
+                nextRemove(index, change.previous);
+            }
+        }
+        if (change.current != null && accepts(filter, change.current)) {
+            long key = key(order, change.current);
+            int at = find(keys, ids, size, key, change.current.getId());
+            if (at < 0) {
+                at = -at - 1;
+                if (size == ids.length) {
+                    keys = Arrays.copyOf(keys, size + (size >> 1) + 16);
+                    ids = Arrays.copyOf(ids, keys.length);
+                }
+                System.arraycopy(keys, at, keys, at + 1, size - at);
+                System.arraycopy(ids, at, ids, at + 1, size - at);
+                keys[at] = key;
+                ids[at] = change.current.getId();
+                size++;
+                int index = position(at, size);
+                nextAdd(index, index + 1);
+            }
+        }
+    }
+
+    private void rebuild() {
+        startBuild(null, null, 0);
+    }
+
+    // Builds new rows on the builder thread, from a fresh snapshot when base is null or else by
+    // merging the queued changes into base, and swaps them in unless a newer build was started.
+    private void startBuild(long[] baseKeys, int[] baseIds, int baseSize) {
+        long build = ++generation;
+        building = true;
+        TaskRowFilter buildFilter = filter;
+        Order buildOrder = order;
+        BUILDER.execute(() -> {
+            Rows rows = baseKeys == null
+                    ? merge(snapshot(buildFilter, buildOrder), buildFilter, buildOrder, null)
+                    : merge(new Rows(baseKeys, baseIds, baseSize, null), buildFilter, buildOrder, new Edits());
+            Platform.runLater(() -> install(build, rows));
+        });
+    }
+
+    private void install(long build, Rows rows) {
+        if (build != generation) return;
+        building = false;
+        int oldSize = size;
+        keys = rows.keys;
+        ids = rows.ids;
+        size = rows.size;
+        beginChange();
+        if (rows.edits == null) {
+            if (oldSize > 0) {
+                nextRemove(0, new Nulls(oldSize));
+            }
+            if (size > 0) {
+                nextAdd(0, size);
+            }
+        } else {
+            rows.edits.replay(this);
+        }
+        endChange();
+        // Changes queued after the build took its share.
+        drain();
+    }
+
+    private Rows snapshot(TaskRowFilter filter, Order order) {
+        ColumnarTaskList matching = manager.getTasksMatching(filter);
+        int count = matching.size();
+        long[] keys = new long[count];
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = switch (order) {
+                case ID -> matching.idAt(i);
+                case DUE_DATE -> matching.dueEpochSecondAt(i);
+                case PRIORITY -> matching.priorityAt(i);
+                case TYPE -> matching.typeAt(i);
+            };
+            ids[i] = matching.idAt(i);
+        }
+        sort(keys, ids, count);
+        return new Rows(keys, ids, count, null);
+    }
+
+    // Folds the queued changes into rows; the last change to a task decides whether and where it
+    // appears. When edits is given it records the rows removed and added along the way.
+    private Rows merge(Rows rows, TaskRowFilter filter, Order order, Edits edits) {
+        Map<Integer, Task> latest = new HashMap<>();
+        for (int pending = queued.get(); pending > 0; pending--) {
+            queued.decrementAndGet();
+            Change change = changes.poll();
+            int id = (change.current != null ? change.current : change.previous).getId();
+            latest.put(id, change.current);
+        }
+        if (latest.isEmpty()) return new Rows(rows.keys, rows.ids, rows.size, edits);
+
+        long[] addedKeys = new long[latest.size()];
+        int[] addedIds = new int[latest.size()];
+        int added = 0;
+        for (Task task : latest.values()) {
+            if (task != null && accepts(filter, task)) {
+                addedKeys[added] = key(order, task);
+                addedIds[added++] = task.getId();
+            }
+        }
+        sort(addedKeys, addedIds, added);
+
+        long[] keys = new long[rows.size + added];
+        int[] ids = new int[keys.length];
+        int count = 0;
+        int next = 0;
+        for (int i = 0; i < rows.size; i++) {
+            while (next < added && compare(addedKeys[next], addedIds[next], rows.keys[i], rows.ids[i]) < 0) {
+                if (edits != null) edits.add(count);
+                keys[count] = addedKeys[next];
+                ids[count++] = addedIds[next++];
+            }
+            if (latest.containsKey(rows.ids[i])) {
+                if (edits != null) edits.remove(count);
+                continue;
+            }
+            keys[count] = rows.keys[i];
+            ids[count++] = rows.ids[i];
+        }
+        while (next < added) {
+            if (edits != null) edits.add(count);
+            keys[count] = addedKeys[next];
+            ids[count++] = addedIds[next++];
+        }
+        return new Rows(keys, ids, count, edits);
+    }
+
+    private void fire(int index, int length, boolean added) {
+        if (added) {
+            nextAdd(index, index + length);
+        } else {
+            nextRemove(index, new Nulls(length));
+        }
+    }
+
+    private int position(int index, int size) {
+        return descending ? size - 1 - index : index;
+    }
+
+    private static boolean accepts(TaskRowFilter filter, Task task) {
+        return filter.test(task.getId(), BinaryTaskFormat.toEpochSecond(task.getDueDate()),
+                task.getPriority(), BinaryTaskFormat.typeOf(task));
+    }
+
+    private static long key(Order order, Task task) {
+        return switch (order) {
+            case ID -> task.getId();
+            case DUE_DATE -> BinaryTaskFormat.toEpochSecond(task.getDueDate());
+            case PRIORITY -> task.getPriority();
+            case TYPE -> BinaryTaskFormat.typeOf(task);
+        };
+    }
+
+    private static int compare(long keyA, int idA, long keyB, int idB) {
+        int byKey = Long.compare(keyA, keyB);
+        return byKey != 0 ? byKey : Integer.compare(idA, idB);
+    }
+
+    // Index of (key, id) in the sorted rows, or -(insertion point) - 1.
+    private static int find(long[] keys, int[] ids, int size, long key, int id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(keys[mid], ids[mid], key, id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    // Sorts rows by (key, id). When the keys span less than 2^31 each row packs into one long.
+    private static void sort(long[] keys, int[] ids, int count) {
+        if (count < 2) return;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            min = Math.min(min, keys[i]);
+            max = Math.max(max, keys[i]);
+        }
+        if (max - min >= 0 && max - min < Integer.MAX_VALUE) {
+            long[] packed = new long[count];
+            for (int i = 0; i < count; i++) {
+                packed[i] = ((keys[i] - min) << 32) | (ids[i] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < count; i++) {
+                keys[i] = (packed[i] >>> 32) + min;
+                ids[i] = (int) packed[i];
+            }
+            return;
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingLong(i -> keys[i]).thenComparingInt(i -> ids[i]));
+        long[] sortedKeys = new long[count];
+        int[] sortedIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            sortedKeys[i] = keys[order[i]];
+            sortedIds[i] = ids[order[i]];
+        }
+        System.arraycopy(sortedKeys, 0, keys, 0, count);
+        System.arraycopy(sortedIds, 0, ids, 0, count);
+    }
+
+    private record Change(Task previous, Task current) {
+    }
+
+    private record Rows(long[] keys, int[] ids, int size, Edits edits) {
+    }
+
+    /**
+     * Runs of rows a merge removed and added, by position in the merged rows, in ascending order.
+     * Replaying them in that order (or backwards, for a descending view) turns the old rows into
+     * the new ones, so the table sees a few fine-grained changes instead of a whole new list.
+     */
+    private static final class Edits {
+        // Per run: position, length, and whether it was added (1) or removed (0).
+        private int[] runs = new int[48];
+        private int count;
+
+        void add(int position) {
+            extend(position, 1);
+        }
+
+        void remove(int position) {
+            extend(position, 0);
+        }
+
+        private void extend(int position, int added) {
+            if (count > 0 && runs[count - 1] == added) {
+                int start = runs[count - 3];
+                int length = runs[count - 2];
+                // Removed rows pile up at one position; added rows follow one another.
+                if (position == (added == 1 ? start + length : start)) {
+                    runs[count - 2]++;
+                    return;
+                }
+            }
+            if (count == runs.length) {
+                runs = Arrays.copyOf(runs, count * 2);
+            }
+            runs[count++] = position;
+            runs[count++] = 1;
+            runs[count++] = added;
+        }
+
+        void replay(LiveTaskList list) {
+            int size = list.size;
+            if (!list.descending) {
+                for (int i = 0; i < count; i += 3) {
+                    list.fire(runs[i], runs[i + 1], runs[i + 2] == 1);
+                }
+                return;
+            }
+            // Walking backwards, the rows past each run are already final and sit first on screen.
+            for (int i = count - 3; i >= 0; i -= 3) {
+                int start = runs[i];
+                int length = runs[i + 1];
+                boolean added = runs[i + 2] == 1;
+                list.fire(added ? size - start - length : size - start, length, added);
+            }
+        }
+    }
+
+    // Stands in for replaced rows without building the tasks they held.
+    private static final class Nulls extends AbstractList<Task> {
+        private final int size;
+
+        Nulls(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Task get(int index) {
+            return null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
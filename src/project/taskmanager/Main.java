@@ -19,21 +19,23 @@ public class Main {
             System.out.println("3️⃣ Show Work Tasks");
             System.out.println("4️⃣ Show Personal Tasks");
             System.out.println("5️⃣ Show Urgent Tasks (Due Soon)");
-            System.out.println("6️⃣ Delete a Task");
-            System.out.println("7️⃣ Exit");
-            int option = getIntInput(scanner, "➜ Choose an option: ", 1, 7);
+            System.out.println("6️⃣ Search Tasks");
+            System.out.println("7️⃣ Delete a Task");
+            System.out.println("8️⃣ Exit");
+            int option = getIntInput(scanner, "➜ Choose an option: ", 1, 8);
 
             switch (option) {
                 case 1 -> addTask(scanner, manager, formatter);
-                case 2 -> manager.showTasks();
-                case 3 -> manager.showWorkTasks();
-                case 4 -> manager.showPersonalTasks();
-                case 5 -> manager.showUrgentTasks();
-                case 6 -> {
+                case 2 -> manager.showTasks(() -> askForMore(scanner));
+                case 3 -> manager.showWorkTasks(() -> askForMore(scanner));
+                case 4 -> manager.showPersonalTasks(() -> askForMore(scanner));
+                case 5 -> manager.showUrgentTasks(() -> askForMore(scanner));
+                case 6 -> searchTasks(scanner, manager);
+                case 7 -> {
                     int idToDelete = getIntInput(scanner, "➜ Enter Task ID to delete: ", 1, Integer.MAX_VALUE);
                     manager.deleteTask(idToDelete);
                 }
-                case 7 -> {
+                case 8 -> {
                     System.out.println("👋 Exiting Task Manager...");
                     scanner.close();
                     return;
@@ -69,11 +71,14 @@ public class Main {
         }
 
         int priority = getIntInput(scanner, "Priority (1-High 🔴, 2-Medium 🟡, 3-Low 🟢): ", 1, 3);
-        int type = getIntInput(scanner, "Task Type (1-Work 💼, 2-Personal 🏡): ", 1, 2);
+        int type = getIntInput(scanner, "Task Type (1-Work 💼, 2-Personal 🏡, 3-Recurring 🔁): ", 1, 3);
 
         try {
-            Task task = (type == 1) ? new WorkTask(description, dueDate, priority) :
-                                      new PersonalTask(description, dueDate, priority);
+            Task task = switch (type) {
+                case 1 -> new WorkTask(description, dueDate, priority);
+                case 2 -> new PersonalTask(description, dueDate, priority);
+                default -> new RecurringTask(description, readRecurrence(scanner, dueDate), priority);
+            };
             manager.addTask(task);
             System.out.println("✅ Task added successfully!");
         } catch (InvalidTaskException e) {
@@ -81,6 +86,33 @@ public class Main {
         }
     }
 
+    // 🔹 **Recurrence Rule: the first occurrence is the due date already entered**
+    private static Recurrence readRecurrence(Scanner scanner, LocalDateTime firstDue) {
+        int repeat = getIntInput(scanner, "Repeats (1-Daily, 2-Weekly, 3-Monthly, 4-Every N minutes): ", 1, 4);
+        return switch (repeat) {
+            case 1 -> Recurrence.daily(firstDue);
+            case 2 -> Recurrence.weekly(firstDue);
+            case 3 -> Recurrence.monthly(firstDue);
+            default -> Recurrence.everyMinutes(getIntInput(scanner, "Every how many minutes? ", 1, Integer.MAX_VALUE), firstDue);
+        };
+    }
+
+    // 🔹 **Search Tasks: by description words, soonest first, one page at a time**
+    private static void searchTasks(Scanner scanner, TaskManager manager) {
+        System.out.print("Search for (every word must match; end a word with * to match its start): ");
+        String text = scanner.nextLine().trim();
+        TaskQuery query = TaskQuery.all().describedBy(text).sortedBy(TaskQuery.Sort.DUE_DATE).page(0, 20);
+
+        TaskPage page = manager.showQuery("🔍 SEARCH RESULTS", query);
+        manager.showPages("🔍 SEARCH RESULTS", page, () -> askForMore(scanner));
+    }
+
+    // 🔹 **Asked between pages of a listing: true to print the next one**
+    private static boolean askForMore(Scanner scanner) {
+        System.out.print("➜ Press Enter for more, or q to stop: ");
+        return !scanner.nextLine().trim().equalsIgnoreCase("q");
+    }
+
     // 🔹 **Method for Safe Integer Input**
     private static int getIntInput(Scanner scanner, String message, int min, int max) {
         int value;
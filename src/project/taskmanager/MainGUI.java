@@ -3,12 +3,11 @@ package project.taskmanager;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyStringWrapper;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
@@ -16,14 +15,29 @@ import javafx.stage.Stage;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MainGUI extends Application {
-    private TaskManager manager = new TaskManager();
+    private static final int REMINDER_UPDATES_PER_SECOND = 4;
+
+    // Searches can read cold months from disk or build the word index, so they run here rather than on the FX thread.
+    private static final ExecutorService SEARCHER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "task-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Opened without reading the store; start() loads it once the window is up.
+    private TaskManager manager = TaskManager.unloaded();
     private TableView<Task> tableView;
+    private LiveTaskList liveTasks;
+    private final ReminderPanel reminderPanel = new ReminderPanel(REMINDER_UPDATES_PER_SECOND);
 
     public static void main(String[] args) {
         launch(args);
@@ -44,26 +58,33 @@ public class MainGUI extends Application {
         Button showUrgentButton = createButton("Show Urgent Tasks");
         Button deleteButton = createButton("Delete Task");
         Button exitButton = createButton("Exit");
+        TextField searchField = new TextField();
+        searchField.setPromptText("Search descriptions (words, or a prefix like meet*), then press Enter");
+        searchField.setMaxWidth(300);
 
         tableView = new TableView<>();
         setupTableColumns();
+        // One live list for the table; the buttons only change its filter, which is applied off the FX thread.
+        liveTasks = new LiveTaskList(manager);
+        tableView.setItems(liveTasks);
 
         addButton.setOnAction(e -> addTaskDialog());
-        showAllButton.setOnAction(e -> showTasks(manager.getTasks()));
-        showWorkButton.setOnAction(e -> showTasks(manager.getTasks().stream()
-                .filter(t -> t instanceof WorkTask)
-                .collect(Collectors.toList())));
-        showPersonalButton.setOnAction(e -> showTasks(manager.getTasks().stream()
-                .filter(t -> t instanceof PersonalTask)
-                .collect(Collectors.toList())));
-        showUrgentButton.setOnAction(e -> showTasks(manager.getTasks().stream()
-                .filter(t -> t.getDueDate().isBefore(LocalDateTime.now().plusMinutes(60)))
-                .collect(Collectors.toList())));
+        showAllButton.setOnAction(e -> liveTasks.setFilter(LiveTaskList.ALL));
+        showWorkButton.setOnAction(e -> showTasksOfType(WorkTask.class));
+        showPersonalButton.setOnAction(e -> showTasksOfType(PersonalTask.class));
+        showUrgentButton.setOnAction(e ->
+                liveTasks.setFilter(TaskQuery.all().dueBefore(LocalDateTime.now().plusMinutes(60)).rowFilter()));
         deleteButton.setOnAction(e -> deleteTaskDialog());
+        searchField.setOnAction(e -> searchTasks(searchField));
         exitButton.setOnAction(e -> Platform.exit());
 
-        VBox vbox = new VBox(12, titleLabel, addButton, showAllButton, showWorkButton, showPersonalButton,
-                showUrgentButton, deleteButton, exitButton, tableView);
+        ProgressBar loadProgress = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+        Label loadLabel = new Label("Reading tasks...");
+        HBox loadingBox = new HBox(10, loadProgress, loadLabel);
+        loadingBox.setAlignment(Pos.CENTER);
+
+        VBox vbox = new VBox(12, titleLabel, loadingBox, searchField, addButton, showAllButton, showWorkButton, showPersonalButton,
+                showUrgentButton, deleteButton, exitButton, reminderPanel, tableView);
         vbox.setAlignment(Pos.CENTER);
         vbox.setStyle("-fx-padding: 15;");
 
@@ -71,6 +92,34 @@ public class MainGUI extends Application {
         primaryStage.setScene(scene);
         primaryStage.show();
 
+        // New ids are only safe once the store's high-water mark is read, so adding and deleting wait for the load.
+        addButton.setDisable(true);
+        deleteButton.setDisable(true);
+        Runnable startLoading = new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                manager.loadInBackground((loaded, total) -> Platform.runLater(() -> {
+                    if (total >= 0) {
+                        loadProgress.setProgress(total == 0 ? 1 : (double) loaded / total);
+                        loadLabel.setText("Loaded " + loaded + " of " + total + " tasks");
+                    }
+                })).whenComplete((done, error) -> Platform.runLater(() -> {
+                    vbox.getChildren().remove(loadingBox);
+                    addButton.setDisable(false);
+                    deleteButton.setDisable(false);
+                    if (error != null) {
+                        showError("Error loading tasks: " + error.getMessage());
+                    } else {
+                        // The table lists every task, so the months startup left on disk follow in the background.
+                        manager.loadAllInBackground();
+                    }
+                }));
+            }
+        };
+        // Start reading on the first pulse, so the window is laid out before any tasks arrive.
+        scene.addPostLayoutPulseListener(startLoading);
+
         startReminderChecker();
     }
 
@@ -84,6 +133,7 @@ public class MainGUI extends Application {
     private void setupTableColumns() {
         TableColumn<Task, Integer> idCol = new TableColumn<>("ID");
         idCol.setCellValueFactory(new PropertyValueFactory<>("id"));
+        idCol.setUserData(LiveTaskList.Order.ID);
 
         TableColumn<Task, String> typeCol = new TableColumn<>("Type");
         typeCol.setCellValueFactory(data -> {
@@ -91,25 +141,66 @@ public class MainGUI extends Application {
                 return new ReadOnlyStringWrapper("Work");
             if (data.getValue() instanceof PersonalTask)
                 return new ReadOnlyStringWrapper("Personal");
+            if (data.getValue() instanceof RecurringTask recurring)
+                return new ReadOnlyStringWrapper("Recurring (" + recurring.getRecurrence() + ")");
             return new ReadOnlyStringWrapper("Unknown");
         });
+        typeCol.setUserData(LiveTaskList.Order.TYPE);
 
         TableColumn<Task, String> descCol = new TableColumn<>("Description");
         descCol.setCellValueFactory(new PropertyValueFactory<>("description"));
+        // The live list sorts on stored columns, and descriptions are not kept as one.
+        descCol.setSortable(false);
 
         TableColumn<Task, String> dueDateCol = new TableColumn<>("Due Date");
-        dueDateCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().getDueDate().toString()));
+        dueDateCol.setCellValueFactory(data -> data.getValue() == null ? null
+                : new ReadOnlyStringWrapper(data.getValue().getDueDate().toString()));
+        dueDateCol.setUserData(LiveTaskList.Order.DUE_DATE);
 
         TableColumn<Task, Integer> priorityCol = new TableColumn<>("Priority");
         priorityCol.setCellValueFactory(new PropertyValueFactory<>("priority"));
+        priorityCol.setUserData(LiveTaskList.Order.PRIORITY);
 
         tableView.getColumns().addAll(idCol, typeCol, descCol, dueDateCol, priorityCol);
         tableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        // Clicking a header re-sorts the live list by that column instead of sorting a copy on the FX thread.
+        tableView.setSortPolicy(table -> {
+            List<TableColumn<Task, ?>> sortOrder = table.getSortOrder();
+            if (sortOrder.isEmpty()) {
+                liveTasks.setOrder(LiveTaskList.Order.ID, false);
+            } else {
+                TableColumn<Task, ?> column = sortOrder.get(0);
+                liveTasks.setOrder((LiveTaskList.Order) column.getUserData(),
+                        column.getSortType() == TableColumn.SortType.DESCENDING);
+            }
+            return true;
+        });
     }
 
-    private void showTasks(List<Task> tasks) {
-        ObservableList<Task> observableTasks = FXCollections.observableArrayList(tasks);
-        tableView.setItems(observableTasks);
+    private void showTasksOfType(Class<? extends Task> taskType) {
+        liveTasks.setFilter(TaskQuery.all().ofType(taskType).dueFrom(LocalDateTime.now()).rowFilter());
+    }
+
+    /**
+     * Shows the tasks matching the search as it stands now; pressing Enter again picks up later
+     * changes. The field stays disabled until the results arrive, so searches never overlap.
+     */
+    private void searchTasks(TextField searchField) {
+        String text = searchField.getText();
+        if (text.isBlank()) {
+            liveTasks.setFilter(LiveTaskList.ALL);
+            return;
+        }
+        searchField.setDisable(true);
+        CompletableFuture.supplyAsync(() -> manager.searchDescriptions(text), SEARCHER)
+                .whenComplete((ids, error) -> Platform.runLater(() -> {
+                    searchField.setDisable(false);
+                    if (error != null) {
+                        showError("Error searching tasks: " + error.getMessage());
+                    } else {
+                        liveTasks.setFilter((id, due, priority, type) -> Arrays.binarySearch(ids, id) >= 0);
+                    }
+                }));
     }
 
     private void addTaskDialog() {
@@ -133,10 +224,21 @@ public class MainGUI extends Application {
         priorityComboBox.setPromptText("Priority");
 
         ComboBox<String> typeComboBox = new ComboBox<>();
-        typeComboBox.getItems().addAll("Work", "Personal");
+        typeComboBox.getItems().addAll("Work", "Personal", "Recurring");
         typeComboBox.setPromptText("Task Type");
 
-        VBox content = new VBox(10, descriptionField, dueDatePicker, hourField, minuteField, priorityComboBox, typeComboBox);
+        // Only used for recurring tasks, whose first occurrence is the due date above.
+        ComboBox<String> repeatComboBox = new ComboBox<>();
+        repeatComboBox.getItems().addAll("Daily", "Weekly", "Monthly", "Every N minutes");
+        repeatComboBox.setPromptText("Repeats");
+        TextField minutesField = new TextField();
+        minutesField.setPromptText("N (minutes)");
+        repeatComboBox.disableProperty().bind(typeComboBox.valueProperty().isNotEqualTo("Recurring"));
+        minutesField.disableProperty().bind(repeatComboBox.valueProperty().isNotEqualTo("Every N minutes")
+                .or(repeatComboBox.disableProperty()));
+
+        VBox content = new VBox(10, descriptionField, dueDatePicker, hourField, minuteField, priorityComboBox, typeComboBox,
+                repeatComboBox, minutesField);
         dialog.getDialogPane().setContent(content);
 
         ButtonType addButton = new ButtonType("Add", ButtonBar.ButtonData.OK_DONE);
@@ -156,6 +258,11 @@ public class MainGUI extends Application {
                         showError("All fields are required.");
                         return null;
                     }
+                    String repeat = repeatComboBox.getValue();
+                    if (typeStr.equals("Recurring") && repeat == null) {
+                        showError("Choose how the task repeats.");
+                        return null;
+                    }
 
                     LocalDateTime dueDate = LocalDateTime.of(date, LocalTime.of(hour, minute));
                     int priority = switch (priorityStr) {
@@ -168,6 +275,15 @@ public class MainGUI extends Application {
                     Task task = switch (typeStr) {
                         case "Work" -> new WorkTask(description, dueDate, priority);
                         case "Personal" -> new PersonalTask(description, dueDate, priority);
+                        case "Recurring" -> {
+                            Recurrence recurrence = switch (repeat) {
+                                case "Daily" -> Recurrence.daily(dueDate);
+                                case "Weekly" -> Recurrence.weekly(dueDate);
+                                case "Monthly" -> Recurrence.monthly(dueDate);
+                                default -> Recurrence.everyMinutes(Integer.parseInt(minutesField.getText().trim()), dueDate);
+                            };
+                            yield new RecurringTask(description, recurrence, priority);
+                        }
                         default -> null;
                     };
 
@@ -186,7 +302,8 @@ public class MainGUI extends Application {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(task -> showTasks(manager.getTasks()));
+        // The table follows the store, so the new task shows up without a refresh.
+        dialog.showAndWait();
     }
 
     private void deleteTaskDialog() {
@@ -198,7 +315,6 @@ public class MainGUI extends Application {
             try {
                 int taskId = Integer.parseInt(id.trim());
                 manager.deleteTask(taskId);
-                showTasks(manager.getTasks());
             } catch (NumberFormatException e) {
                 showError("Invalid ID");
             }
@@ -215,23 +331,9 @@ public class MainGUI extends Application {
         timer.scheduleAtFixedRate(new TimerTask() {
             @Override
             public void run() {
-                List<Task> dueSoon = manager.getTasks().stream()
-                        .filter(task -> {
-                            LocalDateTime now = LocalDateTime.now();
-                            return task.getDueDate().isAfter(now)
-                                    && task.getDueDate().isBefore(now.plusMinutes(10));
-                        })
-                        .collect(Collectors.toList());
-
-                for (Task task : dueSoon) {
-                    Platform.runLater(() -> {
-                        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                        alert.setTitle("Task Reminder");
-                        alert.setHeaderText("Task Due Soon!");
-                        alert.setContentText(task.toString());
-                        alert.showAndWait();
-                    });
-                }
+                LocalDateTime now = LocalDateTime.now();
+                // The panel drops tasks it already announced and batches the rest into one update.
+                reminderPanel.post(manager.getTasksDueBetween(now, now.plusMinutes(10)));
             }
         }, 0, 60_000); // Check every minute
     }
@@ -0,0 +1,127 @@
+package project.taskmanager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a {@link BinaryTaskFormat} file through a {@link MappedByteBuffer}.
+ *
+ * Records are addressed by their byte offset. Fixed-width header fields are read in place,
+ * so walking the file or filtering on id, due date, priority or type never decodes a
+ * description or creates a Task; {@link #taskAt(long)} materializes a single record on
+ * demand. Files are limited to 2 GB, the most one mapping can cover.
+ */
+public class MappedTaskFile implements Closeable {
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int nextId;
+
+    private MappedTaskFile(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < BinaryTaskFormat.FILE_HEADER_BYTES || buffer.getInt(0) != BinaryTaskFormat.MAGIC) {
+            throw new IOException("Not a binary task file.");
+        }
+        int version = buffer.getShort(4);
+        if (version < 1 || version > BinaryTaskFormat.VERSION) {
+            throw new IOException("Unsupported binary task file version " + version + ".");
+        }
+        this.nextId = buffer.getInt(8);
+        this.count = buffer.getInt(12);
+    }
+
+    public static MappedTaskFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Binary task file is larger than 2 GB.");
+            }
+            return new MappedTaskFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int nextId() {
+        return nextId;
+    }
+
+    public long firstOffset() {
+        return BinaryTaskFormat.FILE_HEADER_BYTES;
+    }
+
+    // Offset just past the last complete record; a record cut short by a crash is ignored.
+    public long endOffset() {
+        long offset = firstOffset();
+        for (int i = 0; i < count; i++) {
+            long next = nextOffset(offset);
+            if (next > buffer.limit()) break;
+            offset = next;
+        }
+        return offset;
+    }
+
+    public long nextOffset(long offset) {
+        if (offset + BinaryTaskFormat.RECORD_HEADER_BYTES > buffer.limit()) return Long.MAX_VALUE;
+        long next = offset + BinaryTaskFormat.RECORD_HEADER_BYTES + descriptionLengthAt(offset);
+        return typeAt(offset) == BinaryTaskFormat.TYPE_RECURRING ? next + BinaryTaskFormat.RECURRENCE_BYTES : next;
+    }
+
+    public int idAt(long offset) {
+        return buffer.getInt((int) offset);
+    }
+
+    public long dueEpochSecondAt(long offset) {
+        return buffer.getLong((int) offset + 4);
+    }
+
+    public int priorityAt(long offset) {
+        return buffer.get((int) offset + 12);
+    }
+
+    public byte typeAt(long offset) {
+        return buffer.get((int) offset + 13);
+    }
+
+    public int descriptionLengthAt(long offset) {
+        return buffer.getInt((int) offset + 14);
+    }
+
+    public String descriptionAt(long offset) {
+        byte[] bytes = new byte[descriptionLengthAt(offset)];
+        buffer.get((int) offset + BinaryTaskFormat.RECORD_HEADER_BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Task taskAt(long offset) throws InvalidTaskException {
+        int id = idAt(offset);
+        String description = descriptionAt(offset);
+        LocalDateTime dueDate = BinaryTaskFormat.fromEpochSecond(dueEpochSecondAt(offset));
+        int priority = priorityAt(offset);
+        return Task.restore(typeAt(offset), id, description, dueDate, priority, recurrenceAt(offset));
+    }
+
+    // The rule of a recurring task's record, or null for any other type.
+    public Recurrence recurrenceAt(long offset) throws InvalidTaskException {
+        if (typeAt(offset) != BinaryTaskFormat.TYPE_RECURRING) return null;
+        int at = (int) offset + BinaryTaskFormat.RECORD_HEADER_BYTES + descriptionLengthAt(offset);
+        Recurrence.Unit[] units = Recurrence.Unit.values();
+        int unit = buffer.get(at);
+        int interval = buffer.getInt(at + 1);
+        if (unit < 0 || unit >= units.length || interval <= 0) {
+            throw new InvalidTaskException("Invalid recurrence.");
+        }
+        return new Recurrence(units[unit], interval, BinaryTaskFormat.fromEpochSecond(buffer.getLong(at + 5)));
+    }
+
+    // The mapping itself is released by the garbage collector once this view is unreachable.
+    @Override
+    public void close() {
+    }
+}
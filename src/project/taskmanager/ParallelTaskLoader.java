@@ -0,0 +1,276 @@
+package project.taskmanager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads a task snapshot file by memory-mapping it and parsing line-aligned chunks in parallel.
+ *
+ * Records are parsed straight from the mapped bytes: ids, priorities and timestamps are
+ * decoded digit by digit and only the description is turned into a String, so there is
+ * no regex split, no per-line String and no formatter on the hot path. The description
+ * is everything between the first and the third-from-last separator, which also lets it
+ * contain {@code |}. Expired and malformed records are counted rather than printed.
+ */
+public class ParallelTaskLoader {
+    private static final long TARGET_CHUNK_BYTES = 8L * 1024 * 1024;
+    private static final long MAX_CHUNK_BYTES = 256L * 1024 * 1024;
+    private static final byte SEPARATOR = '|';
+    private static final byte NEWLINE = '\n';
+    private static final byte[] WORK_TASK = "WorkTask".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PERSONAL_TASK = "PersonalTask".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RECURRING_TASK = RecurringTask.TYPE_PREFIX.getBytes(StandardCharsets.US_ASCII);
+
+    private final ForkJoinPool pool;
+
+    public ParallelTaskLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelTaskLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public SnapshotContents load(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return new SnapshotContents(new ArrayList<>(), 0, 0, 1, 0);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<ChunkParser> chunks = new ArrayList<>();
+            long[] bounds = chunkBounds(channel, size);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                if (bounds[i + 1] > bounds[i]) {
+                    chunks.add(new ChunkParser(channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i])));
+                }
+            }
+
+            List<Task> tasks = new ArrayList<>();
+            int expired = 0;
+            int invalid = 0;
+            int nextId = 1;
+            for (ChunkParser chunk : chunks) {
+                pool.execute(chunk);
+            }
+            for (ChunkParser chunk : chunks) {
+                Chunk parsed = chunk.join();
+                tasks.addAll(parsed.tasks);
+                expired += parsed.expired;
+                invalid += parsed.invalid;
+                nextId = Math.max(nextId, parsed.nextId);
+            }
+            return new SnapshotContents(tasks, expired, invalid, nextId, chunks.size());
+        }
+    }
+
+    // Splits [0, size) at the first newline after each evenly spaced cut.
+    private static long[] chunkBounds(FileChannel channel, long size) throws IOException {
+        int parallelism = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        long byTarget = (size + TARGET_CHUNK_BYTES - 1) / TARGET_CHUNK_BYTES;
+        long byMax = (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES;
+        int count = (int) Math.max(1, Math.max(byMax, Math.min(byTarget, parallelism * 4L)));
+
+        long[] bounds = new long[count + 1];
+        bounds[count] = size;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int i = 1; i < count; i++) {
+            long position = Math.max(bounds[i - 1], size * i / count);
+            bounds[i] = nextLineStart(channel, position, size, probe);
+        }
+        return bounds;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer probe) throws IOException {
+        if (position == 0) return 0;
+        // Start one byte early so a cut that lands just after a newline stays on that boundary.
+        long cursor = position - 1;
+        while (cursor < size) {
+            probe.clear();
+            int read = channel.read(probe, cursor);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == NEWLINE) {
+                    return cursor + i + 1;
+                }
+            }
+            cursor += read;
+        }
+        return size;
+    }
+
+    private record Chunk(List<Task> tasks, int expired, int invalid, int nextId) {
+    }
+
+    // RecursiveTask is Serializable, but a chunk is only ever handed to the fork/join pool.
+    @SuppressWarnings("serial")
+    private static final class ChunkParser extends RecursiveTask<Chunk> {
+        private final MappedByteBuffer buffer;
+
+        ChunkParser(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        protected Chunk compute() {
+            List<Task> tasks = new ArrayList<>();
+            int expired = 0;
+            int invalid = 0;
+            int nextId = 1;
+            LocalDateTime now = LocalDateTime.now();
+            int limit = buffer.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != NEWLINE) {
+                    lineEnd++;
+                }
+                int end = lineEnd;
+                if (end > lineStart && buffer.get(end - 1) == '\r') {
+                    end--;
+                }
+                if (end > lineStart) {
+                    try {
+                        if (buffer.get(lineStart) == '#') {
+                            nextId = Math.max(nextId, parseInt(buffer, lineStart + 1, end));
+                        } else {
+                            Task task = parseRecord(buffer, lineStart, end);
+                            nextId = Math.max(nextId, task.getId() + 1);
+                            // A recurring task is rolled forward once loaded rather than dropped.
+                            if (task.getDueDate().isBefore(now) && !(task instanceof RecurringTask)) {
+                                expired++;
+                            } else {
+                                tasks.add(task);
+                            }
+                        }
+                    } catch (InvalidTaskException | RuntimeException e) {
+                        invalid++;
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+            return new Chunk(tasks, expired, invalid, nextId);
+        }
+    }
+
+    // Parses one "id|description|dueDate|priority|type" record held in buffer[start, end).
+    static Task parseRecord(ByteBuffer buffer, int start, int end) throws InvalidTaskException {
+        int first = indexOf(buffer, start, end);
+        int last = lastIndexOf(buffer, start, end);
+        int beforeLast = lastIndexOf(buffer, start, last);
+        int dateSeparator = lastIndexOf(buffer, start, beforeLast);
+        if (first < 0 || dateSeparator <= first) {
+            throw new IllegalArgumentException("Expected 5 fields");
+        }
+
+        int id = parseInt(buffer, start, first);
+        byte[] descriptionBytes = new byte[dateSeparator - first - 1];
+        buffer.get(first + 1, descriptionBytes);
+        String description = new String(descriptionBytes, StandardCharsets.UTF_8);
+        LocalDateTime dueDate = parseDateTime(buffer, dateSeparator + 1, beforeLast);
+        int priority = parseInt(buffer, beforeLast + 1, last);
+
+        if (matches(buffer, last + 1, end, WORK_TASK)) {
+            return new WorkTask(id, description, dueDate, priority);
+        } else if (matches(buffer, last + 1, end, PERSONAL_TASK)) {
+            return new PersonalTask(id, description, dueDate, priority);
+        } else if (startsWith(buffer, last + 1, end, RECURRING_TASK)) {
+            byte[] rule = new byte[end - last - 1 - RECURRING_TASK.length];
+            buffer.get(last + 1 + RECURRING_TASK.length, rule);
+            try {
+                return new RecurringTask(id, description, dueDate, priority, Recurrence.parse(new String(rule, StandardCharsets.US_ASCII)));
+            } catch (RuntimeException e) {
+                throw new InvalidTaskException("Invalid recurrence: " + e.getMessage());
+            }
+        }
+        throw new InvalidTaskException("Unknown task type.");
+    }
+
+    // ISO_LOCAL_DATE_TIME as written by Task.toFileString: yyyy-MM-ddTHH:mm[:ss[.fraction]].
+    static LocalDateTime parseDateTime(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (length < 16 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-'
+                || buffer.get(start + 10) != 'T' || buffer.get(start + 13) != ':') {
+            byte[] text = new byte[Math.max(length, 0)];
+            buffer.get(start, text);
+            return LocalDateTime.parse(new String(text, StandardCharsets.US_ASCII));
+        }
+        int year = parseInt(buffer, start, start + 4);
+        int month = parseInt(buffer, start + 5, start + 7);
+        int day = parseInt(buffer, start + 8, start + 10);
+        int hour = parseInt(buffer, start + 11, start + 13);
+        int minute = parseInt(buffer, start + 14, start + 16);
+        int second = 0;
+        int nano = 0;
+        if (length > 16) {
+            if (length < 19 || buffer.get(start + 16) != ':') {
+                throw new IllegalArgumentException("Bad seconds field");
+            }
+            second = parseInt(buffer, start + 17, start + 19);
+            if (length > 19) {
+                if (buffer.get(start + 19) != '.' || length > 29) {
+                    throw new IllegalArgumentException("Bad fraction field");
+                }
+                int digits = end - (start + 20);
+                nano = parseInt(buffer, start + 20, end);
+                for (int i = digits; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    static int parseInt(ByteBuffer buffer, int start, int end) {
+        if (start >= end) throw new NumberFormatException("Empty number");
+        boolean negative = buffer.get(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i >= end || end - i > 10) throw new NumberFormatException("Bad number length");
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) throw new NumberFormatException("Not a digit");
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) throw new NumberFormatException("Out of range");
+        return (int) value;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == SEPARATOR) return i;
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(ByteBuffer buffer, int start, int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (buffer.get(i) == SEPARATOR) return i;
+        }
+        return -1;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int start, int end, byte[] expected) {
+        return end - start == expected.length && startsWith(buffer, start, end, expected);
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int start, int end, byte[] expected) {
+        if (end - start < expected.length) return false;
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(start + i) != expected[i]) return false;
+        }
+        return true;
+    }
+}
@@ -7,8 +7,12 @@ public class PersonalTask extends Task {
         super(description, dueDate, priority);
     }
 
+    PersonalTask(int id, String description, LocalDateTime dueDate, int priority) throws InvalidTaskException {
+        super(id, description, dueDate, priority);
+    }
+
     @Override
-    public void sendReminder() {
-        System.out.println("🔔 Personal Task Reminder: \"" + getDescription() + "\" is due at " + getDueDate());
+    protected String reminderMessage() {
+        return "🔔 Personal Task Reminder: \"" + getDescription() + "\" is due at " + getDueDate();
     }
 }
\ No newline at end of file
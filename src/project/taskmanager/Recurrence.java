@@ -0,0 +1,113 @@
+package project.taskmanager;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Rule for when a {@link RecurringTask} comes due: every interval units, counted from start.
+ *
+ * Occurrence k is {@code start + k * interval units}, always counted from start rather than
+ * from the previous occurrence, so a monthly rule starting on the 31st falls on the last day
+ * of shorter months without drifting to the 28th for good. Occurrences are computed, never
+ * stored: {@link #between} walks only the ones inside the window asked for.
+ */
+public record Recurrence(Unit unit, int interval, LocalDateTime start) {
+    public enum Unit {
+        MINUTES(ChronoUnit.MINUTES), DAYS(ChronoUnit.DAYS), WEEKS(ChronoUnit.WEEKS), MONTHS(ChronoUnit.MONTHS);
+
+        private final ChronoUnit chronoUnit;
+
+        Unit(ChronoUnit chronoUnit) {
+            this.chronoUnit = chronoUnit;
+        }
+    }
+
+    public Recurrence {
+        if (unit == null || start == null) {
+            throw new IllegalArgumentException("Unit and start are required.");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive.");
+        }
+        // Stored due dates have no fraction of a second.
+        start = start.truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    public static Recurrence daily(LocalDateTime start) {
+        return new Recurrence(Unit.DAYS, 1, start);
+    }
+
+    public static Recurrence weekly(LocalDateTime start) {
+        return new Recurrence(Unit.WEEKS, 1, start);
+    }
+
+    public static Recurrence monthly(LocalDateTime start) {
+        return new Recurrence(Unit.MONTHS, 1, start);
+    }
+
+    public static Recurrence everyMinutes(int minutes, LocalDateTime start) {
+        return new Recurrence(Unit.MINUTES, minutes, start);
+    }
+
+    // The same rule counted from a new start, as when a task's due date is edited.
+    public Recurrence startingAt(LocalDateTime newStart) {
+        return new Recurrence(unit, interval, newStart);
+    }
+
+    public LocalDateTime occurrence(long k) {
+        return start.plus(k * interval, unit.chronoUnit);
+    }
+
+    // The first occurrence at or after time; the start itself when time is earlier.
+    public LocalDateTime firstAtOrAfter(LocalDateTime time) {
+        return occurrence(indexAtOrAfter(time));
+    }
+
+    /**
+     * Occurrences in [from, to), in order, computed as the stream is consumed. A null from
+     * starts at the first occurrence; a null to leaves the stream unbounded, so callers must
+     * limit it themselves.
+     */
+    public Stream<LocalDateTime> between(LocalDateTime from, LocalDateTime to) {
+        long first = from == null ? 0 : indexAtOrAfter(from);
+        Stream<LocalDateTime> occurrences = LongStream.iterate(first, k -> k + 1).mapToObj(this::occurrence);
+        return to == null ? occurrences : occurrences.takeWhile(time -> time.isBefore(to));
+    }
+
+    // "MONTHS/1/2025-01-31T09:00:00", the form the task files store.
+    public String format() {
+        return unit + "/" + interval + "/" + start.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    public static Recurrence parse(String text) {
+        String[] parts = text.split("/", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed recurrence: " + text);
+        }
+        return new Recurrence(Unit.valueOf(parts[0]), Integer.parseInt(parts[1]),
+                LocalDateTime.parse(parts[2], DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+    }
+
+    @Override
+    public String toString() {
+        String name = unit.name().toLowerCase(Locale.ROOT);
+        return interval == 1 ? "every " + name.substring(0, name.length() - 1) : "every " + interval + " " + name;
+    }
+
+    // Smallest k whose occurrence is at or after time, estimated from the elapsed units and then corrected.
+    private long indexAtOrAfter(LocalDateTime time) {
+        if (!time.isAfter(start)) return 0;
+        long k = Math.max(0, unit.chronoUnit.between(start, time) / interval);
+        while (k > 0 && !occurrence(k - 1).isBefore(time)) {
+            k--;
+        }
+        while (occurrence(k).isBefore(time)) {
+            k++;
+        }
+        return k;
+    }
+}
@@ -0,0 +1,82 @@
+package project.taskmanager;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * A task that repeats on a {@link Recurrence} rule, stored once however many times it comes due.
+ *
+ * The stored due date is the next pending occurrence. When it passes, the manager rolls the
+ * task forward to the following occurrence instead of deleting it, so the due-date index,
+ * reminders and listings all see one entry per series. Later occurrences only exist while a
+ * caller looks at them: {@link #occurrencesBetween} builds copies for the window asked for.
+ */
+public class RecurringTask extends Task {
+    // Written in place of the plain class name in text records, followed by the rule.
+    static final String TYPE_PREFIX = "RecurringTask@";
+
+    private final Recurrence recurrence;
+
+    // Starts at the rule's first occurrence that is not yet due.
+    public RecurringTask(String description, Recurrence recurrence, int priority) throws InvalidTaskException {
+        super(description, recurrence.firstAtOrAfter(LocalDateTime.now()), priority);
+        this.recurrence = recurrence;
+    }
+
+    RecurringTask(int id, String description, LocalDateTime dueDate, int priority, Recurrence recurrence) throws InvalidTaskException {
+        super(id, description, dueDate, priority);
+        this.recurrence = recurrence;
+    }
+
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    // A series never runs out; its passed occurrences are rolled forward instead.
+    @Override
+    public boolean isExpired() {
+        return false;
+    }
+
+    // This series with its next occurrence at or after time; this task itself if that is already the stored one.
+    public RecurringTask rolledForward(LocalDateTime time) {
+        if (!getDueDate().isBefore(time)) return this;
+        return at(recurrence.firstAtOrAfter(time));
+    }
+
+    /**
+     * The occurrences due in [from, to), from the stored one onwards, as copies of this task
+     * with the occurrence as due date. Built as the stream is consumed; a null to leaves the
+     * stream unbounded.
+     */
+    public Stream<Task> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from == null || from.isBefore(getDueDate()) ? getDueDate() : from;
+        return recurrence.between(start, to).map(this::at);
+    }
+
+    // Editing the due date restarts the rule from the new date.
+    @Override
+    public Task copyWith(String description, LocalDateTime dueDate, int priority) throws InvalidTaskException {
+        validate(description, dueDate);
+        return new RecurringTask(getId(), description, dueDate, priority, recurrence.startingAt(dueDate));
+    }
+
+    @Override
+    public String toFileString() {
+        return super.toFileString() + "@" + recurrence.format();
+    }
+
+    @Override
+    protected String reminderMessage() {
+        return "🔁 Recurring Task Reminder: \"" + getDescription() + "\" (" + recurrence + ") is due at " + getDueDate();
+    }
+
+    private RecurringTask at(LocalDateTime occurrence) {
+        try {
+            return new RecurringTask(getId(), getDescription(), occurrence, getPriority(), recurrence);
+        } catch (InvalidTaskException e) {
+            // The description was already accepted for this task.
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package project.taskmanager;
 
+// Something that can remind the user of itself. Task hands its reminders to the ReminderSinks
+// of ReminderDispatcher.shared(), so remind() returns without waiting for delivery.
 public interface Remindable {
     void remind();
 }
\ No newline at end of file
@@ -0,0 +1,204 @@
+package project.taskmanager;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands reminders to every registered {@link ReminderSink} without making the caller wait.
+ *
+ * {@link #dispatch} only offers the reminder to each sink's bounded queue, so whatever fires
+ * reminders never blocks on a sink. Each sink has a pump that starts one delivery thread per
+ * queued reminder, up to the sink's concurrency limit, so a burst of reminders due in the same
+ * minute goes out in parallel while a slow or stuck sink only holds up its own queue. Threads
+ * are virtual where the runtime supports them. A delivery that outlives its timeout is
+ * interrupted, and once a sink's queue is full further reminders for it are dropped and counted
+ * rather than queued without limit.
+ */
+public class ReminderDispatcher implements Closeable {
+    private static final ReminderDispatcher SHARED = new ReminderDispatcher(List.of(ReminderSink.console()));
+
+    private final List<Channel> channels = new CopyOnWriteArrayList<>();
+    private final ExecutorService threads = VirtualThreads.newThreadPerTaskExecutor("reminder-delivery-");
+    private final ScheduledThreadPoolExecutor deadlines = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "reminder-deadlines");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public ReminderDispatcher() {
+        deadlines.setRemoveOnCancelPolicy(true);
+    }
+
+    public ReminderDispatcher(List<ReminderSink> sinks) {
+        this();
+        for (ReminderSink sink : sinks) {
+            addSink(sink);
+        }
+    }
+
+    // The dispatcher behind Task.sendReminder(); it starts out printing to the console.
+    public static ReminderDispatcher shared() {
+        return SHARED;
+    }
+
+    public void addSink(ReminderSink sink) {
+        addSink(sink, ReminderSink.Limits.DEFAULT);
+    }
+
+    public void addSink(ReminderSink sink, ReminderSink.Limits limits) {
+        Channel channel = new Channel(sink, limits);
+        channel.pump = threads.submit(() -> pump(channel));
+        channels.add(channel);
+    }
+
+    // Stops delivering to sink; reminders still queued for it are discarded.
+    public boolean removeSink(ReminderSink sink) {
+        for (Channel channel : channels) {
+            if (channel.sink == sink && channels.remove(channel)) {
+                channel.pump.cancel(true);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void dispatch(Task task, String message) {
+        Reminder reminder = new Reminder(task, message);
+        for (Channel channel : channels) {
+            if (!channel.queue.offer(reminder)) {
+                dropped.increment();
+            }
+        }
+    }
+
+    public long delivered() {
+        return delivered.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public long timedOut() {
+        return timedOut.sum();
+    }
+
+    public long failed() {
+        return failed.sum();
+    }
+
+    // Reminders waiting in sink queues, not counting deliveries already running.
+    public int pending() {
+        int pending = 0;
+        for (Channel channel : channels) {
+            pending += channel.queue.size();
+        }
+        return pending;
+    }
+
+    @Override
+    public void close() {
+        for (Channel channel : channels) {
+            channel.pump.cancel(true);
+        }
+        channels.clear();
+        threads.shutdown();
+        deadlines.shutdownNow();
+    }
+
+    private void pump(Channel channel) {
+        try {
+            while (true) {
+                Reminder reminder = channel.queue.take();
+                channel.permits.acquire();
+                try {
+                    threads.execute(() -> deliver(channel, reminder));
+                } catch (RejectedExecutionException e) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // The sink was removed or the dispatcher closed.
+        }
+    }
+
+    private void deliver(Channel channel, Reminder reminder) {
+        Deadline deadline = new Deadline(Thread.currentThread());
+        ScheduledFuture<?> timer = deadlines.schedule(deadline, channel.limits.timeoutMillis(), TimeUnit.MILLISECONDS);
+        try {
+            channel.sink.deliver(reminder.task(), reminder.message());
+            delivered.increment();
+        } catch (Exception e) {
+            if (deadline.finish()) {
+                timedOut.increment();
+            } else {
+                failed.increment();
+                System.out.println("Error delivering reminder: " + e.getMessage());
+            }
+        } finally {
+            deadline.finish();
+            timer.cancel(false);
+            // Clears an interrupt from a deadline that fired just as the sink returned; after
+            // finish() no other can arrive, so none reaches the next task on a pooled thread.
+            Thread.interrupted();
+            channel.permits.release();
+        }
+    }
+
+    private record Reminder(Task task, String message) {
+    }
+
+    // Interrupts one delivery that runs too long, but never once it has finished.
+    private static final class Deadline implements Runnable {
+        private final Thread worker;
+        private boolean finished;
+        private boolean expired;
+
+        Deadline(Thread worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (finished) return;
+            expired = true;
+            worker.interrupt();
+        }
+
+        // Ends the delivery, after which run() does nothing; true if the deadline had already fired.
+        synchronized boolean finish() {
+            finished = true;
+            return expired;
+        }
+    }
+
+    private static final class Channel {
+        final ReminderSink sink;
+        final ReminderSink.Limits limits;
+        final BlockingQueue<Reminder> queue;
+        final Semaphore permits;
+        Future<?> pump;
+
+        Channel(ReminderSink sink, ReminderSink.Limits limits) {
+            this.sink = sink;
+            this.limits = limits;
+            this.queue = new ArrayBlockingQueue<>(limits.queueCapacity());
+            this.permits = new Semaphore(limits.maxConcurrent());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package project.taskmanager;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-modal panel that gathers task reminders into a single notification.
+ *
+ * Reminders may be posted from any thread. A task is announced once per due date however
+ * many checks see it, and everything posted between two screen updates is shown in one
+ * refresh, so a storm of due tasks changes one panel instead of stacking modal dialogs.
+ * The FX thread is updated at most maxUpdatesPerSecond times a second, and the panel
+ * lists only the soonest tasks with a count of the rest.
+ */
+public class ReminderPanel extends VBox {
+    private static final int MAX_LISTED = 20;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final long minIntervalNanos;
+    // Due date each task was last announced for, so later checks skip it until it moves.
+    private final Map<Integer, LocalDateTime> announced = new ConcurrentHashMap<>();
+    private final Map<Integer, Task> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean updateScheduled = new AtomicBoolean();
+
+    // Only touched on the FX thread.
+    private final Map<Integer, Task> shown = new HashMap<>();
+    private final Label header = new Label();
+    private final ListView<String> list = new ListView<>();
+    // Far enough back that the first update is shown straight away.
+    private long lastUpdateNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+
+    public ReminderPanel(int maxUpdatesPerSecond) {
+        super(6);
+        this.minIntervalNanos = 1_000_000_000L / maxUpdatesPerSecond;
+
+        Button dismissButton = new Button("Dismiss");
+        dismissButton.setOnAction(e -> dismiss());
+        HBox top = new HBox(10, header, dismissButton);
+        list.setPrefHeight(120);
+        getChildren().addAll(top, list);
+        setStyle("-fx-padding: 8; -fx-background-color: #fff4d6; -fx-border-color: #e0b84c;");
+        setVisible(false);
+        setManaged(false);
+    }
+
+    // Queues the tasks that have not been announced for their current due date yet.
+    public void post(Collection<Task> tasks) {
+        LocalDateTime now = LocalDateTime.now();
+        announced.values().removeIf(due -> due.isBefore(now));
+        boolean added = false;
+        for (Task task : tasks) {
+            if (!task.getDueDate().equals(announced.put(task.getId(), task.getDueDate()))) {
+                pending.put(task.getId(), task);
+                added = true;
+            }
+        }
+        if (added && updateScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::scheduleUpdate);
+        }
+    }
+
+    private void scheduleUpdate() {
+        long wait = lastUpdateNanos + minIntervalNanos - System.nanoTime();
+        if (wait <= 0) {
+            update();
+            return;
+        }
+        PauseTransition delay = new PauseTransition(Duration.millis(wait / 1_000_000.0));
+        delay.setOnFinished(e -> update());
+        delay.play();
+    }
+
+    private void update() {
+        // Cleared first, so a task posted while this drains schedules the next update.
+        updateScheduled.set(false);
+        lastUpdateNanos = System.nanoTime();
+        for (Iterator<Task> it = pending.values().iterator(); it.hasNext(); ) {
+            Task task = it.next();
+            it.remove();
+            shown.put(task.getId(), task);
+        }
+        if (shown.isEmpty()) return;
+
+        List<Task> soonest = new ArrayList<>(shown.values());
+        soonest.sort(Comparator.comparing(Task::getDueDate));
+        List<String> lines = new ArrayList<>(MAX_LISTED + 1);
+        for (Task task : soonest.subList(0, Math.min(MAX_LISTED, soonest.size()))) {
+            lines.add(task.getDueDate().format(TIME) + "  " + task.getDescription());
+        }
+        if (soonest.size() > MAX_LISTED) {
+            lines.add("… and " + (soonest.size() - MAX_LISTED) + " more");
+        }
+        header.setText("⏰ " + soonest.size() + (soonest.size() == 1 ? " task is" : " tasks are") + " due soon");
+        list.getItems().setAll(lines);
+        setVisible(true);
+        setManaged(true);
+    }
+
+    private void dismiss() {
+        shown.clear();
+        list.getItems().clear();
+        setVisible(false);
+        setManaged(false);
+    }
+}
@@ -0,0 +1,217 @@
+package project.taskmanager;
+
+import java.io.Closeable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Hierarchical timing wheel that drives every task reminder from a single ticker thread.
+ *
+ * Level 0 has {@value #WHEEL_SIZE} slots of one tick each, and every level above it covers
+ * {@value #WHEEL_SIZE} times the span of the level below, so five levels of one-second ticks
+ * reach about 34 years. A reminder is linked into the slot of the lowest level that can hold
+ * it and moves down a level each time the wheel below wraps, until it fires from level 0.
+ * Scheduling and cancelling only link or unlink a node, so both are O(1), and the number of
+ * threads stays the same however many reminders are pending. Due reminders run on a small
+ * fixed pool so a slow reminder never holds up the ticker. Actions receive the key they were
+ * scheduled under, so one shared action can serve every reminder without capturing its data.
+ */
+public class ReminderScheduler implements Closeable {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 5;
+    private static final long MAX_SPAN = 1L << (WHEEL_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private final long startMillis;
+    private final Node[][] wheels = new Node[LEVELS][WHEEL_SIZE];
+    private final IntObjectMap<Node> byKey = new IntObjectMap<>();
+    private final ExecutorService workers;
+    private final Thread ticker;
+    private long currentTick;
+    private volatile boolean running = true;
+
+    public ReminderScheduler() {
+        this(1000, 2);
+    }
+
+    public ReminderScheduler(long tickMillis, int workerThreads) {
+        this(tickMillis, System::currentTimeMillis, workerPool(workerThreads));
+        this.ticker.start();
+    }
+
+    // Reads time from clock and only moves when runDue() is called, running actions on the caller's thread; for tests.
+    ReminderScheduler(long tickMillis, LongSupplier clock) {
+        this(tickMillis, clock, null);
+    }
+
+    private ReminderScheduler(long tickMillis, LongSupplier clock, ExecutorService workers) {
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.startMillis = clock.getAsLong();
+        this.workers = workers;
+        this.ticker = new Thread(this::runTicker, "reminder-ticker");
+        this.ticker.setDaemon(true);
+    }
+
+    private static ExecutorService workerPool(int workerThreads) {
+        AtomicInteger workerCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread thread = new Thread(r, "reminder-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Schedules action for the given key, replacing whatever was pending for it.
+    public synchronized void schedule(int key, long deadlineMillis, IntConsumer action) {
+        Node previous = byKey.remove(key);
+        if (previous != null) {
+            unlink(previous);
+        }
+        long deadlineTick = Math.max(currentTick + 1, Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis));
+        Node node = new Node(key, deadlineTick, action);
+        byKey.put(key, node);
+        place(node);
+    }
+
+    public synchronized boolean cancel(int key) {
+        Node node = byKey.remove(key);
+        if (node == null) return false;
+        unlink(node);
+        return true;
+    }
+
+    public synchronized int pending() {
+        return byKey.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        ticker.interrupt();
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+
+    // Advances the wheel to the clock's current tick and hands out every reminder that fell due; returns that tick.
+    long runDue() {
+        long nowTick = (clock.getAsLong() - startMillis) / tickMillis;
+        Node due = advanceTo(nowTick);
+        for (Node node = due; node != null; node = node.next) {
+            Node fired = node;
+            if (workers != null) {
+                workers.execute(() -> fired.action.accept(fired.key));
+            } else {
+                fired.action.accept(fired.key);
+            }
+        }
+        return nowTick;
+    }
+
+    private void runTicker() {
+        while (running) {
+            long nowTick = runDue();
+            long sleep = startMillis + (nowTick + 1) * tickMillis - clock.getAsLong();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (!running) return;
+                }
+            }
+        }
+    }
+
+    // Moves the wheel forward one tick at a time and returns the reminders that fell due, as a chain.
+    private synchronized Node advanceTo(long nowTick) {
+        Node due = null;
+        while (currentTick < nowTick) {
+            currentTick++;
+            int top = 0;
+            while (top < LEVELS - 1 && (currentTick & ((1L << (WHEEL_BITS * (top + 1))) - 1)) == 0) {
+                top++;
+            }
+            // Cascade from the highest wrapped level down so every reminder reaches level 0 in time.
+            for (int level = top; level >= 1; level--) {
+                int slot = (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+                Node node = wheels[level][slot];
+                wheels[level][slot] = null;
+                while (node != null) {
+                    Node next = node.next;
+                    node.prev = node.next = null;
+                    place(node);
+                    node = next;
+                }
+            }
+            int slot = (int) (currentTick & WHEEL_MASK);
+            Node node = wheels[0][slot];
+            wheels[0][slot] = null;
+            while (node != null) {
+                Node next = node.next;
+                byKey.remove(node.key);
+                node.level = -1;
+                node.prev = null;
+                node.next = due;
+                due = node;
+                node = next;
+            }
+        }
+        return due;
+    }
+
+    private void place(Node node) {
+        // A reminder cascaded onto the current tick lands in the level 0 slot drained next.
+        long delta = Math.max(node.deadlineTick - currentTick, 0);
+        long target = currentTick + Math.min(delta, MAX_SPAN - 1);
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((target >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        node.level = level;
+        node.slot = slot;
+        node.prev = null;
+        node.next = wheels[level][slot];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        wheels[level][slot] = node;
+    }
+
+    private void unlink(Node node) {
+        if (node.level < 0) return;
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            wheels[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = node.next = null;
+        node.level = -1;
+    }
+
+    private static final class Node {
+        final int key;
+        final long deadlineTick;
+        final IntConsumer action;
+        int level = -1;
+        int slot;
+        Node prev;
+        Node next;
+
+        Node(int key, long deadlineTick, IntConsumer action) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+            this.action = action;
+        }
+    }
+}
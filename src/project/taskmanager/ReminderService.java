@@ -1,13 +1,13 @@
 package project.taskmanager;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 public class ReminderService implements Runnable {
-    private List<Task> tasks;
+    private TaskManager manager;
     private boolean running = true;
 
-    public ReminderService(List<Task> tasks) {
-        this.tasks = tasks;
+    public ReminderService(TaskManager manager) {
+        this.manager = manager;
     }
 
     @Override
@@ -24,10 +24,8 @@ public class ReminderService implements Runnable {
     }
 
     private void checkDeadlines() {
-        for (Task task : tasks) {
-            if (task.getDueDate().isBefore(java.time.LocalDateTime.now().plusMinutes(10))) {
-                task.remind();
-            }
+        for (Task task : manager.getTasksDueBefore(LocalDateTime.now().plusMinutes(10))) {
+            task.sendReminder();
         }
     }
 
@@ -0,0 +1,49 @@
+package project.taskmanager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Destination for task reminders, such as the console, a log file or a desktop notifier.
+ *
+ * Sinks are registered with a {@link ReminderDispatcher}, which calls {@link #deliver} from
+ * its own threads, several at a time, so a sink that shares state must guard it. A delivery
+ * that runs past the sink's timeout is interrupted; blocking calls should let that through.
+ */
+@FunctionalInterface
+public interface ReminderSink {
+    void deliver(Task task, String message) throws Exception;
+
+    // Prints reminders to standard output, the way the task manager always has.
+    static ReminderSink console() {
+        return (task, message) -> System.out.println(message);
+    }
+
+    // Appends one line per reminder to the given file, creating it if needed.
+    static ReminderSink appendingTo(Path file) {
+        return new ReminderSink() {
+            @Override
+            public synchronized void deliver(Task task, String message) throws IOException {
+                Files.writeString(file, message + System.lineSeparator(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        };
+    }
+
+    /**
+     * How much a sink may fall behind: up to queueCapacity reminders wait for it, at most
+     * maxConcurrent are delivered at once, and each delivery gets timeoutMillis to finish.
+     */
+    record Limits(int queueCapacity, int maxConcurrent, long timeoutMillis) {
+        public static final Limits DEFAULT = new Limits(10_000, 64, 5_000);
+
+        public Limits {
+            if (queueCapacity < 1 || maxConcurrent < 1 || timeoutMillis < 1) {
+                throw new IllegalArgumentException("Reminder sink limits must be positive.");
+            }
+        }
+    }
+}
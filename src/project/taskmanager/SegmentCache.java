@@ -0,0 +1,94 @@
+package project.taskmanager;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * CLOCK replacement over the snapshot months a {@link TaskManager} holds in memory, for a
+ * store whose working set is capped at a number of tasks.
+ *
+ * Every loaded month sits on a ring with a reference bit, which lookups, queries and writes
+ * that reach the month set again. To pick a victim the hand walks the ring: a month with its
+ * bit set gets a second chance and has the bit cleared, and the first evictable month found
+ * with a clear bit is the victim. Setting the bit is a map lookup and a volatile write, so
+ * reads pay next to nothing; only adding a month and picking a victim take the lock.
+ */
+final class SegmentCache {
+    private final int capacity;
+    private final ConcurrentHashMap<YearMonth, Entry> entries = new ConcurrentHashMap<>();
+    private final List<YearMonth> ring = new ArrayList<>();
+    private int hand;
+
+    private static final class Entry {
+        volatile boolean referenced = true;
+    }
+
+    // capacity is the number of tasks to keep in memory; 0 keeps everything.
+    SegmentCache(int capacity) {
+        this.capacity = Math.max(0, capacity);
+    }
+
+    // Reads -Dtaskmanager.cacheTasks, defaulting to 0 for an unbounded store.
+    static SegmentCache fromSystemProperty() {
+        return new SegmentCache(Integer.getInteger("taskmanager.cacheTasks", 0));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    boolean isBounded() {
+        return capacity > 0;
+    }
+
+    // Marks month as recently used, putting it on the ring if it is not there yet.
+    void touch(YearMonth month) {
+        Entry entry = entries.get(month);
+        if (entry != null) {
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return;
+        }
+        synchronized (this) {
+            if (entries.putIfAbsent(month, new Entry()) == null) {
+                ring.add(month);
+            }
+        }
+    }
+
+    /**
+     * Advances the hand to the next month that evictable accepts and that has not been used
+     * since the hand last passed it; null if every month is pinned. The month stays on the
+     * ring until {@link #evicted} is called for it.
+     */
+    synchronized YearMonth victim(Predicate<YearMonth> evictable) {
+        // Two rounds: the first may only clear the bits.
+        for (int step = 0; step < 2 * ring.size(); step++) {
+            if (hand >= ring.size()) {
+                hand = 0;
+            }
+            YearMonth month = ring.get(hand);
+            if (evictable.test(month)) {
+                Entry entry = entries.get(month);
+                if (!entry.referenced) return month;
+                entry.referenced = false;
+            }
+            hand++;
+        }
+        return null;
+    }
+
+    synchronized void evicted(YearMonth month) {
+        int position = ring.indexOf(month);
+        if (position < 0) return;
+        ring.remove(position);
+        if (position < hand) {
+            hand--;
+        }
+        entries.remove(month);
+    }
+}
@@ -0,0 +1,310 @@
+package project.taskmanager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The task snapshot split into one file per month of due dates, listed in a manifest.
+ *
+ * Segments live in {@code <snapshot>.segments/}, one file per month such as {@code 2026-10.txt},
+ * each written in the store's {@link StorageFormat}. The manifest next to them lists every month
+ * with how many tasks and recurring tasks its file holds, and carries the id high-water mark.
+ * A load reads the manifest and only the months up to the end of the hot window; later months
+ * stay on disk as cold segments until {@link #read} is asked for them, or are read by
+ * {@link #peek} without being loaded, for a scan over every task. A month that has passed
+ * holds nothing but expired tasks unless it has recurring ones, so its file is deleted unread.
+ *
+ * Compaction rewrites only the months that are loaded, from the state handed in, and leaves the
+ * cold files as they are, so its cost follows the hot window rather than the whole history.
+ * A single loaded month can also be written back on its own with {@link #writeCold}, or just
+ * marked cold again with {@link #release} if it has not changed since it was read.
+ * Files and the manifest are replaced by atomic renames, and a crash part way through is
+ * recovered by replaying the journal, as with a single snapshot file.
+ *
+ * A store that still has a single snapshot file from before segments is read whole; the next
+ * compaction splits it into segments and deletes it.
+ *
+ * When several processes share the store, each of them rewrites the manifest, so every rewrite
+ * first reads it again and keeps the months other processes wrote since; the caller holds the
+ * store lock around it.
+ */
+public class SegmentedSnapshot {
+    private static final String MANIFEST = "manifest";
+
+    private final Path legacyPath;
+    private final Path directory;
+    private final StorageFormat format;
+    private final String extension;
+    private final TreeMap<YearMonth, Segment> segments = new TreeMap<>();
+    // Months listed in the manifest that have not been read yet; safe to check without the lock.
+    private final NavigableSet<YearMonth> cold = new ConcurrentSkipListSet<>();
+    private int nextId = 1;
+    private boolean legacy;
+
+    // How many tasks a month's file holds, and how many of them are recurring.
+    private record Segment(int tasks, int recurring) {
+    }
+
+    public SegmentedSnapshot(Path snapshotPath, StorageFormat format) {
+        this.legacyPath = snapshotPath;
+        this.directory = Paths.get(snapshotPath + ".segments");
+        this.format = format;
+        String file = format.defaultFile();
+        this.extension = file.substring(file.lastIndexOf('.'));
+    }
+
+    /**
+     * Reads the manifest and every month up to and including hotThrough, or every month when
+     * hotThrough is null. Later months are left cold. Months that have passed without holding
+     * a recurring task are deleted and counted as expired.
+     */
+    public synchronized SnapshotContents load(YearMonth hotThrough) throws IOException {
+        segments.clear();
+        cold.clear();
+        Path manifest = directory.resolve(MANIFEST);
+        if (!Files.exists(manifest)) {
+            legacy = Files.exists(legacyPath);
+            return format.read(legacyPath);
+        }
+        nextId = Math.max(nextId, readManifest(manifest, segments));
+
+        YearMonth current = YearMonth.now();
+        List<Task> tasks = new ArrayList<>();
+        int expired = 0;
+        int invalid = 0;
+        int chunks = 0;
+        boolean dropped = false;
+        for (Iterator<Map.Entry<YearMonth, Segment>> it = segments.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<YearMonth, Segment> entry = it.next();
+            YearMonth month = entry.getKey();
+            if (month.isBefore(current) && entry.getValue().recurring() == 0) {
+                Files.deleteIfExists(pathOf(month));
+                expired += entry.getValue().tasks();
+                it.remove();
+                dropped = true;
+            } else if (hotThrough != null && month.isAfter(hotThrough)) {
+                cold.add(month);
+            } else {
+                SnapshotContents contents = format.read(pathOf(month));
+                tasks.addAll(contents.tasks());
+                expired += contents.expired();
+                invalid += contents.invalid();
+                chunks += contents.chunks();
+            }
+        }
+        if (dropped) {
+            writeManifest();
+        }
+        return new SnapshotContents(tasks, expired, invalid, nextId, chunks);
+    }
+
+    // Reads a cold month, which from then on counts as loaded; null if the month is not cold.
+    public synchronized SnapshotContents read(YearMonth month) throws IOException {
+        if (!cold.contains(month)) return null;
+        SnapshotContents contents = format.read(pathOf(month));
+        cold.remove(month);
+        return contents;
+    }
+
+    // Reads a cold month for one caller, leaving it cold; null if the month is not cold.
+    public synchronized SnapshotContents peek(YearMonth month) throws IOException {
+        return cold.contains(month) ? format.read(pathOf(month)) : null;
+    }
+
+    // The months still only on disk, earliest first, as a live read-only view.
+    public NavigableSet<YearMonth> coldMonths() {
+        return Collections.unmodifiableNavigableSet(cold);
+    }
+
+    public synchronized int coldTaskCount() {
+        int count = 0;
+        for (YearMonth month : cold) {
+            count += segments.get(month).tasks();
+        }
+        return count;
+    }
+
+    // Whether the store was read from a single snapshot file that still has to be split up.
+    public synchronized boolean isLegacy() {
+        return legacy;
+    }
+
+    /**
+     * Writes every month that was not cold as of coldMonths from state, which must hold all of
+     * their tasks, then the manifest, then deletes the files of months that were left empty.
+     */
+    public void write(List<Task> state, int highWater, Set<YearMonth> coldMonths) throws IOException {
+        TreeMap<YearMonth, List<Task>> byMonth = new TreeMap<>();
+        for (Task task : state) {
+            byMonth.computeIfAbsent(YearMonth.from(task.getDueDate()), month -> new ArrayList<>()).add(task);
+        }
+        Files.createDirectories(directory);
+        TreeMap<YearMonth, Segment> written = new TreeMap<>();
+        for (Map.Entry<YearMonth, List<Task>> entry : byMonth.entrySet()) {
+            if (coldMonths.contains(entry.getKey())) continue;
+            List<Task> tasks = entry.getValue();
+            int recurring = 0;
+            for (Task task : tasks) {
+                if (task instanceof RecurringTask) {
+                    recurring++;
+                }
+            }
+            Path temp = directory.resolve(entry.getKey() + extension + ".tmp");
+            format.write(temp, tasks, highWater);
+            replace(temp, pathOf(entry.getKey()));
+            written.put(entry.getKey(), new Segment(tasks.size(), recurring));
+        }
+
+        synchronized (this) {
+            mergeManifest();
+            List<YearMonth> emptied = new ArrayList<>();
+            for (YearMonth month : segments.keySet()) {
+                if (!coldMonths.contains(month) && !written.containsKey(month)) {
+                    emptied.add(month);
+                }
+            }
+            segments.keySet().removeAll(emptied);
+            segments.putAll(written);
+            nextId = Math.max(nextId, highWater);
+            writeManifest();
+            for (YearMonth month : emptied) {
+                Files.deleteIfExists(pathOf(month));
+            }
+            if (legacy) {
+                Files.deleteIfExists(legacyPath);
+                legacy = false;
+            }
+        }
+    }
+
+    /**
+     * Writes month from tasks, which must be every task it holds, and marks it cold again, so a
+     * bounded cache can drop those tasks from memory. A month left empty is deleted instead.
+     */
+    public synchronized void writeCold(YearMonth month, List<Task> tasks, int highWater) throws IOException {
+        Files.createDirectories(directory);
+        mergeManifest();
+        if (tasks.isEmpty()) {
+            segments.remove(month);
+        } else {
+            int recurring = 0;
+            for (Task task : tasks) {
+                if (task instanceof RecurringTask) {
+                    recurring++;
+                }
+            }
+            Path temp = directory.resolve(month + extension + ".tmp");
+            format.write(temp, tasks, highWater);
+            replace(temp, pathOf(month));
+            segments.put(month, new Segment(tasks.size(), recurring));
+            cold.add(month);
+        }
+        nextId = Math.max(nextId, highWater);
+        writeManifest();
+        if (tasks.isEmpty()) {
+            Files.deleteIfExists(pathOf(month));
+        }
+    }
+
+    // Marks a month cold again whose file still matches memory; false if it has no file to go back to.
+    public synchronized boolean release(YearMonth month) {
+        if (!segments.containsKey(month) || legacy) return false;
+        cold.add(month);
+        return true;
+    }
+
+    public synchronized boolean hasMonthsBefore(YearMonth month) {
+        return !segments.headMap(month).isEmpty();
+    }
+
+    // Deletes the loaded months before month, once every task in them has expired or moved on.
+    public synchronized void dropBefore(YearMonth month) throws IOException {
+        SortedMap<YearMonth, Segment> passed = segments.headMap(month);
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth candidate : passed.keySet()) {
+            // A cold month was never swept, so its recurring tasks may still need moving on.
+            if (!cold.contains(candidate)) {
+                months.add(candidate);
+            }
+        }
+        if (months.isEmpty()) return;
+        mergeManifest();
+        segments.keySet().removeAll(months);
+        writeManifest();
+        for (YearMonth passedMonth : months) {
+            Files.deleteIfExists(pathOf(passedMonth));
+        }
+    }
+
+    private Path pathOf(YearMonth month) {
+        return directory.resolve(month + extension);
+    }
+
+    // "#<next id>" followed by one "<month> <tasks> <recurring>" line per segment; returns the next id.
+    private static int readManifest(Path manifest, Map<YearMonth, Segment> into) throws IOException {
+        int next = 1;
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            if (line.isEmpty()) continue;
+            if (line.charAt(0) == '#') {
+                next = Integer.parseInt(line.substring(1).trim());
+                continue;
+            }
+            String[] parts = line.trim().split("\\s+");
+            into.put(YearMonth.parse(parts[0]), new Segment(Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+        }
+        return next;
+    }
+
+    /**
+     * Takes in what another process changed in the manifest since it was read. A month that
+     * process added holds tasks whose records this one has applied too, so it counts as loaded;
+     * a loaded month it deleted had nothing left in it.
+     */
+    private void mergeManifest() throws IOException {
+        Path manifest = directory.resolve(MANIFEST);
+        if (!Files.exists(manifest)) return;
+        TreeMap<YearMonth, Segment> onDisk = new TreeMap<>();
+        nextId = Math.max(nextId, readManifest(manifest, onDisk));
+        segments.keySet().removeIf(month -> !onDisk.containsKey(month) && !cold.contains(month));
+        segments.putAll(onDisk);
+    }
+
+    private void writeManifest() throws IOException {
+        Files.createDirectories(directory);
+        Path temp = directory.resolve(MANIFEST + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write("#" + nextId);
+            writer.newLine();
+            for (Map.Entry<YearMonth, Segment> entry : segments.entrySet()) {
+                writer.write(entry.getKey() + " " + entry.getValue().tasks() + " " + entry.getValue().recurring());
+                writer.newLine();
+            }
+        }
+        replace(temp, directory.resolve(MANIFEST));
+    }
+
+    private static void replace(Path temp, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,13 @@
+package project.taskmanager;
+
+import java.util.List;
+
+/**
+ * What a snapshot file held: the live tasks, how many records were skipped as expired and
+ * as malformed, the next free id and how many chunks were parsed in parallel.
+ */
+public record SnapshotContents(List<Task> tasks, int expired, int invalid, int nextId, int chunks) {
+    public int skipped() {
+        return expired + invalid;
+    }
+}
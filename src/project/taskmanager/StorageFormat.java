@@ -0,0 +1,64 @@
+package project.taskmanager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * Snapshot file formats a {@link TaskManager} can be backed by. The journal in front of the
+ * snapshot is the same for both; only compaction output and startup loading differ.
+ */
+public enum StorageFormat {
+    TEXT("tasks.txt") {
+        @Override
+        public SnapshotContents read(Path path) throws IOException {
+            return new ParallelTaskLoader().load(path);
+        }
+
+        @Override
+        public void write(Path path, Collection<Task> tasks, int nextId) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                writer.write("#" + nextId);
+                writer.newLine();
+                for (Task task : tasks) {
+                    writer.write(task.toFileString());
+                    writer.newLine();
+                }
+            }
+        }
+    },
+    BINARY("tasks.bin") {
+        @Override
+        public SnapshotContents read(Path path) throws IOException {
+            return BinaryTaskFormat.read(path);
+        }
+
+        @Override
+        public void write(Path path, Collection<Task> tasks, int nextId) throws IOException {
+            BinaryTaskFormat.write(path, tasks, nextId);
+        }
+    };
+
+    private final String defaultFile;
+
+    StorageFormat(String defaultFile) {
+        this.defaultFile = defaultFile;
+    }
+
+    public String defaultFile() {
+        return defaultFile;
+    }
+
+    public abstract SnapshotContents read(Path path) throws IOException;
+
+    public abstract void write(Path path, Collection<Task> tasks, int nextId) throws IOException;
+
+    // Picks the backend from -Dtaskmanager.storage=text|binary, defaulting to text.
+    public static StorageFormat fromSystemProperty() {
+        String value = System.getProperty("taskmanager.storage", "text");
+        return value.equalsIgnoreCase("binary") ? BINARY : TEXT;
+    }
+}
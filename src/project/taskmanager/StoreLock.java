@@ -0,0 +1,93 @@
+package project.taskmanager;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exclusive lock on a store shared by several processes, held through {@code <snapshot>.lock}.
+ *
+ * The lock belongs to one owner at a time, such as a {@link TaskJournal}. Every thread of the
+ * owner can take it while the owner holds it, so its writer thread can append while another of
+ * its threads holds the lock and waits for that append. Other owners in the same JVM wait for
+ * the owner to let go, and other processes wait on a {@link FileLock} that is taken when the
+ * first of the owner's holds starts and released when the last one ends. There is one
+ * instance per lock file in a JVM, because a JVM cannot hold overlapping file locks twice.
+ */
+final class StoreLock {
+    private static final Map<Path, StoreLock> LOCKS = new HashMap<>();
+
+    private final Path path;
+    private FileChannel channel;
+    private FileLock fileLock;
+    private Object owner;
+    private int holds;
+
+    private StoreLock(Path path) {
+        this.path = path;
+    }
+
+    static StoreLock forStore(Path snapshotPath) {
+        Path path = Path.of(snapshotPath + ".lock").toAbsolutePath().normalize();
+        synchronized (LOCKS) {
+            return LOCKS.computeIfAbsent(path, StoreLock::new);
+        }
+    }
+
+    /**
+     * Waits until no other owner holds the lock, in this JVM or any other process, and takes it
+     * for owner. If the lock file cannot be locked, including when other code in this JVM holds
+     * it, the failure is reported and the hold only keeps out owners in this JVM.
+     */
+    synchronized void lock(Object owner) {
+        boolean interrupted = false;
+        while (holds > 0 && this.owner != owner) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        try {
+            if (holds == 0) {
+                // An interrupt while waiting for the file lock closes the channel, so it may need reopening.
+                if (channel == null || !channel.isOpen()) {
+                    channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                }
+                fileLock = channel.lock();
+            }
+        } catch (IOException e) {
+            System.out.println("Error locking tasks: " + e.getMessage());
+        } catch (OverlappingFileLockException e) {
+            // Something else in this JVM locked the file outside StoreLock; it carries no message.
+            System.out.println("Error locking tasks: " + path + " is already locked in this process");
+        } finally {
+            if (holds++ == 0) {
+                this.owner = owner;
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    synchronized void unlock() {
+        if (holds == 0) return;
+        if (--holds > 0) return;
+        owner = null;
+        try {
+            if (fileLock != null) {
+                fileLock.release();
+            }
+        } catch (IOException e) {
+            System.out.println("Error unlocking tasks: " + e.getMessage());
+        }
+        fileLock = null;
+        notifyAll();
+    }
+}
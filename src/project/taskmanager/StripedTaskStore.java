@@ -0,0 +1,242 @@
+package project.taskmanager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe id → task store split into independently locked stripes.
+ *
+ * A task lives in the stripe picked by its id, so writers touching different stripes
+ * never contend. Each stripe keeps its tasks in {@link TaskColumns}, so the store holds
+ * primitive arrays rather than Task objects, and every Task a caller sees is built on
+ * demand. {@link #snapshot()} copies the stripes' columns under optimistic reads, so
+ * readers get one consistent view of the whole store without blocking writers. Only
+ * when writers keep invalidating the optimistic read does it fall back to briefly
+ * holding every stripe's read lock.
+ */
+public class StripedTaskStore {
+    private static final int OPTIMISTIC_ATTEMPTS = 3;
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final int shift;
+
+    public StripedTaskStore() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public StripedTaskStore(int concurrency) {
+        int count = 1;
+        while (count < concurrency) {
+            count <<= 1;
+        }
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.mask = count - 1;
+        this.shift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    public Task get(int id) {
+        Stripe stripe = stripeFor(id);
+        long stamp = stripe.lock.readLock();
+        try {
+            return stripe.columns.get(id);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Stores task, replacing any task with the same id. {@code onChange} receives the
+     * previous task (or null) and the new one while the stripe is still locked, so side
+     * effects for one id are applied in the same order as the writes themselves.
+     */
+    public Task put(Task task, BiConsumer<Task, Task> onChange) {
+        Stripe stripe = stripeFor(task.getId());
+        long stamp = stripe.lock.writeLock();
+        try {
+            Task previous = stripe.columns.put(task);
+            onChange.accept(previous, task);
+            return previous;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    // Stores task only if condition accepts its id, tested under the stripe lock; false if it did not.
+    public boolean putIf(IntPredicate condition, Task task, BiConsumer<Task, Task> onChange) {
+        Stripe stripe = stripeFor(task.getId());
+        long stamp = stripe.lock.writeLock();
+        try {
+            if (!condition.test(task.getId())) return false;
+            Task previous = stripe.columns.put(task);
+            onChange.accept(previous, task);
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    // Swaps expected for replacement only if the stored task still has exactly expected's fields.
+    public boolean replace(Task expected, Task replacement, BiConsumer<Task, Task> onChange) {
+        Stripe stripe = stripeFor(expected.getId());
+        long stamp = stripe.lock.writeLock();
+        try {
+            if (!stripe.columns.matches(expected)) return false;
+            stripe.columns.put(replacement);
+            onChange.accept(expected, replacement);
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    public Task remove(int id, Consumer<Task> onRemove) {
+        return remove(id, null, onRemove);
+    }
+
+    // Removes the task only if its stored fields pass condition (always when condition is null).
+    public Task remove(int id, TaskRowFilter condition, Consumer<Task> onRemove) {
+        Stripe stripe = stripeFor(id);
+        long stamp = stripe.lock.writeLock();
+        try {
+            if (condition != null && !stripe.columns.test(id, condition)) return null;
+            Task removed = stripe.columns.remove(id);
+            if (removed != null) {
+                onRemove.accept(removed);
+            }
+            return removed;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the tasks ids supplies as one step, with every stripe write-locked so no other
+     * write lands in between. ids is asked once the locks are held, so an index it reads is
+     * settled. beforeRemoving sees the tasks first and can keep them by returning false, e.g.
+     * when they could not be saved elsewhere. Returns the tasks removed, or null if kept.
+     */
+    public List<Task> removeAll(Supplier<int[]> ids, Predicate<List<Task>> beforeRemoving, Consumer<Task> onRemove) {
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].lock.writeLock();
+        }
+        try {
+            List<Task> found = new ArrayList<>();
+            for (int id : ids.get()) {
+                Task task = stripeFor(id).columns.get(id);
+                if (task != null) {
+                    found.add(task);
+                }
+            }
+            if (!beforeRemoving.test(found)) return null;
+            for (Task task : found) {
+                stripeFor(task.getId()).columns.remove(task.getId());
+                onRemove.accept(task);
+            }
+            return found;
+        } finally {
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i].lock.unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                size += stripe.columns.size();
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // An unmodifiable copy of every task, consistent across all stripes, in no particular order.
+    public ColumnarTaskList snapshot() {
+        long[] stamps = new long[stripes.length];
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            List<TaskColumns.Slice> parts = new ArrayList<>(stripes.length);
+            boolean valid = true;
+            for (int i = 0; i < stripes.length && valid; i++) {
+                stamps[i] = stripes[i].lock.tryOptimisticRead();
+                valid = stamps[i] != 0;
+                if (valid) {
+                    parts.add(stripes[i].columns.slice());
+                }
+            }
+            for (int i = 0; i < stripes.length && valid; i++) {
+                valid = stripes[i].lock.validate(stamps[i]);
+            }
+            if (valid) {
+                return ColumnarTaskList.concat(parts);
+            }
+        }
+
+        List<TaskColumns.Slice> parts = new ArrayList<>(stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].lock.readLock();
+        }
+        try {
+            for (Stripe stripe : stripes) {
+                parts.add(stripe.columns.slice());
+            }
+        } finally {
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i].lock.unlockRead(stamps[i]);
+            }
+        }
+        return ColumnarTaskList.concat(parts);
+    }
+
+    /**
+     * Runs action with every stripe read-locked, so no write can land until it returns.
+     * Used where a consistent snapshot has to line up exactly with other state, such as
+     * the journal position at compaction time.
+     */
+    public void withWritesPaused(Consumer<ColumnarTaskList> action) {
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].lock.readLock();
+        }
+        try {
+            List<TaskColumns.Slice> parts = new ArrayList<>(stripes.length);
+            for (Stripe stripe : stripes) {
+                parts.add(stripe.columns.slice());
+            }
+            action.accept(ColumnarTaskList.concat(parts));
+        } finally {
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i].lock.unlockRead(stamps[i]);
+            }
+        }
+    }
+
+    // Uses the top bits of a different multiplier than IntIntMap, so the ids sharing a
+    // stripe still spread over every slot of that stripe's table.
+    private Stripe stripeFor(int id) {
+        int hash = id * 0x85EBCA6B;
+        return stripes[(hash >>> shift) & mask];
+    }
+
+    private static final class Stripe {
+        final StampedLock lock = new StampedLock();
+        final TaskColumns columns = new TaskColumns();
+    }
+}
@@ -3,27 +3,40 @@ package project.taskmanager;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
-public abstract class Task {
-    private static int idCounter = 1;  
+public abstract class Task implements Remindable {
     private int id;
     private String description;
     private LocalDateTime dueDate;
     private int priority;
 
     public Task(String description, LocalDateTime dueDate, int priority) throws InvalidTaskException {
+        validate(description, dueDate);
+        this.id = TaskIdAllocator.shared().next();
+        this.description = description;
+        this.dueDate = dueDate;
+        this.priority = priority;
+    }
+
+    // Restores a task under an id that was allocated earlier; callers check the due date themselves.
+    Task(int id, String description, LocalDateTime dueDate, int priority) throws InvalidTaskException {
         if (description == null || description.trim().isEmpty()) {
             throw new InvalidTaskException("Description cannot be empty.");
         }
-        if (dueDate.isBefore(LocalDateTime.now())) {    
-            throw new InvalidTaskException("Due date must be in the future.");
-        }
-
-        this.id = idCounter++;  
+        this.id = id;
         this.description = description;
         this.dueDate = dueDate;
         this.priority = priority;
     }
 
+    static void validate(String description, LocalDateTime dueDate) throws InvalidTaskException {
+        if (description == null || description.trim().isEmpty()) {
+            throw new InvalidTaskException("Description cannot be empty.");
+        }
+        if (dueDate.isBefore(LocalDateTime.now())) {    
+            throw new InvalidTaskException("Due date must be in the future.");
+        }
+    }
+
     public int getId() {
         return id;
     }
@@ -44,8 +57,15 @@ public abstract class Task {
         return LocalDateTime.now().isAfter(dueDate);
     }
 
-    public abstract void sendReminder();
+    // The line a reminder for this task shows.
+    protected abstract String reminderMessage();
+
+    // Queues the reminder for every sink of the shared dispatcher and returns without waiting for them.
+    public void sendReminder() {
+        ReminderDispatcher.shared().dispatch(this, reminderMessage());
+    }
 
+    @Override
     public void remind() {
         if (LocalDateTime.now().isAfter(dueDate.minusMinutes(10))) { // 🔔 10-minute reminder
             sendReminder();
@@ -57,28 +77,71 @@ public abstract class Task {
     }
 
     public static Task fromFileString(String line) throws InvalidTaskException {
-        String[] parts = line.split("\\|");
-        int savedId = Integer.parseInt(parts[0]);  
-        String description = parts[1];
-        LocalDateTime dueDate = LocalDateTime.parse(parts[2], DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        int priority = Integer.parseInt(parts[3]);
-        String type = parts[4];
-
-        Task task;
-        if (type.equals("WorkTask")) {
-            task = new WorkTask(description, dueDate, priority);
-        } else if (type.equals("PersonalTask")) {
-            task = new PersonalTask(description, dueDate, priority);
-        } else {
-            throw new InvalidTaskException("Unknown task type.");
+        Task task = parse(line);
+        if (task.getDueDate().isBefore(LocalDateTime.now())) {
+            throw new InvalidTaskException("Due date must be in the future.");
         }
+        return task;
+    }
 
-        task.id = savedId;
-        if (savedId >= idCounter) {
-            idCounter = savedId + 1;
+    // Reads a record without rejecting past due dates, so callers can tell expired records from bad ones.
+    // Fields are found as ParallelTaskLoader.parseRecord finds them: the id up to the first '|' and the
+    // rest from the right, so a description may itself contain '|'.
+    static Task parse(String line) throws InvalidTaskException {
+        int first = line.indexOf('|');
+        int last = line.lastIndexOf('|');
+        int beforeLast = line.lastIndexOf('|', last - 1);
+        int dateSeparator = beforeLast < 0 ? -1 : line.lastIndexOf('|', beforeLast - 1);
+        if (first < 0 || dateSeparator <= first) {
+            throw new IllegalArgumentException("Expected 5 fields");
         }
+        int savedId = Integer.parseInt(line.substring(0, first));
+        String description = line.substring(first + 1, dateSeparator);
+        LocalDateTime dueDate = LocalDateTime.parse(line.substring(dateSeparator + 1, beforeLast), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        int priority = Integer.parseInt(line.substring(beforeLast + 1, last));
+        String type = line.substring(last + 1);
+        return create(type, savedId, description, dueDate, priority);
+    }
 
-        return task;
+    // Builds a task of the same type and id with new details, for in-place updates.
+    public Task copyWith(String description, LocalDateTime dueDate, int priority) throws InvalidTaskException {
+        validate(description, dueDate);
+        return create(getClass().getSimpleName(), id, description, dueDate, priority);
+    }
+
+    // Rebuilds a task from its stored fields, with the type given as a BinaryTaskFormat type code.
+    static Task restore(byte type, int id, String description, LocalDateTime dueDate, int priority) throws InvalidTaskException {
+        return restore(type, id, description, dueDate, priority, null);
+    }
+
+    // As above; recurrence is the rule of a recurring task and ignored for every other type.
+    static Task restore(byte type, int id, String description, LocalDateTime dueDate, int priority,
+                        Recurrence recurrence) throws InvalidTaskException {
+        return switch (type) {
+            case BinaryTaskFormat.TYPE_WORK -> new WorkTask(id, description, dueDate, priority);
+            case BinaryTaskFormat.TYPE_PERSONAL -> new PersonalTask(id, description, dueDate, priority);
+            case BinaryTaskFormat.TYPE_RECURRING -> {
+                if (recurrence == null) throw new InvalidTaskException("Recurring task without a rule.");
+                yield new RecurringTask(id, description, dueDate, priority, recurrence);
+            }
+            default -> throw new InvalidTaskException("Unknown task type.");
+        };
+    }
+
+    private static Task create(String type, int id, String description, LocalDateTime dueDate, int priority) throws InvalidTaskException {
+        if (type.equals("WorkTask")) {
+            return new WorkTask(id, description, dueDate, priority);
+        } else if (type.equals("PersonalTask")) {
+            return new PersonalTask(id, description, dueDate, priority);
+        } else if (type.startsWith(RecurringTask.TYPE_PREFIX)) {
+            try {
+                Recurrence recurrence = Recurrence.parse(type.substring(RecurringTask.TYPE_PREFIX.length()));
+                return new RecurringTask(id, description, dueDate, priority, recurrence);
+            } catch (RuntimeException e) {
+                throw new InvalidTaskException("Invalid recurrence: " + e.getMessage());
+            }
+        }
+        throw new InvalidTaskException("Unknown task type.");
     }
 
     @Override
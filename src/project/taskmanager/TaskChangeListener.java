@@ -0,0 +1,19 @@
+package project.taskmanager;
+
+/**
+ * Receives every change made to a {@link TaskManager}'s tasks, in the order each task changed.
+ *
+ * Called on the thread that made the change while the task's stripe lock is held, so
+ * implementations must return quickly and must not call back into the manager; anything
+ * more than recording the event belongs on another thread.
+ */
+public interface TaskChangeListener {
+    // previous is null when the task is new.
+    void taskStored(Task previous, Task current);
+
+    void taskRemoved(Task task);
+
+    // A bounded cache moved the task out to its month's file; it still exists, so this is not a removal.
+    default void taskEvicted(Task task) {
+    }
+}
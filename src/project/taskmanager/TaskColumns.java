@@ -0,0 +1,219 @@
+package project.taskmanager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * One stripe's tasks stored column by column instead of as Task objects.
+ *
+ * Ids, due dates, priorities and types live in parallel primitive arrays, and descriptions are
+ * UTF-8 bytes in a shared arena addressed by offset and length, so a stored task costs about
+ * 22 bytes plus its description instead of a Task, a String and a LocalDateTime. A
+ * {@link IntIntMap} maps ids to rows, and deleting a row moves the last row into the hole.
+ * Tasks are only built when a caller asks for one. The rules of recurring tasks sit in one more
+ * column, only allocated once a stripe stores its first recurring task.
+ *
+ * Arena bytes are never overwritten: a new description is appended, and reclaiming the space
+ * of old ones copies the live descriptions into a fresh array. A {@link Slice} can therefore
+ * keep reading the arena it was taken from while the stripe keeps changing. Not thread-safe;
+ * {@link StripedTaskStore} guards each instance with its stripe lock.
+ */
+final class TaskColumns {
+    private static final int INITIAL_ROWS = 16;
+    private static final int INITIAL_ARENA_BYTES = 1024;
+
+    private final IntIntMap rowById = new IntIntMap();
+    private int rows;
+    private int[] ids = new int[INITIAL_ROWS];
+    private long[] dueEpochSeconds = new long[INITIAL_ROWS];
+    private byte[] priorities = new byte[INITIAL_ROWS];
+    private byte[] types = new byte[INITIAL_ROWS];
+    private int[] descriptionOffsets = new int[INITIAL_ROWS];
+    private int[] descriptionLengths = new int[INITIAL_ROWS];
+    private byte[] arena = new byte[INITIAL_ARENA_BYTES];
+    // Null until a recurring task is stored; null entries for every other row.
+    private Recurrence[] recurrences;
+    private int arenaUsed;
+    private int arenaGarbage;
+
+    int size() {
+        return rows;
+    }
+
+    Task get(int id) {
+        int row = rowById.get(id);
+        return row == IntIntMap.MISSING ? null : materialize(row);
+    }
+
+    // Stores task, replacing the row with the same id; returns the task it replaced, or null.
+    Task put(Task task) {
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        int row = rowById.get(task.getId());
+        Task previous = null;
+        if (row == IntIntMap.MISSING) {
+            row = rows;
+            ensureRows(rows + 1);
+            rows++;
+            ids[row] = task.getId();
+            rowById.put(task.getId(), row);
+        } else {
+            previous = materialize(row);
+        }
+
+        // Append first: if that reclaims arena space, the old description is still live and moves too.
+        int offset = append(description);
+        if (previous != null) {
+            arenaGarbage += descriptionLengths[row];
+        }
+        dueEpochSeconds[row] = BinaryTaskFormat.toEpochSecond(task.getDueDate());
+        priorities[row] = (byte) task.getPriority();
+        types[row] = BinaryTaskFormat.typeOf(task);
+        descriptionOffsets[row] = offset;
+        descriptionLengths[row] = description.length;
+        Recurrence recurrence = task instanceof RecurringTask recurring ? recurring.getRecurrence() : null;
+        if (recurrence != null && recurrences == null) {
+            recurrences = new Recurrence[ids.length];
+        }
+        if (recurrences != null) {
+            recurrences[row] = recurrence;
+        }
+        return previous;
+    }
+
+    // True if the stored row for expected's id holds exactly expected's fields.
+    boolean matches(Task expected) {
+        int row = rowById.get(expected.getId());
+        if (row == IntIntMap.MISSING) return false;
+        if (dueEpochSeconds[row] != BinaryTaskFormat.toEpochSecond(expected.getDueDate())
+                || priorities[row] != (byte) expected.getPriority()
+                || types[row] != BinaryTaskFormat.typeOf(expected)) {
+            return false;
+        }
+        byte[] description = expected.getDescription().getBytes(StandardCharsets.UTF_8);
+        Recurrence recurrence = expected instanceof RecurringTask recurring ? recurring.getRecurrence() : null;
+        if (recurrences != null && !Objects.equals(recurrences[row], recurrence)) {
+            return false;
+        }
+        int offset = descriptionOffsets[row];
+        return Arrays.equals(arena, offset, offset + descriptionLengths[row], description, 0, description.length);
+    }
+
+    boolean test(int id, TaskRowFilter filter) {
+        int row = rowById.get(id);
+        return row != IntIntMap.MISSING
+                && filter.test(id, dueEpochSeconds[row], priorities[row], types[row]);
+    }
+
+    // Removes the row for id and returns it as a task, or null if there was none.
+    Task remove(int id) {
+        int row = rowById.remove(id);
+        if (row == IntIntMap.MISSING) return null;
+        Task removed = materialize(row);
+        arenaGarbage += descriptionLengths[row];
+        int last = --rows;
+        if (row != last) {
+            ids[row] = ids[last];
+            dueEpochSeconds[row] = dueEpochSeconds[last];
+            priorities[row] = priorities[last];
+            types[row] = types[last];
+            descriptionOffsets[row] = descriptionOffsets[last];
+            descriptionLengths[row] = descriptionLengths[last];
+            if (recurrences != null) {
+                recurrences[row] = recurrences[last];
+            }
+            rowById.put(ids[row], row);
+        }
+        // A put reuses the slot and counts it as a row before its description is appended, so a
+        // reclaim in between would copy whatever description the slot still pointed at.
+        descriptionOffsets[last] = 0;
+        descriptionLengths[last] = 0;
+        if (recurrences != null) {
+            recurrences[last] = null;
+        }
+        return removed;
+    }
+
+    /**
+     * Copies the columns as they are now. Safe to call under an optimistic read: a torn copy
+     * is only ever used after the caller has validated its stamp, and the arena prefix the
+     * copied rows point into is never modified.
+     */
+    Slice slice() {
+        int count = rows;
+        return new Slice(count,
+                Arrays.copyOf(ids, count),
+                Arrays.copyOf(dueEpochSeconds, count),
+                Arrays.copyOf(priorities, count),
+                Arrays.copyOf(types, count),
+                Arrays.copyOf(descriptionOffsets, count),
+                Arrays.copyOf(descriptionLengths, count),
+                arena,
+                recurrences == null ? null : Arrays.copyOf(recurrences, count));
+    }
+
+    private Task materialize(int row) {
+        return materialize(types[row], ids[row], arena, descriptionOffsets[row], descriptionLengths[row],
+                dueEpochSeconds[row], priorities[row], recurrences == null ? null : recurrences[row]);
+    }
+
+    static Task materialize(byte type, int id, byte[] arena, int offset, int length, long dueEpochSecond, int priority,
+                            Recurrence recurrence) {
+        try {
+            return Task.restore(type, id, new String(arena, offset, length, StandardCharsets.UTF_8),
+                    BinaryTaskFormat.fromEpochSecond(dueEpochSecond), priority, recurrence);
+        } catch (InvalidTaskException e) {
+            // Only valid tasks are ever stored, so a row that fails to rebuild is a bug.
+            throw new IllegalStateException("Corrupt task row for id " + id, e);
+        }
+    }
+
+    private int append(byte[] description) {
+        if (arenaUsed + description.length > arena.length) {
+            int live = arenaUsed - arenaGarbage;
+            if (arenaGarbage > live) {
+                reclaimArena(live + description.length);
+            }
+            if (arenaUsed + description.length > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaUsed + description.length));
+            }
+        }
+        int offset = arenaUsed;
+        System.arraycopy(description, 0, arena, offset, description.length);
+        arenaUsed += description.length;
+        return offset;
+    }
+
+    // Copies every live description into a new arena, leaving the old one untouched for slices.
+    private void reclaimArena(int needed) {
+        byte[] compacted = new byte[Math.max(INITIAL_ARENA_BYTES, needed * 2)];
+        int used = 0;
+        for (int row = 0; row < rows; row++) {
+            int length = descriptionLengths[row];
+            System.arraycopy(arena, descriptionOffsets[row], compacted, used, length);
+            descriptionOffsets[row] = used;
+            used += length;
+        }
+        arena = compacted;
+        arenaUsed = used;
+        arenaGarbage = 0;
+    }
+
+    private void ensureRows(int needed) {
+        if (needed <= ids.length) return;
+        int capacity = Math.max(needed, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        dueEpochSeconds = Arrays.copyOf(dueEpochSeconds, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        types = Arrays.copyOf(types, capacity);
+        descriptionOffsets = Arrays.copyOf(descriptionOffsets, capacity);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, capacity);
+        if (recurrences != null) {
+            recurrences = Arrays.copyOf(recurrences, capacity);
+        }
+    }
+
+    record Slice(int rows, int[] ids, long[] dueEpochSeconds, byte[] priorities, byte[] types,
+                 int[] descriptionOffsets, int[] descriptionLengths, byte[] arena, Recurrence[] recurrences) {
+    }
+}
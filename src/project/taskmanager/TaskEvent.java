@@ -0,0 +1,62 @@
+package project.taskmanager;
+
+/**
+ * One change read from a {@link TaskEventRing}.
+ *
+ * A subscription hands the same instance to its handler for every event it reads, so reading
+ * allocates nothing; the fields are only valid during the call and a handler that keeps an
+ * event copies what it needs.
+ */
+public final class TaskEvent {
+    public enum Type {
+        // task is new.
+        ADDED,
+        // task replaced previous, which has the same id.
+        UPDATED,
+        // task was deleted by a caller.
+        DELETED,
+        // task was removed by the expiry sweep.
+        EXPIRED,
+        // task's reminder went out; the task itself is unchanged.
+        REMINDED
+    }
+
+    private long sequence;
+    private Type type;
+    private Task task;
+    private Task previous;
+
+    void set(long sequence, Type type, Task task, Task previous) {
+        this.sequence = sequence;
+        this.type = type;
+        this.task = task;
+        this.previous = previous;
+    }
+
+    // Position in the stream, starting at 0 and one higher for every event published.
+    public long sequence() {
+        return sequence;
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public Task task() {
+        return task;
+    }
+
+    // The task as it was before an UPDATED event; null for every other type.
+    public Task previous() {
+        return previous;
+    }
+
+    public int taskId() {
+        return task.getId();
+    }
+
+    @Override
+    public String toString() {
+        return sequence + " " + type + " " + task.getId();
+    }
+}
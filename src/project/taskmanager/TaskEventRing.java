@@ -0,0 +1,186 @@
+package project.taskmanager;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated ring of task change events that subscribers read at their own pace.
+ *
+ * Every slot is allocated up front and reused, so publishing only writes a few fields. One
+ * writer at a time holds the ring's lock while it fills the next slot and moves the published
+ * count past it; subscribers never take that lock and never write anything the writer reads,
+ * so a slow subscriber cannot hold the writer up. Instead the writer laps it: once more than
+ * {@link #capacity()} events were published after the one a subscription is at, that event is
+ * gone, and the subscription reports how many it missed and carries on from the oldest event
+ * still in the ring. A subscriber that misses events rebuilds its view from the manager and
+ * then follows the stream again.
+ *
+ * A slot's sequence works as a seqlock: the writer marks the slot as being written before it
+ * changes the fields and stores the new sequence after, and a reader that finds a different
+ * sequence before or after copying the fields knows the slot was overwritten under it. Slots
+ * keep their tasks until they are overwritten.
+ */
+public class TaskEventRing {
+    // Sequence of a slot whose fields are being rewritten.
+    private static final long WRITING = -1;
+    // A subscription waiting for events spins this many times before it starts to park.
+    private static final int SPINS = 100;
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Slot[] slots;
+    private final int mask;
+    private final Object writeLock = new Object();
+    // Count of events published so far, which is also the sequence the next one gets.
+    private volatile long published;
+
+    // Reads one subscription's events; see Subscription.poll.
+    public interface Handler {
+        void onEvent(TaskEvent event);
+
+        // The events in [from, to) were overwritten before they were read.
+        default void missed(long from, long to) {
+        }
+    }
+
+    public TaskEventRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = new Slot[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public long published() {
+        return published;
+    }
+
+    // Writes the next event over the oldest one; previous is only kept for UPDATED.
+    public void publish(TaskEvent.Type type, Task task, Task previous) {
+        synchronized (writeLock) {
+            long sequence = published;
+            Slot slot = slots[(int) sequence & mask];
+            slot.sequence = WRITING;
+            // The fields must not be seen changing before the slot is marked.
+            VarHandle.storeStoreFence();
+            slot.type = type;
+            slot.task = task;
+            slot.previous = type == TaskEvent.Type.UPDATED ? previous : null;
+            slot.sequence = sequence;
+            published = sequence + 1;
+        }
+    }
+
+    // Starts with the next event published.
+    public Subscription subscribe() {
+        return new Subscription(published);
+    }
+
+    // Starts at sequence, which may be an event still in the ring or the next one published.
+    public Subscription subscribeFrom(long sequence) {
+        if (sequence < 0 || sequence > published) {
+            throw new IllegalArgumentException("No event " + sequence + " to start from.");
+        }
+        return new Subscription(sequence);
+    }
+
+    /**
+     * One reader's position in the ring. A subscription is used from one thread at a time;
+     * subscriptions are independent of each other and cost the writer nothing.
+     */
+    public final class Subscription {
+        private final TaskEvent event = new TaskEvent();
+        private long position;
+
+        private Subscription(long position) {
+            this.position = position;
+        }
+
+        // Sequence of the next event this subscription reads.
+        public long position() {
+            return position;
+        }
+
+        // Events published that this subscription has not read yet, counting any it will miss.
+        public long lag() {
+            return published - position;
+        }
+
+        /**
+         * Hands up to maxEvents events to handler in sequence order and returns how many it
+         * handed on. Events overwritten before they were read are reported to
+         * {@link Handler#missed} first. If the handler throws, the event it threw on is read
+         * again by the next poll.
+         */
+        public int poll(Handler handler, int maxEvents) {
+            int handled = 0;
+            while (handled < maxEvents) {
+                long available = published;
+                if (position >= available) break;
+                long oldest = available - slots.length;
+                if (position < oldest) {
+                    long from = position;
+                    position = oldest;
+                    handler.missed(from, oldest);
+                    continue;
+                }
+                Slot slot = slots[(int) position & mask];
+                if (slot.sequence != position) continue;
+                TaskEvent.Type type = slot.type;
+                Task task = slot.task;
+                Task previous = slot.previous;
+                // The copies must be read before the sequence is checked again.
+                VarHandle.loadLoadFence();
+                // Overwritten while it was copied; the next pass finds it lapped.
+                if (slot.sequence != position) continue;
+                event.set(position, type, task, previous);
+                handler.onEvent(event);
+                position++;
+                handled++;
+            }
+            return handled;
+        }
+
+        /**
+         * Waits up to timeout for an event this subscription has not read, without involving the
+         * writer: it spins briefly, then parks for growing intervals. False if none came.
+         */
+        public boolean await(long timeout, TimeUnit unit) {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            long park = 1_000;
+            for (int spins = 0; position >= published; spins++) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0 || Thread.currentThread().isInterrupted()) return false;
+                if (spins < SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(Math.min(park, left));
+                    park = Math.min(park * 2, MAX_PARK_NANOS);
+                }
+            }
+            return true;
+        }
+
+        // Moves to sequence, for example to skip what a rebuild from the manager already covered.
+        public void seek(long sequence) {
+            if (sequence < 0 || sequence > published) {
+                throw new IllegalArgumentException("No event " + sequence + " to seek to.");
+            }
+            position = sequence;
+        }
+    }
+
+    private static final class Slot {
+        volatile long sequence = WRITING;
+        TaskEvent.Type type;
+        Task task;
+        Task previous;
+    }
+}
@@ -0,0 +1,43 @@
+package project.taskmanager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Converts a task store between the text and binary formats, e.g.
+ * {@code java project.taskmanager.TaskFileConverter text binary tasks.txt tasks.bin}.
+ * Every month of the input is read, whether it is still a single snapshot file or already
+ * split into segments, and its journal is replayed on top. The output is written as monthly
+ * segments in {@code <output>.segments/} with a manifest of its own, with nothing left to
+ * replay, so a TaskManager opened on the output path finds every task.
+ */
+public class TaskFileConverter {
+    public static void main(String[] args) {
+        if (args.length != 4) {
+            System.out.println("Usage: TaskFileConverter <text|binary> <text|binary> <input> <output>");
+            return;
+        }
+        try {
+            TaskJournal.LoadReport report = convert(parse(args[0]), parse(args[1]), Paths.get(args[2]), Paths.get(args[3]));
+            System.out.println("✅ Converted " + report.tasks() + " tasks (" + report.skipped() + " expired or invalid entries dropped).");
+        } catch (IllegalArgumentException | IOException e) {
+            System.out.println("❌ Conversion failed: " + e.getMessage());
+        }
+    }
+
+    public static TaskJournal.LoadReport convert(StorageFormat from, StorageFormat to, Path input, Path output) throws IOException {
+        try (TaskJournal journal = new TaskJournal(input.toString(), from, TaskJournal.DEFAULT_COMPACT_THRESHOLD,
+                DurabilityPolicy.every(DurabilityPolicy.DEFAULT_INTERVAL_MILLIS))) {
+            List<Task> tasks = journal.load(null);
+            new SegmentedSnapshot(output, to).write(tasks, journal.nextId(), Set.of());
+            return journal.lastLoad();
+        }
+    }
+
+    private static StorageFormat parse(String name) {
+        return StorageFormat.valueOf(name.toUpperCase());
+    }
+}
@@ -0,0 +1,177 @@
+package project.taskmanager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Task id allocator that leases blocks of ids to threads.
+ *
+ * Each thread takes ids from its own block without locking and only touches the shared
+ * high-water mark when the block runs out, so threads creating tasks in parallel do not
+ * fight over one counter. A lease is not lock-free: before a block is used, its end is
+ * reported to the lease listener, which persists it with the store and blocks until the
+ * journal has written it. On restart the allocator resumes from the persisted mark and
+ * never reissues an id. Ids left unused in a block when the process stops are skipped.
+ * When other processes lease from the same store, the listener holds their lock from before
+ * the mark is read until the new one is persisted, and raises the mark to theirs first.
+ * A block only has to be dropped if another process leased ids inside it.
+ * Virtual threads usually create a task or two and end, so instead of leasing a block each
+ * they share a few blocks, picked by thread id and taken under a lock.
+ */
+public class TaskIdAllocator {
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    // Declared before SHARED, which uses it while the class is initialized.
+    private static final LeaseListener NO_LISTENER = highWater -> { };
+    private static final TaskIdAllocator SHARED = new TaskIdAllocator(DEFAULT_BLOCK_SIZE);
+
+    private final int blockSize;
+    private final AtomicInteger highWater = new AtomicInteger(1);
+    private final AtomicInteger generation = new AtomicInteger();
+    private final ThreadLocal<Block> blocks = new ThreadLocal<>();
+    private final SharedBlock[] sharedBlocks;
+    // Id ranges taken away from blocks already leased, newest first; each bumps the generation.
+    private final AtomicReference<Revoked> revoked = new AtomicReference<>();
+    private volatile LeaseListener leaseListener = NO_LISTENER;
+
+    // Told about every lease before any of its ids are used.
+    @FunctionalInterface
+    public interface LeaseListener {
+        void leased(int highWater);
+
+        // Runs before the block is taken from the high-water mark, and may advance the mark first.
+        default void beforeLease() {
+        }
+
+        // Runs once the lease has been reported, even if reporting it failed.
+        default void afterLease() {
+        }
+    }
+
+    public TaskIdAllocator(int blockSize) {
+        this.blockSize = blockSize;
+        this.sharedBlocks = new SharedBlock[Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors())) * 2];
+        for (int i = 0; i < sharedBlocks.length; i++) {
+            sharedBlocks[i] = new SharedBlock();
+        }
+    }
+
+    // The allocator behind every new Task.
+    public static TaskIdAllocator shared() {
+        return SHARED;
+    }
+
+    public int next() {
+        Thread thread = Thread.currentThread();
+        if (VirtualThreads.isVirtual(thread)) {
+            return nextShared(sharedBlocks[(int) thread.getId() & (sharedBlocks.length - 1)]);
+        }
+        Block block = blocks.get();
+        while (block == null || block.next >= block.end || !current(block)) {
+            block = lease();
+            blocks.set(block);
+        }
+        return block.next++;
+    }
+
+    // First id that has never been leased; everything below it may be in use.
+    public int highWater() {
+        return highWater.get();
+    }
+
+    // Moves the high-water mark up to at least nextId, for a store whose ids below it may all be in use.
+    public void advanceTo(int nextId) {
+        advanceTo(1, nextId);
+    }
+
+    /**
+     * Moves the high-water mark up to at least nextId because the ids from {@code from} up to
+     * nextId were leased elsewhere. Only blocks that reach into that range are dropped; a range starting at or
+     * above the mark, as another process's lease normally does, drops none.
+     */
+    public synchronized void advanceTo(int from, int nextId) {
+        int current;
+        do {
+            current = highWater.get();
+            if (current >= nextId) return;
+        } while (!highWater.compareAndSet(current, nextId));
+        // Every block leased so far ends at or below the old mark.
+        if (from >= current) return;
+        int next = generation.get() + 1;
+        revoked.set(new Revoked(from, Math.min(nextId, current), next, revoked.get()));
+        generation.set(next);
+    }
+
+    // Called with the new high-water mark whenever a block is leased, before any of its ids are used.
+    public synchronized void setLeaseListener(LeaseListener listener) {
+        this.leaseListener = listener;
+    }
+
+    // Stops reporting leases to listener, unless another listener has replaced it since.
+    public synchronized void removeLeaseListener(LeaseListener listener) {
+        if (leaseListener == listener) {
+            leaseListener = NO_LISTENER;
+        }
+    }
+
+    // A lock rather than synchronized, so a virtual thread waiting on the lease does not pin its carrier.
+    private int nextShared(SharedBlock shared) {
+        shared.lock.lock();
+        try {
+            while (shared.block == null || shared.block.next >= shared.block.end || !current(shared.block)) {
+                shared.block = lease();
+            }
+            return shared.block.next++;
+        } finally {
+            shared.lock.unlock();
+        }
+    }
+
+    /**
+     * Whether no range revoked since block was checked last reaches its unused ids. The
+     * generation is read before the ranges, so a range is published before its generation.
+     */
+    private boolean current(Block block) {
+        int now = generation.get();
+        if (block.generation == now) return true;
+        for (Revoked range = revoked.get(); range != null && range.generation() > block.generation; range = range.older()) {
+            if (range.from() < block.end && block.next < range.to()) return false;
+        }
+        block.generation = now;
+        return true;
+    }
+
+    private Block lease() {
+        LeaseListener listener = leaseListener;
+        listener.beforeLease();
+        try {
+            int currentGeneration = generation.get();
+            int start = highWater.getAndAdd(blockSize);
+            listener.leased(start + blockSize);
+            return new Block(start, start + blockSize, currentGeneration);
+        } finally {
+            listener.afterLease();
+        }
+    }
+
+    private static final class SharedBlock {
+        private final ReentrantLock lock = new ReentrantLock();
+        Block block;
+    }
+
+    private record Revoked(int from, int to, int generation, Revoked older) {
+    }
+
+    private static final class Block {
+        int next;
+        final int end;
+        int generation;
+
+        Block(int next, int end, int generation) {
+            this.next = next;
+            this.end = end;
+            this.generation = generation;
+        }
+    }
+}
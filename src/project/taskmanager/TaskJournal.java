@@ -0,0 +1,753 @@
+package project.taskmanager;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Write-ahead journal in front of the task snapshot file.
+ *
+ * Every add or delete is appended to {@code <snapshot>.journal} as a single line
+ * ({@code +<task record>} or {@code -<id> <month>}). Appends are handed to a {@link GroupCommitWriter},
+ * so a mutation only queues its record and bursts reach the disk as one write, synced as
+ * the {@link DurabilityPolicy} asks; {@link #flush()} waits for everything queued. On load
+ * the snapshot is read and the journal replayed on top of it. Once the journal grows past
+ * the compaction threshold it is rotated to {@code <snapshot>.journal.old} and a background
+ * thread folds the current state into the snapshot, whose files are replaced with atomic
+ * renames. The snapshot is written in the configured {@link StorageFormat}; journal records
+ * are always text.
+ *
+ * The snapshot is a {@link SegmentedSnapshot}, one file per month of due dates, and a load
+ * can leave the later months cold. The state handed to compaction then only covers the loaded
+ * months, and the cold files are left alone. Replay keeps that consistent: a month that the
+ * journal moves a task into is read as well. A task that leaves a month, by being deleted or
+ * moved to another one, gets a delete record naming that month, so the month whose file may
+ * still hold the old copy is read too and written back without it. A delete record without a
+ * month, as older journals have, could refer to any cold month, so then all of them are read
+ * and the next compaction rewrites them.
+ *
+ * Lines starting with {@code #} carry the id allocator's high-water mark: one is journaled
+ * whenever a block of ids is leased and the snapshot header carries one, so the next free id
+ * is known after a restart without relying on the ids that happen to still be stored.
+ *
+ * Replaying a record twice leaves the same state behind, so a crash at any point of
+ * a compaction is recovered by replaying whatever journal files are still on disk.
+ * A record torn by a crash mid-write is skipped on replay.
+ *
+ * Several processes can share one store. Every write to the journal, every id lease, the load
+ * and every rewrite of snapshot files holds the {@link StoreLock} on {@code <snapshot>.lock},
+ * and first applies the records the other processes appended, which a {@link JournalTailer}
+ * also picks up in the background as soon as they land. A compaction holds the lock until its
+ * snapshot is written. A record from another process for a task that has a record of this
+ * process still queued is skipped, since the queued one lands after it in the journal and wins
+ * on replay too; so every process ends up with the state the journal replays to. Two processes
+ * editing the same task at once keep whichever edit reached the journal last.
+ */
+public class TaskJournal implements Closeable {
+    public static final long DEFAULT_COMPACT_THRESHOLD = 4L * 1024 * 1024;
+
+    private static final char ADD = '+';
+    private static final char DELETE = '-';
+    private static final char NEXT_ID = '#';
+
+    private final SegmentedSnapshot snapshot;
+    private final Path journalPath;
+    private final Path rotatedPath;
+    private final long compactThreshold;
+    private final TaskMetrics metrics;
+    private final GroupCommitWriter writer;
+    private final StoreLock storeLock;
+    private final JournalTailer tailer;
+    // Records appended but not yet written, so a change another process made to one of those tasks can be skipped.
+    private final PendingRecords pending = new PendingRecords();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "task-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Bytes in the journal file, counting records queued for the writer; updated without the journal's monitor.
+    private final AtomicLong journalBytes = new AtomicLong();
+    // Keeps pending in the order the writer queue has, without the journal's monitor, which other work holds for longer.
+    private final Object appendLock = new Object();
+    private boolean compacting;
+    // Set when the snapshot on disk needs rewriting regardless of the journal size.
+    private boolean compactionDue;
+    private int nextId = 1;
+    private LoadReport lastLoad;
+    // Where records of other processes go; null until follow() is called.
+    private volatile RemoteChanges changes;
+
+    /**
+     * Receives the changes other processes journal, on whichever thread catches up with them.
+     * Never called while that thread holds the store's own locks, but it may hold the store lock.
+     */
+    public interface RemoteChanges {
+        void stored(Task task);
+
+        // month is where the task was, or null for a record that does not say.
+        void removed(int id, YearMonth month);
+
+        // Another process leased the ids from up to highWater.
+        void leased(int from, int highWater);
+    }
+
+    public TaskJournal(String snapshotFile) {
+        this(snapshotFile, StorageFormat.TEXT, DEFAULT_COMPACT_THRESHOLD, DurabilityPolicy.every(DurabilityPolicy.DEFAULT_INTERVAL_MILLIS));
+    }
+
+    public TaskJournal(String snapshotFile, StorageFormat format, long compactThreshold, DurabilityPolicy durability) {
+        this(snapshotFile, format, compactThreshold, durability, new TaskMetrics());
+    }
+
+    public TaskJournal(String snapshotFile, StorageFormat format, long compactThreshold, DurabilityPolicy durability,
+                       TaskMetrics metrics) {
+        this.snapshot = new SegmentedSnapshot(Paths.get(snapshotFile), format);
+        this.journalPath = Paths.get(snapshotFile + ".journal");
+        this.rotatedPath = Paths.get(snapshotFile + ".journal.old");
+        this.compactThreshold = compactThreshold;
+        this.metrics = metrics;
+        this.writer = new GroupCommitWriter(journalPath, durability, metrics);
+        this.storeLock = StoreLock.forStore(Paths.get(snapshotFile));
+        this.tailer = new JournalTailer(journalPath, this::applyRemote);
+        writer.setWriteGuard(new GroupCommitWriter.WriteGuard() {
+            @Override
+            public void before() {
+                storeLock.lock(TaskJournal.this);
+                tailer.lock();
+                tailer.catchUp();
+            }
+
+            @Override
+            public void after(int records, long end) {
+                try {
+                    if (end >= 0) {
+                        tailer.caughtUpTo(end);
+                    }
+                    pending.written(records);
+                } finally {
+                    tailer.unlock();
+                    storeLock.unlock();
+                }
+            }
+        });
+    }
+
+    // Reads the whole snapshot and replays any journal files left on disk, oldest first.
+    public List<Task> load() throws IOException {
+        return load(null);
+    }
+
+    public List<Task> load(YearMonth hotThrough) throws IOException {
+        return load(hotThrough, false);
+    }
+
+    /**
+     * Reads the snapshot months up to hotThrough, or all of them for null, and replays the
+     * journal files left on disk, oldest first. Later months are left for {@link #readSegment}.
+     * A later month the journal changed is read so the changes apply to it; with keepCold it is
+     * then written back and stays cold instead of being returned, for a bounded cache.
+     */
+    public List<Task> load(YearMonth hotThrough, boolean keepCold) throws IOException {
+        storeLock.lock(this);
+        try {
+            List<Task> state = replayAll(hotThrough, keepCold);
+            tailer.startAtEnd();
+            return state;
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    /**
+     * Starts applying the records other processes append from the end of the load on, both in
+     * the background and before every write of this process. Called once the loaded tasks are
+     * in place, since a change to one of them must not be overwritten by the load.
+     */
+    public void follow(RemoteChanges changes) {
+        this.changes = changes;
+        tailer.follow();
+        tailer.catchUp();
+    }
+
+    /**
+     * Persists every id lease before its ids are used. The store lock is held from before the
+     * high-water mark is read until the new one is written, with the leases of other processes
+     * applied first, so no two processes ever lease the same block.
+     */
+    public TaskIdAllocator.LeaseListener leaseListener() {
+        return new TaskIdAllocator.LeaseListener() {
+            @Override
+            public void beforeLease() {
+                storeLock.lock(TaskJournal.this);
+                tailer.catchUp();
+            }
+
+            @Override
+            public void leased(int highWater) {
+                appendNextId(highWater);
+                writer.awaitWritten();
+            }
+
+            @Override
+            public void afterLease() {
+                storeLock.unlock();
+            }
+        };
+    }
+
+    // Runs action with the store locked against other processes, once their changes so far are applied.
+    public void whileLocked(Runnable action) {
+        storeLock.lock(this);
+        try {
+            tailer.catchUp();
+            action.run();
+        } finally {
+            storeLock.unlock();
+        }
+    }
+
+    // Whether a record for id is still waiting to be written, which then overtakes any record of another process.
+    public boolean hasPending(int id) {
+        return pending.contains(id);
+    }
+
+    /**
+     * Whether a record still waiting to be written changes month. Such a month is not written
+     * back by evictSegment, since another process's compaction could overwrite the file without
+     * the change while this process only has it there.
+     */
+    public boolean hasPendingIn(YearMonth month) {
+        return pending.containsMonth(PendingRecords.monthKey(month));
+    }
+
+    private synchronized List<Task> replayAll(YearMonth hotThrough, boolean keepCold) throws IOException {
+        long start = System.nanoTime();
+        SnapshotContents contents = snapshot.load(hotThrough);
+        IntObjectMap<Task> state = new IntObjectMap<>(contents.tasks().size());
+        for (Task task : contents.tasks()) {
+            state.put(task.getId(), task);
+        }
+        advanceNextId(contents.nextId());
+        Replayed replayed = new Replayed(contents.nextId());
+        replayed.expired = contents.expired();
+        replayed.invalid = contents.invalid();
+        replay(rotatedPath, state, replayed);
+        replay(journalPath, state, replayed);
+        // A single snapshot file from before segments is split up by the first compaction.
+        compactionDue = snapshot.isLegacy();
+        int chunks = contents.chunks() + readColdMonths(state, replayed, keepCold);
+        journalBytes.set(Files.exists(journalPath) ? Files.size(journalPath) : 0);
+        lastLoad = new LoadReport(state.size(), replayed.expired, replayed.invalid, chunks, System.nanoTime() - start);
+        return state.values();
+    }
+
+    // Reads a cold month of the snapshot, which then counts as loaded; null if it is not cold.
+    public SnapshotContents readSegment(YearMonth month) throws IOException {
+        return snapshot.read(month);
+    }
+
+    // Reads a cold month without loading it, so it stays cold; null if it is not cold.
+    public SnapshotContents peekSegment(YearMonth month) throws IOException {
+        return snapshot.peek(month);
+    }
+
+    // Whether a month may be written back with evictSegment: not while a compaction is writing months.
+    public synchronized boolean canEvict() {
+        return !compacting && !snapshot.isLegacy();
+    }
+
+    /**
+     * Writes tasks, every task month holds, to its segment and makes the month cold, so they
+     * can leave memory. The caller checks {@link #canEvict} and keeps compaction from starting
+     * until this returns.
+     */
+    public void evictSegment(YearMonth month, List<Task> tasks) throws IOException {
+        snapshot.writeCold(month, tasks, nextId());
+    }
+
+    // Makes a month cold again without writing it, for one unchanged since readSegment; false if it cannot be.
+    public boolean releaseSegment(YearMonth month) {
+        return snapshot.release(month);
+    }
+
+    // The snapshot months not read yet, earliest first, as a live read-only view.
+    public NavigableSet<YearMonth> coldSegments() {
+        return snapshot.coldMonths();
+    }
+
+    public int coldTaskCount() {
+        return snapshot.coldTaskCount();
+    }
+
+    /**
+     * Deletes the snapshot months before month in the background, once the journal holds every
+     * change the expiry sweep made to them. Nothing is queued if there are no such months.
+     */
+    public void dropSegmentsBefore(YearMonth month) {
+        if (!snapshot.hasMonthsBefore(month)) return;
+        compactor.execute(() -> {
+            writer.flush();
+            storeLock.lock(this);
+            try {
+                snapshot.dropBefore(month);
+            } catch (IOException e) {
+                System.out.println("Error dropping task segments: " + e.getMessage());
+            } finally {
+                storeLock.unlock();
+            }
+        });
+    }
+
+    public void appendAdd(Task task) {
+        append(ADD + task.toFileString(), task);
+    }
+
+    // Also records a task moving out of its month, ahead of the add record that puts it in the new one.
+    public void appendDelete(Task task) {
+        append(DELETE + Integer.toString(task.getId()) + " " + YearMonth.from(task.getDueDate()), task);
+    }
+
+    public synchronized void appendNextId(int highWater) {
+        append(NEXT_ID + Integer.toString(highWater), null);
+        advanceNextId(highWater);
+    }
+
+    // Timing and counts from the most recent snapshot load, or null before the first load.
+    public synchronized LoadReport lastLoad() {
+        return lastLoad;
+    }
+
+    // Lowest id that is safe to hand out, as far as everything loaded or journaled so far shows.
+    public synchronized int nextId() {
+        return nextId;
+    }
+
+    // Waits while the writer's queue is full; see GroupCommitWriter.awaitCapacity().
+    public void awaitCapacity() {
+        writer.awaitCapacity();
+    }
+
+    // Records appended until releaseWrites() are written together; see GroupCommitWriter.holdWrites().
+    public void holdWrites() {
+        writer.holdWrites();
+    }
+
+    public void releaseWrites() {
+        writer.releaseWrites();
+    }
+
+    // Blocks until every record appended so far is on disk.
+    public void flush() {
+        writer.flush();
+    }
+
+    public synchronized boolean needsCompaction() {
+        return !compacting && (compactionDue || journalBytes.get() >= compactThreshold);
+    }
+
+    /**
+     * Rotates the journal and writes the current state as the new snapshot in the background.
+     * capture is handed the step that does the rotation and must call it once with the state,
+     * which must reflect every record appended so far and must not change afterwards; the
+     * caller takes that snapshot under the same ordering it uses for appends, and must not read
+     * cold segments meanwhile, since only the months loaded now are written. The store lock is
+     * held from before capture until the snapshot is written, and the changes of other processes
+     * are applied first. Does nothing if another process compacted the journal in the meantime.
+     */
+    public void compact(Consumer<Consumer<List<Task>>> capture) {
+        synchronized (this) {
+            if (compacting) return;
+            compacting = true;
+        }
+        storeLock.lock(this);
+        AtomicBoolean queued = new AtomicBoolean();
+        try {
+            tailer.catchUp();
+            boolean due;
+            synchronized (this) {
+                journalBytes.set(Files.exists(journalPath) ? Files.size(journalPath) : 0);
+                due = compactionDue || journalBytes.get() >= compactThreshold;
+            }
+            if (due) {
+                capture.accept(state -> queued.set(rotate(state)));
+            }
+        } catch (IOException e) {
+            System.out.println("Error compacting tasks: " + e.getMessage());
+        } finally {
+            if (!queued.get()) {
+                synchronized (this) {
+                    compacting = false;
+                }
+                storeLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+        tailer.close();
+        compactor.shutdown();
+    }
+
+    // Queues the rotation behind every record appended so far; false if the writer is closed.
+    private synchronized boolean rotate(List<Task> state) {
+        compactionDue = false;
+        journalBytes.set(0);
+        int highWater = nextId;
+        Set<YearMonth> coldMonths = new TreeSet<>(snapshot.coldMonths());
+        // Runs on the writer thread once every record before this point is in the journal.
+        return writer.runWithFileClosed(() -> {
+            try {
+                rotateFiles();
+            } catch (IOException e) {
+                System.out.println("Error compacting tasks: " + e.getMessage());
+                synchronized (this) {
+                    compacting = false;
+                }
+                storeLock.unlock();
+                return;
+            }
+            compactor.execute(() -> writeSnapshot(state, highWater, coldMonths));
+        });
+    }
+
+    /**
+     * Queues record for the writer; task is the one the record is about, or null. Called with a
+     * stripe lock held, so it only takes appendLock, which every stripe shares but nothing holds
+     * for longer than two queue inserts.
+     */
+    private void append(String record, Task task) {
+        synchronized (appendLock) {
+            pending.appended(task);
+            writer.append(record);
+        }
+        journalBytes.addAndGet(utf8Length(record) + 1);
+    }
+
+    // Bytes record takes in the journal file, which the writer encodes as UTF-8.
+    static int utf8Length(String record) {
+        int bytes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < record.length() && Character.isLowSurrogate(record.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private void rotateFiles() throws IOException {
+        if (Files.exists(rotatedPath) && Files.exists(journalPath)) {
+            // Left over from a compaction that never finished: its records are not in the
+            // snapshot yet, so keep them and add the current journal behind them.
+            try (FileChannel source = FileChannel.open(journalPath, StandardOpenOption.READ);
+                 FileChannel target = FileChannel.open(rotatedPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                long position = 0;
+                long size = source.size();
+                while (position < size) {
+                    position += source.transferTo(position, size - position, target);
+                }
+                target.force(false);
+            }
+            Files.delete(journalPath);
+        } else if (Files.exists(journalPath)) {
+            Files.move(journalPath, rotatedPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void writeSnapshot(List<Task> state, int highWater, Set<YearMonth> coldMonths) {
+        long start = System.nanoTime();
+        boolean written = false;
+        try {
+            snapshot.write(state, highWater, coldMonths);
+            Files.deleteIfExists(rotatedPath);
+            written = true;
+        } catch (IOException e) {
+            System.out.println("Error compacting tasks: " + e.getMessage());
+        } finally {
+            metrics.recordSnapshotWrite(System.nanoTime() - start, written);
+            synchronized (this) {
+                compacting = false;
+            }
+            storeLock.unlock();
+        }
+    }
+
+    // Applies one record another process appended; a broken one is reported and skipped.
+    private void applyRemote(String record) {
+        RemoteChanges target = changes;
+        journalBytes.addAndGet(utf8Length(record) + 1);
+        try {
+            switch (record.charAt(0)) {
+                case ADD -> {
+                    Task task = Task.parse(record.substring(1));
+                    synchronized (this) {
+                        advanceNextId(task.getId() + 1);
+                    }
+                    target.stored(task);
+                }
+                case DELETE -> {
+                    int space = record.indexOf(' ');
+                    int id = Integer.parseInt(space < 0 ? record.substring(1) : record.substring(1, space));
+                    target.removed(id, space < 0 ? null : YearMonth.parse(record.substring(space + 1)));
+                }
+                case NEXT_ID -> {
+                    int highWater = Integer.parseInt(record.substring(1));
+                    int from;
+                    synchronized (this) {
+                        // Leases are journaled under the store lock, so the lease starts at the mark before it.
+                        from = nextId;
+                        advanceNextId(highWater);
+                    }
+                    target.leased(from, highWater);
+                }
+                default -> System.out.println("Error reading a change from another process: " + record);
+            }
+        } catch (InvalidTaskException | RuntimeException e) {
+            System.out.println("Error reading a change from another process: " + e.getMessage());
+        }
+    }
+
+    private void advanceNextId(int candidate) {
+        if (candidate > nextId) {
+            nextId = candidate;
+        }
+    }
+
+    /**
+     * Reads the cold months that replay has made part of state or that tasks left: the months
+     * that tasks were added or moved into and the ones deletes name, or every cold month if a
+     * delete without a month touched a task none of the loaded months held. Tasks the journal
+     * touched keep their replayed version. With keepCold each month is written back merged with
+     * its replayed tasks, which then leave state.
+     */
+    private int readColdMonths(IntObjectMap<Task> state, Replayed replayed, boolean keepCold) throws IOException {
+        NavigableSet<YearMonth> cold = snapshot.coldMonths();
+        if (cold.isEmpty()) return 0;
+        Set<YearMonth> needed = new TreeSet<>();
+        if (replayed.unresolved) {
+            needed.addAll(cold);
+            // The stale copies sit in files that are only rewritten by a compaction.
+            compactionDue = true;
+        } else {
+            for (Task task : state.values()) {
+                YearMonth month = YearMonth.from(task.getDueDate());
+                if (cold.contains(month)) {
+                    needed.add(month);
+                }
+            }
+            for (YearMonth month : replayed.left) {
+                if (cold.contains(month)) {
+                    needed.add(month);
+                }
+            }
+        }
+        Map<YearMonth, List<Task>> replayedByMonth = new HashMap<>();
+        if (keepCold) {
+            for (Task task : state.values()) {
+                YearMonth month = YearMonth.from(task.getDueDate());
+                if (needed.contains(month)) {
+                    replayedByMonth.computeIfAbsent(month, m -> new ArrayList<>()).add(task);
+                }
+            }
+        }
+        int chunks = 0;
+        for (YearMonth month : needed) {
+            SnapshotContents contents = snapshot.read(month);
+            List<Task> merged = keepCold ? replayedByMonth.getOrDefault(month, new ArrayList<>()) : null;
+            for (Task task : contents.tasks()) {
+                if (replayed.touched.get(task.getId()) != IntIntMap.MISSING || state.containsKey(task.getId())) continue;
+                if (keepCold) {
+                    merged.add(task);
+                } else {
+                    state.put(task.getId(), task);
+                }
+            }
+            if (keepCold) {
+                snapshot.writeCold(month, merged, nextId);
+                for (Task task : replayedByMonth.getOrDefault(month, List.of())) {
+                    state.remove(task.getId());
+                }
+            }
+            replayed.expired += contents.expired();
+            replayed.invalid += contents.invalid();
+            chunks += contents.chunks();
+        }
+        return chunks;
+    }
+
+    // Applies a journal file to state, counting the records that had to be skipped.
+    private void replay(Path path, IntObjectMap<Task> state, Replayed replayed) throws IOException {
+        if (!Files.exists(path)) return;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                try {
+                    switch (line.charAt(0)) {
+                        case ADD -> {
+                            Task task = Task.parse(line.substring(1));
+                            replayed.touched.put(task.getId(), 0);
+                            advanceNextId(task.getId() + 1);
+                            if (task.isExpired()) {
+                                // The latest version is already due, so no earlier one survives either.
+                                state.remove(task.getId());
+                                replayed.expired++;
+                            } else {
+                                state.put(task.getId(), task);
+                            }
+                        }
+                        case DELETE -> {
+                            int space = line.indexOf(' ');
+                            int id = Integer.parseInt(space < 0 ? line.substring(1) : line.substring(1, space));
+                            if (space < 0) {
+                                replayed.touchUnplaced(id, state);
+                            } else {
+                                replayed.touched.put(id, 0);
+                                replayed.left.add(YearMonth.parse(line.substring(space + 1)));
+                            }
+                            state.remove(id);
+                        }
+                        case NEXT_ID -> advanceNextId(Integer.parseInt(line.substring(1)));
+                        default -> replayed.invalid++;
+                    }
+                } catch (InvalidTaskException | RuntimeException e) {
+                    replayed.invalid++;
+                }
+            }
+        }
+    }
+
+    /**
+     * The id and month of each record queued for the writer, oldest first, with counts per id
+     * and per month. The writer's guard removes them as they land, under the same locks that
+     * catching up takes.
+     */
+    private static final class PendingRecords {
+        private static final int NONE = -1;
+
+        private final IntIntMap byId = new IntIntMap();
+        private final IntIntMap byMonth = new IntIntMap();
+        // Pairs of id and month key in a ring, NONE for a record that is not about a task.
+        private int[] queue = new int[128];
+        private int head;
+        private int size;
+
+        static int monthKey(YearMonth month) {
+            return month.getYear() * 12 + month.getMonthValue() - 1;
+        }
+
+        synchronized void appended(Task task) {
+            if (size * 2 == queue.length) {
+                int[] grown = new int[queue.length * 2];
+                for (int i = 0; i < size * 2; i++) {
+                    grown[i] = queue[(head + i) % queue.length];
+                }
+                queue = grown;
+                head = 0;
+            }
+            int id = task == null ? NONE : task.getId();
+            int month = task == null ? NONE : monthKey(YearMonth.from(task.getDueDate()));
+            int tail = (head + size * 2) % queue.length;
+            queue[tail] = id;
+            queue[tail + 1] = month;
+            size++;
+            if (task != null) {
+                increment(byId, id, 1);
+                increment(byMonth, month, 1);
+            }
+        }
+
+        synchronized void written(int records) {
+            for (int i = 0; i < records && size > 0; i++) {
+                int id = queue[head];
+                int month = queue[head + 1];
+                head = (head + 2) % queue.length;
+                size--;
+                if (id != NONE) {
+                    increment(byId, id, -1);
+                    increment(byMonth, month, -1);
+                }
+            }
+        }
+
+        synchronized boolean contains(int id) {
+            return byId.get(id) != IntIntMap.MISSING;
+        }
+
+        synchronized boolean containsMonth(int monthKey) {
+            return byMonth.get(monthKey) != IntIntMap.MISSING;
+        }
+
+        private static void increment(IntIntMap counts, int key, int delta) {
+            int count = counts.get(key);
+            int updated = (count == IntIntMap.MISSING ? 0 : count) + delta;
+            if (updated <= 0) {
+                counts.remove(key);
+            } else {
+                counts.put(key, updated);
+            }
+        }
+    }
+
+    private static final class Replayed {
+        final int snapshotNextId;
+        // Ids the replayed records refer to; their copies in cold months are out of date.
+        final IntIntMap touched = new IntIntMap();
+        // Months that deletes say a task left, whose files may still hold the old copy.
+        final Set<YearMonth> left = new TreeSet<>();
+        int expired;
+        int invalid;
+        // Whether a delete without a month touched a task from before the snapshot that no loaded month held.
+        boolean unresolved;
+
+        Replayed(int snapshotNextId) {
+            this.snapshotNextId = snapshotNextId;
+        }
+
+        void touchUnplaced(int id, IntObjectMap<Task> state) {
+            if (touched.put(id, 0) == IntIntMap.MISSING && id < snapshotNextId && !state.containsKey(id)) {
+                unresolved = true;
+            }
+        }
+    }
+
+    public record LoadReport(int tasks, int expired, int invalid, int chunks, long elapsedNanos) {
+        public int skipped() {
+            return expired + invalid;
+        }
+
+        public long elapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+    }
+}
@@ -1,165 +1,1227 @@
 package project.taskmanager;
 
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
-public class TaskManager {
-    private static final String FILE_PATH = "tasks.txt";
-    private List<Task> tasks;
+public class TaskManager implements AutoCloseable {
+    // Reminders are only armed this far ahead; the reminder service arms later ones as they come into range.
+    private static final long REMINDER_HORIZON_MINUTES = 60;
+    // A background load adds tasks this many at a time, so listeners see the store fill in steps.
+    private static final int LOAD_BATCH = 20_000;
+    // The console listings print this many tasks at a time, asking before each further page.
+    private static final int CONSOLE_PAGE = 50;
+    // Expired tasks stay this long past their due date, so the reminder that fires at the due time still finds them.
+    private static final long EXPIRY_GRACE_SECONDS = 5;
+    // The expiry sweep removes this many tasks at a time, with one archive sync and compaction check per batch.
+    private static final int EXPIRY_BATCH = 1024;
+    // Startup reads the snapshot months up to this many after the current one; later months are read when needed.
+    private static final int HOT_MONTHS = 1;
+    // Subscribers more than this many events behind miss the oldest ones.
+    private static final int EVENT_RING_CAPACITY = 1 << 16;
 
+    private final String filePath;
+    private final TaskJournal journal;
+    // Where expired tasks go when the policy is ARCHIVE; null otherwise.
+    private final GroupCommitWriter archive;
+    private final ReminderScheduler reminders = new ReminderScheduler();
+    private final DueDateIndex dueIndex = new DueDateIndex();
+    private final StripedTaskStore tasks = new StripedTaskStore();
+    private final DescriptionIndex descriptionIndex = new DescriptionIndex();
+    // Ids of the stored recurring tasks, whose later occurrences are expanded when a due-date window is queried.
+    private final Set<Integer> recurringIds = ConcurrentHashMap.newKeySet();
+    private final TaskMetrics metrics = new TaskMetrics();
+    private final TaskQueryPlanner planner = new TaskQueryPlanner(tasks, dueIndex, descriptionIndex, recurringIds);
+    // Reminders go out through the sinks off the scheduler's threads, so a slow sink never delays the next one.
+    private final ReminderDispatcher reminderSinks = ReminderDispatcher.shared();
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final TaskEventRing events = new TaskEventRing(EVENT_RING_CAPACITY);
+    // One shared action for every reminder; it looks the task up when the reminder fires.
+    private final IntConsumer dueReminder = this::announceDue;
+    private final AtomicBoolean loadStarted = new AtomicBoolean();
+    private final ExpirySweeper sweeper = new ExpirySweeper(this::nextExpiry, this::sweepExpired);
+    private final Thread flushOnExit;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // The reminder service's thread once started; close() stops it.
+    private volatile Thread reminderThread;
+    // The listener shareStore() gave the id allocator, taken back by close().
+    private volatile TaskIdAllocator.LeaseListener leaseListener;
+    // Held while a cold snapshot month is read into the store and while compaction takes its snapshot.
+    private final Object segmentLock = new Object();
+    // Caps the tasks kept in memory with -Dtaskmanager.cacheTasks, evicting whole months.
+    private final SegmentCache cache = SegmentCache.fromSystemProperty();
+    // Read-held by anything that needs the months it loaded to stay loaded; eviction only ever tries for the write lock.
+    private final StampedLock residentLock = new StampedLock();
+    // Month key of every task evicted to a cold month, so a lookup by id reads back just that month.
+    private final IntIntMap evictedIds = new IntIntMap();
+    // Months read back from their files and not changed since, which eviction can drop without writing.
+    private final Set<YearMonth> cleanMonths = ConcurrentHashMap.newKeySet();
+    // Set with writers paused, so every mutation after the index is built also updates it.
+    private volatile boolean descriptionsIndexed;
+
+    // Progress of a background load: loaded of total tasks are in the store; total is -1 while the files are read.
+    @FunctionalInterface
+    public interface LoadProgress {
+        void update(int loaded, int total);
+    }
+
+    // Uses the backend chosen with -Dtaskmanager.storage (text by default) in the working directory.
     public TaskManager() {
-        this.tasks = loadTasks();
-        removeExpiredTasks();
-        startReminderService();
+        this(StorageFormat.fromSystemProperty());
+    }
+
+    public TaskManager(StorageFormat format) {
+        this(format.defaultFile(), format);
+    }
+
+    public TaskManager(String filePath, StorageFormat format) {
+        this(filePath, format, DurabilityPolicy.fromSystemProperty());
+    }
+
+    public TaskManager(String filePath, StorageFormat format, DurabilityPolicy durability) {
+        this(filePath, format, durability, ExpiryPolicy.fromSystemProperty());
+    }
+
+    public TaskManager(String filePath, StorageFormat format, DurabilityPolicy durability, ExpiryPolicy expiry) {
+        this(filePath, format, durability, expiry, true);
+    }
+
+    private TaskManager(String filePath, StorageFormat format, DurabilityPolicy durability, ExpiryPolicy expiry, boolean load) {
+        this.filePath = filePath;
+        this.journal = new TaskJournal(filePath, format, TaskJournal.DEFAULT_COMPACT_THRESHOLD, durability, metrics);
+        this.archive = expiry == ExpiryPolicy.ARCHIVE ? new GroupCommitWriter(Paths.get(filePath + ".archive"), durability) : null;
+        metrics.setCacheCapacity(cache.capacity());
+        // Journal writes are asynchronous, so push out whatever is still queued when the JVM exits.
+        this.flushOnExit = new Thread(this::flush, "task-journal-flush");
+        Runtime.getRuntime().addShutdownHook(flushOnExit);
+        if (load) {
+            loadStarted.set(true);
+            registerMetrics();
+            loadTasks();
+            shareStore();
+            compactIfNeeded();
+            evictIfNeeded();
+            sweeper.start();
+            startReminderService();
+        }
+    }
+
+    // Opens the default store without reading it, so a GUI can show its window before calling loadInBackground().
+    public static TaskManager unloaded() {
+        StorageFormat format = StorageFormat.fromSystemProperty();
+        return new TaskManager(format.defaultFile(), format, DurabilityPolicy.fromSystemProperty(),
+                ExpiryPolicy.fromSystemProperty(), false);
+    }
+
+    /**
+     * Loads an {@link #unloaded()} manager on a background thread. Tasks go into the store in
+     * batches that listeners see as they land; the expiry sweep and reminders start once
+     * everything is in. New tasks must not be added before the returned future completes,
+     * since ids are only safe to hand out once the stored high-water mark has been read.
+     */
+    public CompletableFuture<Void> loadInBackground(LoadProgress progress) {
+        if (!loadStarted.compareAndSet(false, true)) {
+            throw new IllegalStateException("Tasks are already loaded.");
+        }
+        return CompletableFuture.runAsync(() -> {
+            progress.update(0, -1);
+            // Starting the platform MBean server takes a noticeable moment, so it happens here too.
+            registerMetrics();
+            List<Task> loadedTasks = readTasks();
+            progress.update(0, loadedTasks.size());
+            for (int from = 0; from < loadedTasks.size(); from += LOAD_BATCH) {
+                List<Task> batch = loadedTasks.subList(from, Math.min(from + LOAD_BATCH, loadedTasks.size()));
+                for (Task task : batch) {
+                    tasks.put(task, this::applyLoaded);
+                }
+                dueIndex.addAll(batch);
+                progress.update(from + batch.size(), loadedTasks.size());
+            }
+            shareStore();
+            compactIfNeeded();
+            evictIfNeeded();
+            sweeper.start();
+            // Arms reminders for everything inside the horizon, which the batches above left alone.
+            startReminderService();
+            // Built while the add button is still disabled, so the pause it takes goes unnoticed.
+            indexDescriptions();
+        }, TaskManager::startLoader);
+    }
+
+    /**
+     * Reads every snapshot month that startup left on disk, on a background thread, e.g. for a
+     * view that lists all tasks. Listeners see the tasks as they are added. Does nothing when the
+     * cache is bounded, since the months would only be evicted again.
+     */
+    public CompletableFuture<Void> loadAllInBackground() {
+        if (cache.isBounded()) return CompletableFuture.completedFuture(null);
+        return CompletableFuture.runAsync(() -> resident(null, () -> null), TaskManager::startLoader);
     }
 
-    // Use this method to fetch the list of tasks
+    private static void startLoader(Runnable runnable) {
+        Thread loader = new Thread(runnable, "task-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Use this method to fetch a read-only snapshot of the tasks, ordered by id
     public List<Task> getTasks() {
-        return tasks;
+        long start = System.nanoTime();
+        TaskColumns cold = new TaskColumns();
+        ColumnarTaskList loaded = scanAll(tasks::snapshot, month -> month.forEach(cold::put));
+        List<Task> all = loaded.plus(cold).sortedById();
+        metrics.recordQuery(System.nanoTime() - start);
+        return all;
     }
 
-    public void addTask(Task task) {
-        tasks.add(task);
-        saveTasks();
-        scheduleReminder(task);
+    // Tasks of the given type that are not yet due, ordered by id; filtered on the stored columns.
+    public List<Task> getTasksOfType(Class<? extends Task> type) {
+        return getTasksMatching(TaskQuery.all().ofType(type).dueFrom(LocalDateTime.now()).rowFilter()).sortedById();
     }
 
-    public void showTasks() {
-        removeExpiredTasks();
-        if (tasks.isEmpty()) {
-            System.out.println("\n📌 No tasks available.");
-            return;
+    /**
+     * The tasks matching query, in its order and limited to its page; built lazily as the stream
+     * is consumed. With a bounded cache, months can be evicted while the stream is still being
+     * read, so a caller that needs every match holds on to a {@link #page} instead.
+     */
+    public Stream<Task> query(TaskQuery query) {
+        return resident(query.dueBefore(), () -> {
+            if (query.hasText()) {
+                indexDescriptions();
+            }
+            return planner.run(query, planner.plan(query));
+        });
+    }
+
+    // One page of query, fetching one extra match to tell whether another page follows.
+    public TaskPage page(TaskQuery query) {
+        return resident(query.dueBefore(), () -> {
+            long start = System.nanoTime();
+            if (query.hasText()) {
+                indexDescriptions();
+            }
+            TaskQuery.Plan plan = planner.plan(query);
+            int fetch = query.limit() == Integer.MAX_VALUE ? Integer.MAX_VALUE : query.limit() + 1;
+            List<Task> found = planner.run(query.page(query.offset(), fetch), plan).toList();
+            boolean hasMore = found.size() > query.limit();
+            List<Task> page = hasMore ? found.subList(0, query.limit()) : found;
+            touchAll(page);
+            metrics.recordQuery(System.nanoTime() - start);
+            return new TaskPage(page, query, hasMore, plan);
+        });
+    }
+
+    // How query would be answered, without running it.
+    public TaskQuery.Plan explain(TaskQuery query) {
+        return resident(query.dueBefore(), () -> {
+            if (query.hasText()) {
+                indexDescriptions();
+            }
+            return planner.plan(query);
+        });
+    }
+
+    // Prints one page of query as a table and returns it, so the caller can ask for the next one.
+    public TaskPage showQuery(String title, TaskQuery query) {
+        TaskPage page = page(query);
+        if (page.isEmpty()) {
+            System.out.println(query.offset() == 0 ? "\n📌 No tasks found." : "\n📌 No more tasks.");
+        } else {
+            printPage(title, page);
         }
-        printTaskTable("📋 ALL TASKS", tasks);
+        return page;
     }
 
-    public void showWorkTasks() {
-        showTasksByType(WorkTask.class, "💼 WORK TASKS");
+    // Tasks accepted by filter, in no particular order; filtered on the stored columns without building tasks.
+    public ColumnarTaskList getTasksMatching(TaskRowFilter filter) {
+        long start = System.nanoTime();
+        TaskColumns cold = new TaskColumns();
+        ColumnarTaskList loaded = scanAll(() -> tasks.snapshot().filter(filter), month -> {
+            for (Task task : month) {
+                if (filter.test(task.getId(), BinaryTaskFormat.toEpochSecond(task.getDueDate()),
+                        task.getPriority(), BinaryTaskFormat.typeOf(task))) {
+                    cold.put(task);
+                }
+            }
+        });
+        ColumnarTaskList matching = loaded.plus(cold);
+        metrics.recordQuery(System.nanoTime() - start);
+        return matching;
     }
 
-    public void showPersonalTasks() {
-        showTasksByType(PersonalTask.class, "🏡 PERSONAL TASKS");
+    public void addTaskListener(TaskChangeListener listener) {
+        listeners.add(listener);
     }
 
-    public void showUrgentTasks() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime next24Hours = now.plusHours(24);
-        List<Task> urgentTasks = new ArrayList<>();
+    public void removeTaskListener(TaskChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Follows the changes made from now on: tasks added, updated, deleted and expired, and
+     * reminders sent, including changes other processes make to a shared store. Loading and
+     * eviction only move tasks in and out of memory and are not events. A subscriber that
+     * falls more than the ring's capacity behind misses the oldest events and rebuilds from
+     * {@link #getTasks()}; it never slows the changes down.
+     */
+    public TaskEventRing.Subscription subscribe() {
+        return events.subscribe();
+    }
+
+    public TaskEventRing getEvents() {
+        return events;
+    }
+
+    /**
+     * Constant-time lookup through the id index; a task the cache evicted is read back with the
+     * rest of its month. Any other id not in memory is looked for through the cold months one at
+     * a time, as deletes do, so nothing has to remember the ids a scan handed out. Null if no
+     * month holds it.
+     */
+    public Task getTask(int id) {
+        Task task = tasks.get(id);
+        if (task != null) {
+            metrics.recordCacheLookup(true);
+            touch(task);
+            return task;
+        }
+        long stamp = residentLock.readLock();
+        try {
+            boolean read = faultIn(id) || loadColdSegmentWith(id);
+            metrics.recordCacheLookup(!read);
+            task = read ? tasks.get(id) : null;
+        } finally {
+            residentLock.unlockRead(stamp);
+        }
+        evictIfNeeded();
+        return task;
+    }
+
+    public boolean containsTask(int id) {
+        return getTask(id) != null;
+    }
+
+    // Only what is in memory, never reading from disk; the GUI list calls this on the FX thread.
+    Task residentTask(int id) {
+        return tasks.get(id);
+    }
+
+    // Counts the tasks in cold snapshot months too, from the manifest, without reading them.
+    public int size() {
+        return tasks.size() + journal.coldTaskCount();
+    }
+
+    // Tasks due in [from, to), earliest first, answered from the due-date index; a recurring task appears once per occurrence.
+    public List<Task> getTasksDueBetween(LocalDateTime from, LocalDateTime to) {
+        return resident(to, () -> {
+            long start = System.nanoTime();
+            List<Task> due = withOccurrences(lookup(dueIndex.dueBetween(from, to)), from, to);
+            metrics.recordQuery(System.nanoTime() - start);
+            return due;
+        });
+    }
+
+    public List<Task> getTasksDueBefore(LocalDateTime time) {
+        return resident(time, () -> {
+            long start = System.nanoTime();
+            List<Task> due = withOccurrences(lookup(dueIndex.dueBefore(time)), null, time);
+            metrics.recordQuery(System.nanoTime() - start);
+            return due;
+        });
+    }
+
+    // With a bounded cache this only covers the months in memory, since loading the rest would evict them again.
+    public DueDateIndex getDueDateIndex() {
+        return cache.isBounded() ? dueIndex : resident(null, () -> dueIndex);
+    }
+
+    // Ids of tasks whose descriptions have every word of text, ascending; "word*" matches any word starting with "word".
+    public int[] searchDescriptions(String text) {
+        long start = System.nanoTime();
+        List<String> terms = DescriptionIndex.terms(text);
+        IntStream.Builder cold = IntStream.builder();
+        int[] indexed = scanAll(() -> {
+            indexDescriptions();
+            return descriptionIndex.search(terms);
+        }, month -> {
+            for (Task task : month) {
+                if (DescriptionIndex.matches(task.getDescription(), terms)) {
+                    cold.add(task.getId());
+                }
+            }
+        });
+        int[] ids = IntStream.concat(IntStream.of(indexed), cold.build()).sorted().distinct().toArray();
+        metrics.recordQuery(System.nanoTime() - start);
+        return ids;
+    }
+
+    // Like getDueDateIndex(), only the months in memory when the cache is bounded.
+    public DescriptionIndex getDescriptionIndex() {
+        return cache.isBounded() ? descriptionIndex : resident(null, () -> descriptionIndex);
+    }
+
+    // Re-creates the description index from the store, with writers paused so no change slips between the two.
+    public void rebuildDescriptionIndex() {
+        tasks.withWritesPaused(snapshot -> {
+            descriptionIndex.rebuild(snapshot.sortedById());
+            descriptionsIndexed = true;
+        });
+    }
+
+    // The description index is only built once something searches it, so loading never pays for it.
+    private void indexDescriptions() {
+        if (descriptionsIndexed) return;
+        synchronized (descriptionIndex) {
+            if (!descriptionsIndexed) {
+                rebuildDescriptionIndex();
+            }
+        }
+    }
+
+    // Live counters and latencies; also registered as an MXBean with the platform MBean server.
+    public TaskMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Blocks until every change made so far has been written to disk.
+    public void flush() {
+        journal.flush();
+        if (archive != null) {
+            archive.flush();
+        }
+    }
+
+    /**
+     * Stops the expiry sweep, the reminders and the journal, writing out every change first.
+     * The manager must not be used afterwards. Only needed by code that opens several managers
+     * in one JVM, such as tests and benchmarks; a manager that lives as long as the JVM is
+     * flushed by its shutdown hook.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        sweeper.stop();
+        Thread reminderService = reminderThread;
+        if (reminderService != null) {
+            reminderService.interrupt();
+        }
+        reminders.close();
+        journal.close();
+        if (archive != null) {
+            archive.close();
+        }
+        TaskIdAllocator.LeaseListener listener = leaseListener;
+        if (listener != null) {
+            TaskIdAllocator.shared().removeLeaseListener(listener);
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(flushOnExit);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down and runs the hook anyway.
+        }
+        unregisterMetrics();
+    }
+
+    public void addTask(Task task) {
+        long start = System.nanoTime();
+        // Waits for room in the journal queue before any lock is taken; see GroupCommitWriter.awaitCapacity().
+        journal.awaitCapacity();
+        long stamp = residentLock.readLock();
+        try {
+            loadSegmentFor(task.getDueDate());
+            tasks.put(task, this::applyPut);
+        } finally {
+            residentLock.unlockRead(stamp);
+        }
+        compactIfNeeded();
+        evictIfNeeded();
+        metrics.recordAdd(System.nanoTime() - start);
+    }
+
+    /**
+     * Adds every task with one journal write, and one sync when the durability policy syncs per
+     * batch. Listeners still see the tasks one at a time. The tasks must be built before the
+     * call, since building one may lease ids, which waits for the journal.
+     */
+    public void addTasks(List<Task> batch) {
+        journal.awaitCapacity();
+        journal.holdWrites();
+        try {
+            long stamp = residentLock.readLock();
+            try {
+                for (Task task : batch) {
+                    long start = System.nanoTime();
+                    loadSegmentFor(task.getDueDate());
+                    tasks.put(task, this::applyPut);
+                    metrics.recordAdd(System.nanoTime() - start);
+                }
+            } finally {
+                residentLock.unlockRead(stamp);
+            }
+        } finally {
+            journal.releaseWrites();
+        }
+        compactIfNeeded();
+        evictIfNeeded();
+    }
 
-        for (Task task : tasks) {
-            if (task.getDueDate().isBefore(next24Hours) && !task.isExpired()) {
-                urgentTasks.add(task);
+    // Replaces the details of an existing task, keeping its id and type.
+    public boolean updateTask(int id, String description, LocalDateTime dueDate, int priority) throws InvalidTaskException {
+        long start = System.nanoTime();
+        journal.awaitCapacity();
+        long stamp = residentLock.readLock();
+        try {
+            while (true) {
+                Task current = tasks.get(id);
+                if (current == null) {
+                    if (faultIn(id) || loadColdSegmentWith(id)) continue;
+                    return false;
+                }
+
+                Task updated = current.copyWith(description, dueDate, priority);
+                loadSegmentFor(dueDate);
+                if (tasks.replace(current, updated, this::applyPut)) break;
             }
+        } finally {
+            residentLock.unlockRead(stamp);
+        }
+        compactIfNeeded();
+        evictIfNeeded();
+        metrics.recordUpdate(System.nanoTime() - start);
+        return true;
+    }
+
+    // The listings below print a page at a time; more is asked after each page whether to print the next.
+    public void showTasks(BooleanSupplier more) {
+        // The query reads cold months too; the store alone only holds the hot window.
+        TaskPage page = page(TaskQuery.all().page(0, CONSOLE_PAGE));
+        if (page.isEmpty()) {
+            System.out.println("\n📌 No tasks available.");
+        } else {
+            printPage("📋 ALL TASKS", page);
+            showPages("📋 ALL TASKS", page, more);
         }
+    }
+
+    public void showWorkTasks(BooleanSupplier more) {
+        showTasksByType(WorkTask.class, "💼 WORK TASKS", more);
+    }
 
-        if (urgentTasks.isEmpty()) {
+    public void showPersonalTasks(BooleanSupplier more) {
+        showTasksByType(PersonalTask.class, "🏡 PERSONAL TASKS", more);
+    }
+
+    public void showUrgentTasks(BooleanSupplier more) {
+        LocalDateTime now = LocalDateTime.now();
+        TaskQuery urgent = TaskQuery.all().dueBetween(now, now.plusHours(24))
+                .sortedBy(TaskQuery.Sort.DUE_DATE).page(0, CONSOLE_PAGE);
+        TaskPage page = page(urgent);
+        if (page.isEmpty()) {
             System.out.println("\n✅ No urgent tasks found.");
         } else {
-            printTaskTable("⏳ URGENT TASKS (DUE IN 24 HOURS)", urgentTasks);
+            printPage("⏳ URGENT TASKS (DUE IN 24 HOURS)", page);
+            showPages("⏳ URGENT TASKS (DUE IN 24 HOURS)", page, more);
+        }
+    }
+
+    // Prints the pages after page for as long as more follow and more says to go on.
+    public void showPages(String title, TaskPage page, BooleanSupplier more) {
+        while (page.hasMore() && more.getAsBoolean()) {
+            page = showQuery(title, page.next());
         }
     }
 
     public void deleteTask(int id) {
-        boolean removed = tasks.removeIf(task -> task.getId() == id);
-        if (removed) {
-            saveTasks();
+        if (removeTask(id) != null) {
             System.out.println("\n✅ Task deleted successfully.");
         } else {
             System.out.println("\n❌ Task not found.");
         }
     }
 
-    private void showTasksByType(Class<?> type, String title) {
-        List<Task> filteredTasks = new ArrayList<>();
-        for (Task task : tasks) {
-            if (type.isInstance(task) && !task.isExpired()) {
-                filteredTasks.add(task);
+    // Deletes every listed id in O(k) with one journal write; returns how many tasks were actually removed.
+    public int deleteTasks(int[] ids) {
+        int removed = 0;
+        journal.awaitCapacity();
+        journal.holdWrites();
+        try {
+            for (int id : ids) {
+                long start = System.nanoTime();
+                if (removeLoaded(id) != null) {
+                    removed++;
+                }
+                metrics.recordDelete(System.nanoTime() - start);
             }
+        } finally {
+            journal.releaseWrites();
         }
+        compactIfNeeded();
+        evictIfNeeded();
+        return removed;
+    }
 
-        if (filteredTasks.isEmpty()) {
-            System.out.println("\n📌 No tasks found.");
-        } else {
-            printTaskTable(title, filteredTasks);
+    private Task removeTask(int id) {
+        long start = System.nanoTime();
+        journal.awaitCapacity();
+        Task removed = removeLoaded(id);
+        compactIfNeeded();
+        evictIfNeeded();
+        metrics.recordDelete(System.nanoTime() - start);
+        return removed;
+    }
+
+    // Removes id, reading back its month first if it was evicted, or the cold month holding it if it is not in memory at all.
+    private Task removeLoaded(int id) {
+        long stamp = residentLock.readLock();
+        try {
+            Task removed = tasks.remove(id, this::applyRemove);
+            if (removed == null && (faultIn(id) || loadColdSegmentWith(id))) {
+                removed = tasks.remove(id, this::applyRemove);
+            }
+            return removed;
+        } finally {
+            residentLock.unlockRead(stamp);
         }
     }
 
-    private void removeExpiredTasks() {
-        tasks.removeIf(Task::isExpired);
-        saveTasks();
+    // Index, journal and reminder updates run under the task's stripe lock, in write order.
+    private void applyPut(Task previous, Task task) {
+        stored(previous, task, true);
+    }
+
+    // A change another process journaled only has to reach memory.
+    private void applyRemotePut(Task previous, Task task) {
+        stored(previous, task, false);
     }
 
-    private void saveTasks() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(FILE_PATH))) {
-            for (Task task : tasks) {
-                writer.println(task.toFileString());
+    private void stored(Task previous, Task task, boolean journaled) {
+        trackRecurring(previous, task);
+        if (previous != null) {
+            dueIndex.remove(previous);
+            metrics.taskRemoved(previous);
+            if (monthKey(previous.getDueDate()) != monthKey(task.getDueDate())) {
+                // Tells a restart that the old month's file may still hold this task.
+                if (journaled) {
+                    journal.appendDelete(previous);
+                }
+                changed(previous);
             }
-        } catch (IOException e) {
-            System.out.println("Error saving tasks: " + e.getMessage());
+        }
+        touch(task);
+        changed(task);
+        dueIndex.add(task);
+        sweeper.dueAt(task.getDueDate().plusSeconds(EXPIRY_GRACE_SECONDS));
+        if (descriptionsIndexed) {
+            descriptionIndex.update(previous, task);
+        }
+        metrics.taskStored(task);
+        scheduleReminder(task);
+        if (journaled) {
+            journal.appendAdd(task);
+        }
+        events.publish(previous == null ? TaskEvent.Type.ADDED : TaskEvent.Type.UPDATED, task, previous);
+        for (TaskChangeListener listener : listeners) {
+            listener.taskStored(previous, task);
         }
     }
 
-    private List<Task> loadTasks() {
-        List<Task> loadedTasks = new ArrayList<>();
-        File file = new File(FILE_PATH);
-        if (!file.exists()) return loadedTasks;
+    private void applyRemove(Task task) {
+        removed(task, true, TaskEvent.Type.DELETED);
+    }
+
+    private void applyExpired(Task task) {
+        removed(task, true, TaskEvent.Type.EXPIRED);
+    }
+
+    private void applyRemoteRemove(Task task) {
+        removed(task, false, TaskEvent.Type.DELETED);
+    }
+
+    private void removed(Task task, boolean journaled, TaskEvent.Type type) {
+        trackRecurring(task, null);
+        dueIndex.remove(task);
+        if (descriptionsIndexed) {
+            descriptionIndex.remove(task);
+        }
+        metrics.taskRemoved(task);
+        reminders.cancel(task.getId());
+        changed(task);
+        if (journaled) {
+            journal.appendDelete(task);
+        }
+        events.publish(type, task, null);
+        for (TaskChangeListener listener : listeners) {
+            listener.taskRemoved(task);
+        }
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILE_PATH))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
+    // An evicted task stays in its month's file, so it skips the journal; listeners are told it left memory, not that it was deleted.
+    private void applyEvicted(Task task) {
+        trackRecurring(task, null);
+        dueIndex.remove(task);
+        if (descriptionsIndexed) {
+            descriptionIndex.remove(task);
+        }
+        metrics.taskRemoved(task);
+        reminders.cancel(task.getId());
+        synchronized (evictedIds) {
+            evictedIds.put(task.getId(), monthKey(task.getDueDate()));
+        }
+        for (TaskChangeListener listener : listeners) {
+            listener.taskEvicted(task);
+        }
+    }
+
+    // A loaded task is already on disk, so it skips the journal; reminders are armed once loading ends.
+    private void applyLoaded(Task previous, Task task) {
+        trackRecurring(previous, task);
+        if (previous != null) {
+            metrics.taskRemoved(previous);
+        }
+        metrics.taskStored(task);
+        touch(task);
+        // A search during the load may already have built the index.
+        if (descriptionsIndexed) {
+            descriptionIndex.update(previous, task);
+        }
+        for (TaskChangeListener listener : listeners) {
+            listener.taskStored(previous, task);
+        }
+    }
+
+    private void showTasksByType(Class<? extends Task> type, String title, BooleanSupplier more) {
+        showPages(title, showQuery(title, TaskQuery.all().ofType(type).dueFrom(LocalDateTime.now()).page(0, CONSOLE_PAGE)), more);
+    }
+
+    // When the next expiry sweep would find work: the earliest due date plus the grace period.
+    private LocalDateTime nextExpiry() {
+        LocalDateTime earliest = dueIndex.earliestDue();
+        return earliest == null ? null : earliest.plusSeconds(EXPIRY_GRACE_SECONDS);
+    }
+
+    /**
+     * Runs on the expiry sweeper's thread. Takes the expired front of the due-date index a batch
+     * at a time, removes those tasks and moves recurring ones on to their next occurrence, so the
+     * cost follows the number of expired tasks and the journal only gets their delete records.
+     * Package-private so tests can sweep as of a time of their choosing.
+     */
+    void sweepExpired(LocalDateTime now) {
+        LocalDateTime cutoff = now.minusSeconds(EXPIRY_GRACE_SECONDS);
+        long cutoffSecond = DueDateIndex.ceilEpochSecond(cutoff);
+        TaskRowFilter expired = (taskId, due, priority, type) -> due < cutoffSecond && type != BinaryTaskFormat.TYPE_RECURRING;
+        int[] previous = null;
+        while (true) {
+            int[] batch = dueIndex.idsBetween(null, cutoff, false).limit(EXPIRY_BATCH).toArray();
+            // A batch that comes back unchanged holds only tasks that cannot be removed yet.
+            if (batch.length == 0 || Arrays.equals(batch, previous)) break;
+            journal.awaitCapacity();
+            if (archive != null) {
+                archiveExpired(batch, cutoffSecond);
+            }
+            int removed = 0;
+            for (int id : batch) {
+                // Skip tasks that were updated to a new due date since the index was read.
+                if (tasks.remove(id, expired, this::applyExpired) != null) {
+                    removed++;
+                } else {
+                    rollForward(id, now);
+                }
+            }
+            metrics.recordExpired(removed);
+            compactIfNeeded();
+            if (batch.length < EXPIRY_BATCH) break;
+            previous = batch;
+        }
+        // Every task due before the cutoff is gone or moved on, so the months before it hold nothing live.
+        journal.dropSegmentsBefore(YearMonth.from(cutoff));
+    }
+
+    // Archived and synced before removal, so a crash in between leaves a task archived and still stored, never lost.
+    private void archiveExpired(int[] batch, long cutoffSecond) {
+        for (int id : batch) {
+            Task task = tasks.get(id);
+            if (task != null && !(task instanceof RecurringTask)
+                    && BinaryTaskFormat.toEpochSecond(task.getDueDate()) < cutoffSecond) {
+                archive.append(task.toFileString());
+            }
+        }
+        archive.flush();
+    }
+
+    // Moves a recurring task whose stored occurrence is before time on to its next one; anything else is left alone.
+    private void rollForward(int id, LocalDateTime time) {
+        journal.awaitCapacity();
+        long stamp = residentLock.readLock();
+        try {
+            while (true) {
+                if (!(tasks.get(id) instanceof RecurringTask current)) return;
+                RecurringTask next = current.rolledForward(time);
+                if (next != current) {
+                    loadSegmentFor(next.getDueDate());
+                }
+                if (next == current || tasks.replace(current, next, this::applyPut)) return;
+            }
+        } finally {
+            residentLock.unlockRead(stamp);
+        }
+    }
+
+    private void trackRecurring(Task previous, Task task) {
+        if (previous instanceof RecurringTask && !(task instanceof RecurringTask)) {
+            recurringIds.remove(previous.getId());
+        }
+        if (task instanceof RecurringTask) {
+            recurringIds.add(task.getId());
+        }
+    }
+
+    // Replaces the recurring tasks among found with each of their occurrences in [from, to), re-sorted by due date.
+    private List<Task> withOccurrences(List<Task> found, LocalDateTime from, LocalDateTime to) {
+        if (recurringIds.isEmpty()) return found;
+        List<Task> all = new ArrayList<>(found.size());
+        for (Task task : found) {
+            if (!(task instanceof RecurringTask)) {
+                all.add(task);
+            }
+        }
+        planner.occurrencesBetween(from, to).forEach(all::add);
+        all.sort(Comparator.comparing(Task::getDueDate).thenComparingInt(Task::getId));
+        return all;
+    }
+
+    // Each mutation queues one journal record; the snapshot is only rewritten by compaction.
+    private void compactIfNeeded() {
+        if (!journal.needsCompaction()) return;
+        // Writers are paused so the snapshot lines up exactly with the rotated journal, and no
+        // cold month is read meanwhile, since the journal only writes the months loaded so far.
+        journal.compact(rotate -> {
+            synchronized (segmentLock) {
+                tasks.withWritesPaused(rotate::accept);
+            }
+        });
+    }
+
+    /**
+     * Applies what other processes sharing the file journal from here on, and leases ids in
+     * step with them. Their changes read a cold month in first, like local ones, and never
+     * overwrite a task that has a change of this process still waiting to be journaled.
+     */
+    private void shareStore() {
+        journal.follow(new TaskJournal.RemoteChanges() {
+            @Override
+            public void stored(Task task) {
+                long stamp = residentLock.readLock();
+                try {
+                    loadSegmentFor(task.getDueDate());
+                    tasks.putIf(id -> !journal.hasPending(id), task, TaskManager.this::applyRemotePut);
+                } finally {
+                    residentLock.unlockRead(stamp);
+                }
+            }
+
+            @Override
+            public void removed(int id, YearMonth month) {
+                long stamp = residentLock.readLock();
                 try {
-                    Task task = Task.fromFileString(line);
-                    loadedTasks.add(task);
-                    scheduleReminder(task);
-                } catch (InvalidTaskException e) {
-                    System.out.println("Skipping invalid task entry: " + e.getMessage());
+                    if (month != null) {
+                        loadSegmentFor(month.atDay(1).atStartOfDay());
+                    }
+                    tasks.remove(id, (taskId, due, priority, type) -> !journal.hasPending(taskId),
+                            TaskManager.this::applyRemoteRemove);
+                } finally {
+                    residentLock.unlockRead(stamp);
                 }
             }
+
+            @Override
+            public void leased(int from, int highWater) {
+                TaskIdAllocator.shared().advanceTo(from, highWater);
+            }
+        });
+        leaseListener = journal.leaseListener();
+        TaskIdAllocator.shared().setLeaseListener(leaseListener);
+    }
+
+    /**
+     * Runs read with the cold months before to loaded, or all of them for a null to, and keeps
+     * them from being evicted until it returns; then lets the cache shrink back to its capacity.
+     * Counts a cache miss if any month had to be read.
+     */
+    private <T> T resident(LocalDateTime to, Supplier<T> read) {
+        T result;
+        long stamp = residentLock.readLock();
+        try {
+            metrics.recordCacheLookup(!loadSegmentsBefore(to));
+            result = read.get();
+        } finally {
+            residentLock.unlockRead(stamp);
+        }
+        evictIfNeeded();
+        return result;
+    }
+
+    /**
+     * For reads that cover every task. Without a cache bound it loads every cold month, like
+     * resident(null). With one, read runs over the tasks in memory, then each cold month is read
+     * from its file and handed to month without being loaded, so the scan holds one extra month
+     * at a time instead of pulling the whole store past the cache capacity.
+     */
+    private <T> T scanAll(Supplier<T> read, Consumer<List<Task>> month) {
+        if (!cache.isBounded()) return resident(null, read);
+        long stamp = residentLock.readLock();
+        try {
+            T result;
+            List<YearMonth> cold;
+            // Loading takes segmentLock too, so no month is both in result and still listed cold.
+            synchronized (segmentLock) {
+                result = read.get();
+                cold = List.copyOf(journal.coldSegments());
+            }
+            for (YearMonth next : cold) {
+                month.accept(readCold(next));
+            }
+            metrics.recordCacheLookup(cold.isEmpty());
+            return result;
+        } finally {
+            residentLock.unlockRead(stamp);
+        }
+    }
+
+    // A cold month's tasks without loading it; once a writer has loaded it, they come from memory instead.
+    private List<Task> readCold(YearMonth month) {
+        try {
+            SnapshotContents contents = journal.peekSegment(month);
+            if (contents != null) return contents.tasks();
         } catch (IOException e) {
             System.out.println("Error loading tasks: " + e.getMessage());
+            return List.of();
+        }
+        return lookup(dueIndex.dueBetween(month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay()));
+    }
+
+    // Reads the cold snapshot months that hold tasks due before to, or every cold month for a null to; false if none.
+    private boolean loadSegmentsBefore(LocalDateTime to) {
+        NavigableSet<YearMonth> cold = journal.coldSegments();
+        if (cold.isEmpty()) return false;
+        boolean read = false;
+        for (YearMonth month : List.copyOf(to == null ? cold : cold.headSet(YearMonth.from(to), true))) {
+            read |= loadSegment(month);
+        }
+        return read;
+    }
+
+    // Loads the cold month that holds id, looking through them one at a time; false if none does, so the task is really gone.
+    private boolean loadColdSegmentWith(int id) {
+        for (YearMonth month : List.copyOf(journal.coldSegments())) {
+            for (Task task : readCold(month)) {
+                if (task.getId() == id) {
+                    loadSegment(month);
+                    return true;
+                }
+            }
         }
+        return false;
+    }
 
+    // A task is only stored in a month once the rest of that month is in memory, or compaction would drop the rest.
+    private void loadSegmentFor(LocalDateTime due) {
+        YearMonth month = YearMonth.from(due);
+        if (journal.coldSegments().contains(month)) {
+            loadSegment(month);
+        }
+    }
+
+    // Reads back the month the cache evicted id to; false if id was not evicted.
+    private boolean faultIn(int id) {
+        int month;
+        synchronized (evictedIds) {
+            month = evictedIds.get(id);
+        }
+        return month != IntIntMap.MISSING && loadSegment(YearMonth.of(month / 12, month % 12 + 1));
+    }
+
+    // Callers hold residentLock's read lock, so the month stays loaded until they are done with it.
+    private boolean loadSegment(YearMonth month) {
+        synchronized (segmentLock) {
+            SnapshotContents contents;
+            try {
+                contents = journal.readSegment(month);
+            } catch (IOException e) {
+                System.out.println("Error loading tasks: " + e.getMessage());
+                return false;
+            }
+            // Another caller got to it first.
+            if (contents == null) return false;
+            boolean matchesFile = true;
+            for (Task task : contents.tasks()) {
+                // A task already in memory is newer than its copy in the file.
+                if (tasks.get(task.getId()) != null) {
+                    matchesFile = false;
+                    continue;
+                }
+                tasks.put(task, (previous, loaded) -> {
+                    applyLoaded(previous, loaded);
+                    dueIndex.add(loaded);
+                    synchronized (evictedIds) {
+                        evictedIds.remove(loaded.getId());
+                    }
+                });
+            }
+            if (matchesFile && cache.isBounded()) {
+                cleanMonths.add(month);
+            }
+            metrics.recordFaultIn(contents.tasks().size());
+            return true;
+        }
+    }
+
+    /**
+     * Writes months back to their segment files and drops them from memory until the store is
+     * within the cache capacity, picking them by CLOCK. Months up to the end of the hot window
+     * are never evicted. Gives up for now while a caller still needs its months loaded or while
+     * a compaction is writing the snapshot; the next call tries again.
+     */
+    private void evictIfNeeded() {
+        if (!cache.isBounded() || metrics.getTaskCount() <= cache.capacity()) return;
+        // Other processes stay off the files while months are written back.
+        journal.whileLocked(this::evictLocked);
+    }
+
+    private void evictLocked() {
+        long stamp = residentLock.tryWriteLock();
+        if (stamp == 0) return;
+        try {
+            synchronized (segmentLock) {
+                if (!journal.canEvict()) return;
+                YearMonth hotThrough = YearMonth.now().plusMonths(HOT_MONTHS);
+                while (metrics.getTaskCount() > cache.capacity()) {
+                    YearMonth victim = cache.victim(month -> month.isAfter(hotThrough));
+                    if (victim == null || !evictSegment(victim)) return;
+                }
+            }
+        } finally {
+            residentLock.unlockWrite(stamp);
+        }
+    }
+
+    // Writes are held off from the index read to the removal, so the file gets exactly the month's tasks.
+    private boolean evictSegment(YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        List<Task> evicted = tasks.removeAll(() -> dueIndex.dueBetween(from, to), monthTasks -> {
+            if (journal.hasPendingIn(month)) return false;
+            // Writers are held off, so a month still marked clean is exactly what its file holds.
+            if (cleanMonths.remove(month) && journal.releaseSegment(month)) return true;
+            try {
+                journal.evictSegment(month, monthTasks);
+                return true;
+            } catch (IOException e) {
+                System.out.println("Error evicting tasks: " + e.getMessage());
+                return false;
+            }
+        }, this::applyEvicted);
+        if (evicted == null) return false;
+        cache.evicted(month);
+        metrics.recordEviction(evicted.size());
+        return true;
+    }
+
+    // Marks the task's month as recently used, when there is a cache to evict from.
+    private void touch(Task task) {
+        if (cache.isBounded()) {
+            cache.touch(YearMonth.from(task.getDueDate()));
+        }
+    }
+
+    // The task's month no longer matches its file.
+    private void changed(Task task) {
+        if (cache.isBounded() && !cleanMonths.isEmpty()) {
+            cleanMonths.remove(YearMonth.from(task.getDueDate()));
+        }
+    }
+
+    private void touchAll(List<Task> found) {
+        if (!cache.isBounded()) return;
+        YearMonth last = null;
+        for (Task task : found) {
+            YearMonth month = YearMonth.from(task.getDueDate());
+            if (!month.equals(last)) {
+                cache.touch(month);
+                last = month;
+            }
+        }
+    }
+
+    private static int monthKey(LocalDateTime due) {
+        return due.getYear() * 12 + due.getMonthValue() - 1;
+    }
+
+    private void loadTasks() {
+        List<Task> loadedTasks = readTasks();
+        for (Task task : loadedTasks) {
+            tasks.put(task, (previous, loaded) -> {
+                trackRecurring(previous, loaded);
+                scheduleReminder(loaded);
+                metrics.taskStored(loaded);
+                touch(loaded);
+            });
+        }
+        dueIndex.addAll(loadedTasks);
+    }
+
+    private List<Task> readTasks() {
+        List<Task> loadedTasks = new ArrayList<>();
+        try {
+            // A bounded cache folds journaled changes into the later months on disk rather than loading them.
+            loadedTasks = journal.load(YearMonth.now().plusMonths(HOT_MONTHS), cache.isBounded());
+        } catch (IOException e) {
+            System.out.println("Error loading tasks: " + e.getMessage());
+        }
+
+        TaskJournal.LoadReport report = journal.lastLoad();
+        if (report != null) {
+            metrics.recordLoad(report);
+        }
+        if (report != null && report.tasks() + report.skipped() > 0) {
+            System.out.println("📂 Loaded " + report.tasks() + " tasks in " + report.elapsedMillis() + " ms ("
+                    + report.chunks() + " chunks, " + report.skipped() + " expired or invalid entries skipped)");
+        }
+        if (!journal.coldSegments().isEmpty()) {
+            System.out.println("📂 " + journal.coldTaskCount() + " later tasks in " + journal.coldSegments().size()
+                    + " monthly segments are read when needed");
+        }
+
+        // Resume id allocation after the persisted high-water mark; shareStore() journals every new lease.
+        TaskIdAllocator.shared().advanceTo(journal.nextId());
         return loadedTasks;
     }
 
     public void startReminderService() {
         Thread reminderThread = new Thread(() -> {
-            while (true) {
+            while (!closed.get()) {
                 try {
                     checkForUpcomingTasks();
                     Thread.sleep(60000);
                 } catch (InterruptedException e) {
+                    if (closed.get()) return;
                     System.out.println("Reminder service interrupted!");
                 }
             }
         });
         reminderThread.setDaemon(true);
+        this.reminderThread = reminderThread;
         reminderThread.start();
     }
 
     private void checkForUpcomingTasks() {
         LocalDateTime now = LocalDateTime.now();
-        for (Task task : tasks) {
-            if (!task.isExpired() && task.getDueDate().isBefore(now.plusMinutes(3))) {
-                System.out.println("\n⏳ Reminder: Task '" + task.getDescription() + "' is due soon!");
+        // A long session can run into a month that startup left cold.
+        resident(now.plusMinutes(REMINDER_HORIZON_MINUTES), () -> {
+            // Only the stored occurrence of a recurring task is reminded of; it is rolled forward once announced.
+            for (Task task : lookup(dueIndex.dueBetween(now, now.plusMinutes(3)))) {
+                reminderSinks.dispatch(task, "\n⏳ Reminder: Task '" + task.getDescription() + "' is due soon!");
             }
-        }
+            for (Task task : lookup(dueIndex.dueBetween(now, now.plusMinutes(REMINDER_HORIZON_MINUTES)))) {
+                scheduleReminder(task);
+            }
+            return null;
+        });
     }
 
     private void scheduleReminder(Task task) {
-        long delay = task.getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() - System.currentTimeMillis();
-        
-        if (delay > 0) {
-            Timer timer = new Timer();
-            timer.schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    System.out.println("\n⏳ Reminder: Task '" + task.getDescription() + "' is due now!");
-                }
-            }, delay);
+        long dueMillis = task.getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long now = System.currentTimeMillis();
+
+        if (dueMillis > now && dueMillis - now < REMINDER_HORIZON_MINUTES * 60_000) {
+            reminders.schedule(task.getId(), dueMillis, dueReminder);
+        } else {
+            // Also drops a reminder armed for an earlier due date before an update moved it out of range.
+            reminders.cancel(task.getId());
+        }
+    }
+
+    private void announceDue(int id) {
+        Task task = tasks.get(id);
+        if (task != null) {
+            long dueMillis = task.getDueDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            metrics.recordReminderLag(System.currentTimeMillis() - dueMillis);
+            reminderSinks.dispatch(task, "\n⏳ Reminder: Task '" + task.getDescription() + "' is due now!");
+            events.publish(TaskEvent.Type.REMINDED, task, null);
+            // The occurrence has been announced, so a recurring task moves on and arms its next reminder.
+            if (task instanceof RecurringTask) {
+                rollForward(id, task.getDueDate().plusSeconds(1));
+            }
+        }
+    }
+
+    // Fetches the tasks behind index results, skipping any deleted since the index was read.
+    private List<Task> lookup(int[] ids) {
+        List<Task> found = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Task task = tasks.get(id);
+            if (task != null) {
+                found.add(task);
+            }
+        }
+        touchAll(found);
+        return found;
+    }
+
+    // Exposes the metrics as project.taskmanager:type=TaskManager,file=<path>, replacing an
+    // earlier manager of the same file.
+    private void registerMetrics() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = metricsName();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(metrics, name);
+        } catch (JMException e) {
+            System.out.println("Error registering metrics: " + e.getMessage());
+        }
+    }
+
+    private void unregisterMetrics() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = metricsName();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            System.out.println("Error unregistering metrics: " + e.getMessage());
+        }
+    }
+
+    private ObjectName metricsName() throws JMException {
+        return new ObjectName("project.taskmanager:type=TaskManager,file=" + ObjectName.quote(filePath));
+    }
+
+    private void printPage(String title, TaskPage page) {
+        printTaskTable(title, page.tasks());
+        if (page.hasMore()) {
+            int first = page.query().offset() + 1;
+            System.out.println("… showing " + first + "–" + (first + page.tasks().size() - 1) + ", more available.");
         }
     }
 
@@ -177,9 +1239,12 @@ public class TaskManager {
                 default -> "Unknown";
             };
 
+            String description = task instanceof RecurringTask recurring
+                    ? task.getDescription() + " 🔁 " + recurring.getRecurrence()
+                    : task.getDescription();
             System.out.printf("| %-3d | %-20s | %-16s | %-8s |\n",
                 task.getId(),
-                task.getDescription(),
+                description,
                 task.getDueDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")),
                 priorityLabel
             );
@@ -1,15 +1,29 @@
 package project.taskmanager;
 
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class TaskManagerGUI extends Application {
+    // The task list window reads the changes since its last look this often.
+    private static final Duration EVENT_POLL = Duration.millis(250);
+    private static final int EVENT_BATCH = 1000;
 
-    private TaskManager manager = new TaskManager();
+    // Opened without reading the store; start() loads it in the background once the window is up.
+    private TaskManager manager = TaskManager.unloaded();
 
     public static void main(String[] args) {
         launch(args);
@@ -32,12 +46,31 @@ public class TaskManagerGUI extends Application {
 
         deleteButton.setOnAction(e -> openDeleteTaskDialog());
 
-        layout.getChildren().addAll(title, addButton, showButton, deleteButton);
+        ProgressIndicator loading = new ProgressIndicator();
+        loading.setMaxSize(40, 40);
+        layout.getChildren().addAll(title, addButton, showButton, deleteButton, loading);
 
         Scene scene = new Scene(layout, 300, 200);
         primaryStage.setTitle("Task Manager");
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        addButton.setDisable(true);
+        showButton.setDisable(true);
+        deleteButton.setDisable(true);
+        manager.loadInBackground((loaded, total) -> Platform.runLater(() -> {
+            if (total > 0) {
+                loading.setProgress((double) loaded / total);
+            }
+        })).whenComplete((done, error) -> Platform.runLater(() -> {
+            layout.getChildren().remove(loading);
+            addButton.setDisable(false);
+            showButton.setDisable(false);
+            deleteButton.setDisable(false);
+            if (error != null) {
+                new Alert(Alert.AlertType.ERROR, "Error loading tasks: " + error.getMessage()).show();
+            }
+        }));
     }
 
     private void openAddTaskDialog() {
@@ -59,23 +92,103 @@ public class TaskManagerGUI extends Application {
         });
     }
 
+    // Lists the tasks once, then keeps the list current from the change stream while the window is open.
     private void showAllTasks() {
-        ListView<String> listView = new ListView<>();
-        try {
-            for (Task task : manager.getTasks()) {
-                listView.getItems().add(task.toString());
-            }
-        } catch (Exception e) {
-            Alert alert = new Alert(Alert.AlertType.ERROR, "Error loading tasks: " + e.getMessage());
-            alert.show();
-        }
+        ListView<Task> listView = new ListView<>();
+        Stage window = new Stage();
+        LiveTasks live = new LiveTasks(listView.getItems(), window);
+        Timeline follow = new Timeline(new KeyFrame(EVENT_POLL, e -> live.poll()));
+        follow.setCycleCount(Timeline.INDEFINITE);
 
         VBox layout = new VBox(listView);
         Scene scene = new Scene(layout, 300, 400);
-        Stage window = new Stage();
         window.setTitle("All Tasks");
         window.setScene(scene);
+        window.setOnHidden(e -> follow.stop());
         window.show();
+        live.relist();
+        follow.play();
+    }
+
+    /**
+     * One task list window's contents. Listings are read on a background thread and shown on the
+     * FX thread; each poll folds its events into the latest version of every task they touched
+     * and applies those to the list in one pass.
+     */
+    private final class LiveTasks implements TaskEventRing.Handler {
+        private final ObservableList<Task> items;
+        private final Stage window;
+        // Subscribed before the first listing, so a change made during it is applied again afterwards rather than lost.
+        private final TaskEventRing.Subscription changes = manager.subscribe();
+        // Tasks changed by the events polled so far, in event order; null for one that was removed.
+        private final Map<Integer, Task> latest = new LinkedHashMap<>();
+        // While a listing is being read, events stay queued and are read from where it started.
+        private boolean listing;
+
+        LiveTasks(ObservableList<Task> items, Stage window) {
+            this.items = items;
+            this.window = window;
+        }
+
+        void relist() {
+            listing = true;
+            latest.clear();
+            CompletableFuture.supplyAsync(() -> {
+                long from = manager.getEvents().published();
+                return new Listing(from, manager.getTasks());
+            }).whenComplete((listed, error) -> Platform.runLater(() -> {
+                if (error != null) {
+                    window.close();
+                    new Alert(Alert.AlertType.ERROR, "Error loading tasks: " + error.getMessage()).show();
+                    return;
+                }
+                items.setAll(listed.tasks());
+                // Events after from may already be in the listing; applying them again changes nothing.
+                changes.seek(listed.from());
+                listing = false;
+            }));
+        }
+
+        void poll() {
+            if (listing) return;
+            changes.poll(this, EVENT_BATCH);
+            if (listing || latest.isEmpty()) return;
+            items.removeIf(task -> latest.containsKey(task.getId()));
+            List<Task> current = new ArrayList<>(latest.size());
+            for (Task task : latest.values()) {
+                if (task != null) {
+                    current.add(task);
+                }
+            }
+            items.addAll(current);
+            latest.clear();
+        }
+
+        @Override
+        public void onEvent(TaskEvent event) {
+            if (listing) return;
+            switch (event.type()) {
+                case ADDED, UPDATED -> {
+                    latest.remove(event.taskId());
+                    latest.put(event.taskId(), event.task());
+                }
+                case DELETED, EXPIRED -> {
+                    latest.remove(event.taskId());
+                    latest.put(event.taskId(), null);
+                }
+                case REMINDED -> { }
+            }
+        }
+
+        @Override
+        public void missed(long from, long to) {
+            if (!listing) {
+                relist();
+            }
+        }
+    }
+
+    private record Listing(long from, List<Task> tasks) {
     }
 
     private void openDeleteTaskDialog() {
@@ -0,0 +1,295 @@
+package project.taskmanager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for one TaskManager, exposed over JMX.
+ *
+ * Everything is recorded with lock-free adders on the thread doing the work, so the cost
+ * is a couple of {@code System.nanoTime()} calls and atomic increments per operation.
+ * Task counts by type and priority are kept up to date on every store change rather
+ * than computed by scanning the store when they are read.
+ */
+public class TaskMetrics implements TaskMetricsMXBean {
+    private static final String[] TYPE_NAMES = {"work", "personal", "recurring"};
+    private static final String[] PRIORITY_NAMES = {"high", "medium", "low", "other"};
+
+    // Indexed by type slot * PRIORITY_NAMES.length + priority slot.
+    private final LongAdder[] taskCounts = new LongAdder[TYPE_NAMES.length * PRIORITY_NAMES.length];
+    private final LatencyHistogram adds = new LatencyHistogram();
+    private final LatencyHistogram updates = new LatencyHistogram();
+    private final LatencyHistogram deletes = new LatencyHistogram();
+    private final LatencyHistogram queries = new LatencyHistogram();
+    private final LatencyHistogram snapshotWrites = new LatencyHistogram();
+    private final LatencyHistogram journalWrites = new LatencyHistogram();
+    private final LatencyHistogram journalSyncs = new LatencyHistogram();
+    private final LatencyHistogram reminderLag = new LatencyHistogram();
+    private final LongAdder expiredRemoved = new LongAdder();
+    private final LongAdder snapshotWriteFailures = new LongAdder();
+    private final LongAdder journalRecords = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder tasksFaultedIn = new LongAdder();
+    private final LongAdder tasksEvicted = new LongAdder();
+    private volatile int cacheCapacity;
+    private volatile TaskJournal.LoadReport lastLoad;
+
+    public TaskMetrics() {
+        for (int i = 0; i < taskCounts.length; i++) {
+            taskCounts[i] = new LongAdder();
+        }
+    }
+
+    void recordAdd(long nanos) {
+        adds.record(nanos);
+    }
+
+    void recordUpdate(long nanos) {
+        updates.record(nanos);
+    }
+
+    void recordDelete(long nanos) {
+        deletes.record(nanos);
+    }
+
+    void recordQuery(long nanos) {
+        queries.record(nanos);
+    }
+
+    void recordExpired(int count) {
+        expiredRemoved.add(count);
+    }
+
+    void recordLoad(TaskJournal.LoadReport report) {
+        lastLoad = report;
+    }
+
+    void recordSnapshotWrite(long nanos, boolean succeeded) {
+        snapshotWrites.record(nanos);
+        if (!succeeded) {
+            snapshotWriteFailures.increment();
+        }
+    }
+
+    void recordJournalWrite(int records, long nanos) {
+        journalRecords.add(records);
+        journalWrites.record(nanos);
+    }
+
+    void recordJournalSync(long nanos) {
+        journalSyncs.record(nanos);
+    }
+
+    // A hit was answered from memory; a miss had to read a month back from disk first.
+    void recordCacheLookup(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    void recordFaultIn(int tasks) {
+        tasksFaultedIn.add(tasks);
+    }
+
+    void recordEviction(int tasks) {
+        tasksEvicted.add(tasks);
+    }
+
+    void setCacheCapacity(int capacity) {
+        cacheCapacity = capacity;
+    }
+
+    void recordReminderLag(long lagMillis) {
+        reminderLag.record(lagMillis * 1_000_000);
+    }
+
+    void taskStored(Task task) {
+        taskCounts[slot(task)].increment();
+    }
+
+    void taskRemoved(Task task) {
+        taskCounts[slot(task)].decrement();
+    }
+
+    @Override
+    public long getTaskCount() {
+        long total = 0;
+        for (LongAdder count : taskCounts) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getTasksByType() {
+        Map<String, Long> byType = new LinkedHashMap<>();
+        for (int type = 0; type < TYPE_NAMES.length; type++) {
+            long total = 0;
+            for (int priority = 0; priority < PRIORITY_NAMES.length; priority++) {
+                total += taskCounts[type * PRIORITY_NAMES.length + priority].sum();
+            }
+            byType.put(TYPE_NAMES[type], total);
+        }
+        return byType;
+    }
+
+    @Override
+    public Map<String, Long> getTasksByPriority() {
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        for (int priority = 0; priority < PRIORITY_NAMES.length; priority++) {
+            long total = 0;
+            for (int type = 0; type < TYPE_NAMES.length; type++) {
+                total += taskCounts[type * PRIORITY_NAMES.length + priority].sum();
+            }
+            byPriority.put(PRIORITY_NAMES[priority], total);
+        }
+        return byPriority;
+    }
+
+    @Override
+    public LatencyStats getAddLatency() {
+        return adds.stats();
+    }
+
+    @Override
+    public LatencyStats getUpdateLatency() {
+        return updates.stats();
+    }
+
+    @Override
+    public LatencyStats getDeleteLatency() {
+        return deletes.stats();
+    }
+
+    @Override
+    public LatencyStats getQueryLatency() {
+        return queries.stats();
+    }
+
+    @Override
+    public long getExpiredRemoved() {
+        return expiredRemoved.sum();
+    }
+
+    @Override
+    public long getLoadMillis() {
+        TaskJournal.LoadReport report = lastLoad;
+        return report == null ? 0 : report.elapsedMillis();
+    }
+
+    @Override
+    public long getLoadedTasks() {
+        TaskJournal.LoadReport report = lastLoad;
+        return report == null ? 0 : report.tasks();
+    }
+
+    @Override
+    public long getLoadExpiredRecords() {
+        TaskJournal.LoadReport report = lastLoad;
+        return report == null ? 0 : report.expired();
+    }
+
+    @Override
+    public long getLoadInvalidRecords() {
+        TaskJournal.LoadReport report = lastLoad;
+        return report == null ? 0 : report.invalid();
+    }
+
+    @Override
+    public long getSnapshotWriteFailures() {
+        return snapshotWriteFailures.sum();
+    }
+
+    @Override
+    public LatencyStats getSnapshotWriteLatency() {
+        return snapshotWrites.stats();
+    }
+
+    @Override
+    public long getJournalRecords() {
+        return journalRecords.sum();
+    }
+
+    @Override
+    public LatencyStats getJournalWriteLatency() {
+        return journalWrites.stats();
+    }
+
+    @Override
+    public LatencyStats getJournalSyncLatency() {
+        return journalSyncs.stats();
+    }
+
+    @Override
+    public int getCacheCapacity() {
+        return cacheCapacity;
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    @Override
+    public double getCacheHitRatio() {
+        long hits = cacheHits.sum();
+        long total = hits + cacheMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public long getTasksFaultedIn() {
+        return tasksFaultedIn.sum();
+    }
+
+    @Override
+    public long getTasksEvicted() {
+        return tasksEvicted.sum();
+    }
+
+    @Override
+    public LatencyStats getReminderLag() {
+        return reminderLag.stats();
+    }
+
+    // Delivery outcomes are counted by the shared dispatcher that every manager sends reminders through.
+    @Override
+    public long getRemindersDelivered() {
+        return ReminderDispatcher.shared().delivered();
+    }
+
+    @Override
+    public long getRemindersDropped() {
+        return ReminderDispatcher.shared().dropped();
+    }
+
+    @Override
+    public long getRemindersTimedOut() {
+        return ReminderDispatcher.shared().timedOut();
+    }
+
+    @Override
+    public long getRemindersFailed() {
+        return ReminderDispatcher.shared().failed();
+    }
+
+    @Override
+    public void resetLatencies() {
+        for (LatencyHistogram histogram : new LatencyHistogram[] {
+                adds, updates, deletes, queries, snapshotWrites, journalWrites, journalSyncs, reminderLag}) {
+            histogram.reset();
+        }
+    }
+
+    private static int slot(Task task) {
+        // Type codes start at 1, in the order of TYPE_NAMES.
+        int type = BinaryTaskFormat.typeOf(task) - 1;
+        int priority = task.getPriority() >= 1 && task.getPriority() <= 3 ? task.getPriority() - 1 : 3;
+        return type * PRIORITY_NAMES.length + priority;
+    }
+}
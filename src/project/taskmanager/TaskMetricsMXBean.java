@@ -0,0 +1,71 @@
+package project.taskmanager;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link TaskMetrics}, registered with the platform MBean server as
+ * {@code project.taskmanager:type=TaskManager,file=<snapshot file>}. Latencies are in
+ * microseconds; reminder lag is how long after its due time a reminder actually fired. Reminder
+ * delivery counts cover every sink of {@link ReminderDispatcher#shared()}. Cache hits are id
+ * lookups and queries answered from memory, misses the ones that first read a month back from
+ * disk; the capacity is 0 when every task is kept in memory.
+ */
+public interface TaskMetricsMXBean {
+    long getTaskCount();
+
+    Map<String, Long> getTasksByType();
+
+    Map<String, Long> getTasksByPriority();
+
+    LatencyStats getAddLatency();
+
+    LatencyStats getUpdateLatency();
+
+    LatencyStats getDeleteLatency();
+
+    LatencyStats getQueryLatency();
+
+    long getExpiredRemoved();
+
+    long getLoadMillis();
+
+    long getLoadedTasks();
+
+    long getLoadExpiredRecords();
+
+    long getLoadInvalidRecords();
+
+    long getSnapshotWriteFailures();
+
+    LatencyStats getSnapshotWriteLatency();
+
+    long getJournalRecords();
+
+    LatencyStats getJournalWriteLatency();
+
+    LatencyStats getJournalSyncLatency();
+
+    int getCacheCapacity();
+
+    long getCacheHits();
+
+    long getCacheMisses();
+
+    double getCacheHitRatio();
+
+    long getTasksFaultedIn();
+
+    long getTasksEvicted();
+
+    LatencyStats getReminderLag();
+
+    long getRemindersDelivered();
+
+    long getRemindersDropped();
+
+    long getRemindersTimedOut();
+
+    long getRemindersFailed();
+
+    void resetLatencies();
+}
@@ -0,0 +1,18 @@
+package project.taskmanager;
+
+import java.util.List;
+
+/**
+ * One page of query results: the tasks, where the page starts, whether more matches follow,
+ * and which plan found them.
+ */
+public record TaskPage(List<Task> tasks, TaskQuery query, boolean hasMore, TaskQuery.Plan plan) {
+    public boolean isEmpty() {
+        return tasks.isEmpty();
+    }
+
+    // The query for the page after this one.
+    public TaskQuery next() {
+        return query.nextPage();
+    }
+}
@@ -0,0 +1,184 @@
+package project.taskmanager;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable description of which tasks to fetch, in what order, and which page of them.
+ *
+ * Queries are built up one condition at a time, each call returning a new query:
+ * {@code TaskQuery.all().ofType(WorkTask.class).dueBefore(deadline).sortedBy(Sort.DUE_DATE).page(0, 20)}.
+ * {@link TaskManager#query} and {@link TaskManager#page} hand them to a planner that picks the
+ * cheapest way to find the matches. {@link #rowFilter()} is the part of a query that can be
+ * checked on the stored columns alone, for callers that filter on their own.
+ */
+public final class TaskQuery {
+    public enum Sort { ID, DUE_DATE, PRIORITY }
+
+    // How the planner finds the candidates: searching the description index, walking the due-date index, or scanning every stored row.
+    public enum Plan { TEXT_INDEX, DUE_INDEX, COLUMN_SCAN }
+
+    private static final TaskQuery ALL = new TaskQuery((byte) 0, -1L, null, null, null, Sort.ID, false, 0, Integer.MAX_VALUE);
+
+    private final byte type;
+    // Bit p set when priority p is accepted; every bit set accepts any priority.
+    private final long priorities;
+    private final LocalDateTime dueFrom;
+    private final LocalDateTime dueBefore;
+    // Description search terms, as split by DescriptionIndex.terms; null for none.
+    private final List<String> terms;
+    private final Sort sort;
+    private final boolean descending;
+    private final int offset;
+    private final int limit;
+    private final TaskRowFilter rowFilter;
+
+    private TaskQuery(byte type, long priorities, LocalDateTime dueFrom, LocalDateTime dueBefore, List<String> terms,
+                      Sort sort, boolean descending, int offset, int limit) {
+        this.type = type;
+        this.priorities = priorities;
+        this.dueFrom = dueFrom;
+        this.dueBefore = dueBefore;
+        this.terms = terms;
+        this.sort = sort;
+        this.descending = descending;
+        this.offset = offset;
+        this.limit = limit;
+        this.rowFilter = columnFilter(type, priorities, dueFrom, dueBefore);
+    }
+
+    // Every task, ordered by id.
+    public static TaskQuery all() {
+        return ALL;
+    }
+
+    public TaskQuery ofType(Class<? extends Task> taskType) {
+        return new TaskQuery(BinaryTaskFormat.typeOf(taskType), priorities, dueFrom, dueBefore, terms, sort, descending, offset, limit);
+    }
+
+    // Priorities from 0 to 63 can be selected; a task with any other priority never matches.
+    public TaskQuery withPriorities(int... accepted) {
+        long mask = 0;
+        for (int priority : accepted) {
+            if (priority < 0 || priority > 63) {
+                throw new IllegalArgumentException("Priority out of range: " + priority);
+            }
+            mask |= 1L << priority;
+        }
+        return new TaskQuery(type, mask, dueFrom, dueBefore, terms, sort, descending, offset, limit);
+    }
+
+    // Tasks due in [from, before).
+    public TaskQuery dueBetween(LocalDateTime from, LocalDateTime before) {
+        return new TaskQuery(type, priorities, from, before, terms, sort, descending, offset, limit);
+    }
+
+    public TaskQuery dueFrom(LocalDateTime from) {
+        return new TaskQuery(type, priorities, from, dueBefore, terms, sort, descending, offset, limit);
+    }
+
+    public TaskQuery dueBefore(LocalDateTime before) {
+        return new TaskQuery(type, priorities, dueFrom, before, terms, sort, descending, offset, limit);
+    }
+
+    /**
+     * Tasks whose description has every word of text, ignoring case; a word ending in {@code *}
+     * matches any word it starts. Text without any words places no condition.
+     */
+    public TaskQuery describedBy(String text) {
+        List<String> words = text == null ? List.of() : DescriptionIndex.terms(text);
+        return new TaskQuery(type, priorities, dueFrom, dueBefore, words.isEmpty() ? null : List.copyOf(words),
+                sort, descending, offset, limit);
+    }
+
+    public TaskQuery sortedBy(Sort order) {
+        return sortedBy(order, false);
+    }
+
+    // Ties are broken by id, in the same direction.
+    public TaskQuery sortedBy(Sort order, boolean reverse) {
+        return new TaskQuery(type, priorities, dueFrom, dueBefore, terms, order, reverse, offset, limit);
+    }
+
+    // Skips the first offset matches and returns at most limit of the rest.
+    public TaskQuery page(int from, int count) {
+        if (from < 0 || count < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative.");
+        }
+        return new TaskQuery(type, priorities, dueFrom, dueBefore, terms, sort, descending, from, count);
+    }
+
+    // The page after this one, with the same limit.
+    public TaskQuery nextPage() {
+        return page((int) Math.min(Integer.MAX_VALUE, (long) offset + limit), limit);
+    }
+
+    public Sort sort() {
+        return sort;
+    }
+
+    public boolean descending() {
+        return descending;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public LocalDateTime dueFrom() {
+        return dueFrom;
+    }
+
+    public LocalDateTime dueBefore() {
+        return dueBefore;
+    }
+
+    boolean hasDueRange() {
+        return dueFrom != null || dueBefore != null;
+    }
+
+    boolean hasText() {
+        return terms != null;
+    }
+
+    List<String> terms() {
+        return terms;
+    }
+
+    // The type, priority and due-date conditions, checked on stored columns without building tasks.
+    public TaskRowFilter rowFilter() {
+        return rowFilter;
+    }
+
+    private static TaskRowFilter columnFilter(byte wantedType, long accepted, LocalDateTime dueFrom, LocalDateTime dueBefore) {
+        long from = dueFrom == null ? Long.MIN_VALUE : DueDateIndex.ceilEpochSecond(dueFrom);
+        long before = dueBefore == null ? Long.MAX_VALUE : DueDateIndex.ceilEpochSecond(dueBefore);
+        return (id, due, priority, taskType) -> (wantedType == 0 || taskType == wantedType)
+                && (accepted == -1L || (priority >= 0 && priority < 64 && (accepted & (1L << priority)) != 0))
+                && due >= from && due < before;
+    }
+
+    // Every condition of the query, on a built task.
+    public boolean matches(Task task) {
+        return rowFilter.test(task.getId(), BinaryTaskFormat.toEpochSecond(task.getDueDate()),
+                task.getPriority(), BinaryTaskFormat.typeOf(task)) && matchesText(task);
+    }
+
+    boolean matchesText(Task task) {
+        return terms == null || DescriptionIndex.matches(task.getDescription(), terms);
+    }
+
+    Comparator<Task> comparator() {
+        Comparator<Task> order = switch (sort) {
+            case ID -> Comparator.comparingInt(Task::getId);
+            case DUE_DATE -> Comparator.comparing(Task::getDueDate).thenComparingInt(Task::getId);
+            case PRIORITY -> Comparator.comparingInt(Task::getPriority).thenComparingInt(Task::getId);
+        };
+        return descending ? order.reversed() : order;
+    }
+}
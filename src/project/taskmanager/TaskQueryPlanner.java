@@ -0,0 +1,158 @@
+package project.taskmanager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Picks how to answer a {@link TaskQuery} and runs it.
+ *
+ * A query with description terms starts from the ids the description index gives for them,
+ * unless a narrow due range or an early-stopping due-date walk promises fewer candidates; the
+ * index gives its ids in ascending order, so an id-sorted page stops as soon as it is full.
+ * A query with a narrow due-date range walks that range of the due-date index and only builds
+ * the tasks in it; a query sorted by due date does the same, since the index already yields
+ * tasks in that order and the walk can stop as soon as the page is full. Anything else is
+ * filtered on the stored columns and sorted there, so only the rows of the requested page are
+ * ever built into tasks.
+ *
+ * A recurring task is stored once, at its next occurrence. When a query's due range also takes
+ * in later occurrences, those are generated for the range alone and merged into the results,
+ * which then have to be sorted as a whole.
+ */
+final class TaskQueryPlanner {
+    // A due range is walked through the index when it holds at most this share of the store.
+    private static final int SELECTIVE_FRACTION = 8;
+
+    private final StripedTaskStore tasks;
+    private final DueDateIndex dueIndex;
+    private final DescriptionIndex descriptionIndex;
+    private final Set<Integer> recurringIds;
+
+    TaskQueryPlanner(StripedTaskStore tasks, DueDateIndex dueIndex, DescriptionIndex descriptionIndex, Set<Integer> recurringIds) {
+        this.tasks = tasks;
+        this.dueIndex = dueIndex;
+        this.descriptionIndex = descriptionIndex;
+        this.recurringIds = recurringIds;
+    }
+
+    TaskQuery.Plan plan(TaskQuery query) {
+        int threshold = tasks.size() / SELECTIVE_FRACTION;
+        TaskQuery.Plan plan = TaskQuery.Plan.COLUMN_SCAN;
+        int candidates = Integer.MAX_VALUE;
+        if (query.hasText()) {
+            plan = TaskQuery.Plan.TEXT_INDEX;
+            candidates = descriptionIndex.estimate(query.terms());
+        }
+        // Unless the terms are rare, walking in due order and stopping at a full page beats sorting them.
+        if (query.sort() == TaskQuery.Sort.DUE_DATE && candidates > threshold) {
+            return TaskQuery.Plan.DUE_INDEX;
+        }
+        if (query.hasDueRange()) {
+            // Counting stops at the cap, so a wide range costs no more than a narrow one to rule out.
+            int cap = Math.min(candidates - 1, threshold);
+            if (cap >= 0 && dueIndex.countBetween(query.dueFrom(), query.dueBefore(), cap + 1) <= cap) {
+                return TaskQuery.Plan.DUE_INDEX;
+            }
+        }
+        return plan;
+    }
+
+    // The query's page as a lazy stream; nothing is built until the stream is consumed.
+    Stream<Task> run(TaskQuery query, TaskQuery.Plan plan) {
+        List<Task> later = query.hasDueRange() ? laterOccurrences(query) : List.of();
+        if (later.isEmpty()) {
+            return candidates(query, plan);
+        }
+        return Stream.concat(candidates(query.page(0, Integer.MAX_VALUE), plan), later.stream())
+                .sorted(query.comparator())
+                .skip(query.offset())
+                .limit(query.limit());
+    }
+
+    // Every occurrence of every recurring task due in [from, to), from the stored one on; a null from means any time.
+    Stream<Task> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        return recurringIds.stream()
+                .map(tasks::get)
+                .filter(task -> task instanceof RecurringTask)
+                .flatMap(task -> ((RecurringTask) task).occurrencesBetween(from, to));
+    }
+
+    /**
+     * Occurrences of recurring tasks matching query other than the stored ones, which the plans
+     * already find. With no upper bound on the range, only the first occurrence in it counts.
+     */
+    private List<Task> laterOccurrences(TaskQuery query) {
+        if (recurringIds.isEmpty()) return List.of();
+        return recurringIds.stream()
+                .map(tasks::get)
+                .filter(task -> task instanceof RecurringTask)
+                .flatMap(task -> {
+                    Stream<Task> occurrences = ((RecurringTask) task).occurrencesBetween(query.dueFrom(), query.dueBefore());
+                    if (query.dueBefore() == null) {
+                        occurrences = occurrences.limit(1);
+                    }
+                    return occurrences.filter(occurrence -> !occurrence.getDueDate().equals(task.getDueDate()));
+                })
+                .filter(query::matches)
+                .toList();
+    }
+
+    private Stream<Task> candidates(TaskQuery query, TaskQuery.Plan plan) {
+        return switch (plan) {
+            case TEXT_INDEX -> searchDescriptions(query);
+            case DUE_INDEX -> walkDueIndex(query);
+            case COLUMN_SCAN -> scanColumns(query);
+        };
+    }
+
+    private Stream<Task> searchDescriptions(TaskQuery query) {
+        int[] ids = descriptionIndex.search(query.terms());
+        IntStream positions = IntStream.range(0, ids.length);
+        if (query.sort() == TaskQuery.Sort.ID && query.descending()) {
+            positions = positions.map(i -> ids.length - 1 - i);
+        }
+        Stream<Task> matches = positions.mapToObj(i -> tasks.get(ids[i]))
+                // A task changed since the search ran is skipped or checked again here.
+                .filter(Objects::nonNull)
+                .filter(query::matches);
+        if (query.sort() != TaskQuery.Sort.ID) {
+            matches = matches.sorted(query.comparator());
+        }
+        return matches.skip(query.offset()).limit(query.limit());
+    }
+
+    private Stream<Task> walkDueIndex(TaskQuery query) {
+        boolean byDue = query.sort() == TaskQuery.Sort.DUE_DATE;
+        Stream<Task> matches = dueIndex.idsBetween(query.dueFrom(), query.dueBefore(), byDue && query.descending())
+                .mapToObj(tasks::get)
+                // A task removed or moved since the index was read is skipped or checked again here.
+                .filter(Objects::nonNull)
+                .filter(query::matches);
+        if (!byDue) {
+            matches = matches.sorted(query.comparator());
+        }
+        return matches.skip(query.offset()).limit(query.limit());
+    }
+
+    private Stream<Task> scanColumns(TaskQuery query) {
+        ColumnarTaskList matching = tasks.snapshot().filter(query.rowFilter());
+        ColumnarTaskList sorted = query.sort() == TaskQuery.Sort.PRIORITY ? matching.sortedByPriority() : matching.sortedById();
+        int size = sorted.size();
+        IntStream positions = IntStream.range(0, size);
+        if (query.descending()) {
+            positions = positions.map(i -> size - 1 - i);
+        }
+        if (!query.hasText()) {
+            // Every row already matches, so the page is cut out before any task is built.
+            return positions.skip(query.offset()).limit(query.limit()).mapToObj(sorted::get);
+        }
+        return positions.mapToObj(sorted::get)
+                .filter(query::matchesText)
+                .skip(query.offset())
+                .limit(query.limit());
+    }
+}
@@ -0,0 +1,11 @@
+package project.taskmanager;
+
+/**
+ * Predicate over the stored columns of a task, evaluated without materializing a {@link Task}.
+ * The due date is an epoch second as defined by {@link BinaryTaskFormat#toEpochSecond}, and the
+ * type is a {@link BinaryTaskFormat} type code.
+ */
+@FunctionalInterface
+public interface TaskRowFilter {
+    boolean test(int id, long dueEpochSecond, int priority, byte type);
+}
@@ -0,0 +1,300 @@
+package project.taskmanager;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Serves a {@link TaskManager} over HTTP on the loopback interface, one virtual thread per request.
+ *
+ * Tasks travel as lines of the text task format. A new task is sent without its id, as
+ * {@code description|due|priority|type}, and comes back with the id it was given. The due date
+ * of a recurring task ({@code RecurringTask@<rule>}) comes from its rule and may be left empty.
+ * <pre>
+ * POST   /tasks          one new task            201 and the stored task
+ * POST   /tasks/batch    one new task per line   201 and the stored tasks, in order
+ * GET    /tasks/{id}                             200 and the task, or 404
+ * DELETE /tasks/{id}                             204, or 404
+ * POST   /tasks/delete   one id per line         200 and how many were deleted
+ * GET    /tasks?type=&amp;priority=1,2&amp;from=&amp;before=&amp;text=&amp;sort=&amp;desc=&amp;offset=&amp;limit=
+ *                                                200 and one page; X-Has-More tells whether another follows
+ * </pre>
+ * The batch endpoints commit all their records with one journal write. A bad line rejects the
+ * whole batch before anything is stored, and a body over 8 MB is refused with 413. Start with {@code java project.taskmanager.TaskServer
+ * [port]}; the {@code -Dtaskmanager.*} properties choose the store as for the other entry points.
+ */
+public class TaskServer {
+    public static final int DEFAULT_PORT = 8080;
+    // Pages hold this many tasks unless the query asks for another limit, and never more than MAX_PAGE.
+    private static final int DEFAULT_PAGE = 50;
+    private static final int MAX_PAGE = 1000;
+    private static final int MAX_BATCH = 10_000;
+    // Room for a full batch with long descriptions; a larger body is refused with 413 before it is all read.
+    private static final int MAX_BODY_BYTES = 8 * 1024 * 1024;
+
+    private final TaskManager manager;
+    private final HttpServer server;
+    private final ExecutorService threads = VirtualThreads.newThreadPerTaskExecutor("task-http-");
+
+    public TaskServer(TaskManager manager, int port) throws IOException {
+        // Headers and body go out as separate writes, which Nagle's algorithm would hold back for the client's delayed ACK.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.manager = manager;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/tasks", this::handle);
+        server.setExecutor(threads);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        TaskServer server = new TaskServer(new TaskManager(), port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "task-http-stop"));
+        server.start();
+        System.out.println("🌐 Task server listening on http://localhost:" + server.port() + "/tasks");
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Lets requests in progress finish for up to a second; the manager's shutdown hook flushes the journal.
+    public void stop() {
+        server.stop(1);
+        threads.shutdown();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            // The context also hands over paths that merely start with /tasks, such as /tasksx.
+            boolean known = path.equals("/tasks") || path.startsWith("/tasks/");
+            String rest = path.startsWith("/tasks/") ? path.substring("/tasks/".length()) : "";
+            try {
+                if (!known) {
+                    send(exchange, 404, "No such endpoint: " + method + " " + path);
+                } else if (rest.isEmpty() && method.equals("GET")) {
+                    query(exchange);
+                } else if (rest.isEmpty() && method.equals("POST")) {
+                    create(exchange, 1);
+                } else if (rest.equals("batch") && method.equals("POST")) {
+                    create(exchange, MAX_BATCH);
+                } else if (rest.equals("delete") && method.equals("POST")) {
+                    deleteAll(exchange);
+                } else if (!rest.isEmpty() && rest.chars().allMatch(Character::isDigit) && method.equals("GET")) {
+                    Task task = manager.getTask(parseId(rest));
+                    if (task == null) {
+                        send(exchange, 404, "Task not found.");
+                    } else {
+                        send(exchange, 200, task.toFileString() + "\n");
+                    }
+                } else if (!rest.isEmpty() && rest.chars().allMatch(Character::isDigit) && method.equals("DELETE")) {
+                    if (manager.deleteTasks(new int[] { parseId(rest) }) == 1) {
+                        send(exchange, 204, "");
+                    } else {
+                        send(exchange, 404, "Task not found.");
+                    }
+                } else {
+                    send(exchange, 404, "No such endpoint: " + method + " " + path);
+                }
+            } catch (InvalidTaskException | IllegalArgumentException | DateTimeParseException e) {
+                send(exchange, 400, "Error: " + e.getMessage());
+            } catch (RuntimeException e) {
+                System.out.println("Error serving " + method + " " + path + ": " + e.getMessage());
+                send(exchange, 500, "Error: " + e.getMessage());
+            }
+        }
+    }
+
+    // Every task is built, and so validated, before the first one is stored.
+    private void create(HttpExchange exchange, int maxTasks) throws IOException, InvalidTaskException {
+        List<String> lines = readLines(exchange);
+        if (lines == null) {
+            refuseOversized(exchange);
+            return;
+        }
+        if (lines.isEmpty() || lines.size() > maxTasks) {
+            throw new IllegalArgumentException(maxTasks == 1 ? "Send exactly one task." : "Send 1 to " + maxTasks + " tasks.");
+        }
+        List<Task> created = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            created.add(parseNewTask(line));
+        }
+        if (created.size() == 1) {
+            manager.addTask(created.get(0));
+        } else {
+            manager.addTasks(created);
+        }
+        StringBuilder body = new StringBuilder();
+        for (Task task : created) {
+            body.append(task.toFileString()).append('\n');
+        }
+        send(exchange, 201, body.toString());
+    }
+
+    private void deleteAll(HttpExchange exchange) throws IOException {
+        List<String> lines = readLines(exchange);
+        if (lines == null) {
+            refuseOversized(exchange);
+            return;
+        }
+        if (lines.size() > MAX_BATCH) {
+            throw new IllegalArgumentException("Send at most " + MAX_BATCH + " ids.");
+        }
+        int[] ids = new int[lines.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = parseId(lines.get(i));
+        }
+        send(exchange, 200, manager.deleteTasks(ids) + "\n");
+    }
+
+    private void query(HttpExchange exchange) throws IOException {
+        Map<String, String> params = parameters(exchange.getRequestURI().getRawQuery());
+        TaskQuery query = TaskQuery.all();
+        if (params.containsKey("type")) {
+            query = query.ofType(taskType(params.get("type")));
+        }
+        if (params.containsKey("priority")) {
+            String[] listed = params.get("priority").split(",");
+            int[] priorities = new int[listed.length];
+            for (int i = 0; i < listed.length; i++) {
+                priorities[i] = Integer.parseInt(listed[i].trim());
+            }
+            query = query.withPriorities(priorities);
+        }
+        if (params.containsKey("from")) {
+            query = query.dueFrom(LocalDateTime.parse(params.get("from"), DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+        if (params.containsKey("before")) {
+            query = query.dueBefore(LocalDateTime.parse(params.get("before"), DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+        if (params.containsKey("text")) {
+            query = query.describedBy(params.get("text"));
+        }
+        if (params.containsKey("sort")) {
+            query = query.sortedBy(TaskQuery.Sort.valueOf(params.get("sort").toUpperCase(Locale.ROOT)),
+                    Boolean.parseBoolean(params.get("desc")));
+        }
+        int offset = Integer.parseInt(params.getOrDefault("offset", "0"));
+        int limit = Integer.parseInt(params.getOrDefault("limit", Integer.toString(DEFAULT_PAGE)));
+        if (limit > MAX_PAGE) {
+            throw new IllegalArgumentException("Pages hold at most " + MAX_PAGE + " tasks.");
+        }
+        TaskPage page = manager.page(query.page(offset, limit));
+        StringBuilder body = new StringBuilder();
+        for (Task task : page.tasks()) {
+            body.append(task.toFileString()).append('\n');
+        }
+        exchange.getResponseHeaders().set("X-Has-More", Boolean.toString(page.hasMore()));
+        send(exchange, 200, body.toString());
+    }
+
+    // "description|due|priority|type", the task line without its id. As in Task.parse the fixed
+    // fields are taken from the right, so the description may contain '|'.
+    private static Task parseNewTask(String line) throws InvalidTaskException {
+        int last = line.lastIndexOf('|');
+        int beforeLast = last < 0 ? -1 : line.lastIndexOf('|', last - 1);
+        int dateSeparator = beforeLast < 0 ? -1 : line.lastIndexOf('|', beforeLast - 1);
+        if (dateSeparator < 0) {
+            throw new IllegalArgumentException("Expected description|due|priority|type: " + line);
+        }
+        String description = line.substring(0, dateSeparator);
+        int priority = Integer.parseInt(line.substring(beforeLast + 1, last).trim());
+        if (priority < 1 || priority > 3) {
+            throw new IllegalArgumentException("Priority must be 1, 2 or 3.");
+        }
+        String type = line.substring(last + 1).trim();
+        if (type.startsWith(RecurringTask.TYPE_PREFIX)) {
+            return new RecurringTask(description, Recurrence.parse(type.substring(RecurringTask.TYPE_PREFIX.length())), priority);
+        }
+        LocalDateTime dueDate = LocalDateTime.parse(line.substring(dateSeparator + 1, beforeLast).trim(), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        return switch (type) {
+            case "WorkTask" -> new WorkTask(description, dueDate, priority);
+            case "PersonalTask" -> new PersonalTask(description, dueDate, priority);
+            default -> throw new IllegalArgumentException("Unknown task type: " + type);
+        };
+    }
+
+    private static Class<? extends Task> taskType(String name) {
+        return switch (name) {
+            case "WorkTask" -> WorkTask.class;
+            case "PersonalTask" -> PersonalTask.class;
+            case "RecurringTask" -> RecurringTask.class;
+            default -> throw new IllegalArgumentException("Unknown task type: " + name);
+        };
+    }
+
+    private static int parseId(String text) {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid task id: " + text);
+        }
+    }
+
+    private static Map<String, String> parameters(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    // The non-blank lines of the request body, or null if it is longer than MAX_BODY_BYTES.
+    private static List<String> readLines(HttpExchange exchange) throws IOException {
+        byte[] bytes = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+        if (bytes.length > MAX_BODY_BYTES) return null;
+        String body = new String(bytes, StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            String trimmed = line.strip();
+            if (!trimmed.isEmpty()) {
+                lines.add(trimmed);
+            }
+        }
+        return lines;
+    }
+
+    // The rest of the body is left unread, so the connection cannot carry another request.
+    private static void refuseOversized(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Connection", "close");
+        send(exchange, 413, "Error: Send at most " + MAX_BODY_BYTES + " bytes.");
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        // 204 must not carry a body; -1 tells the server there is none.
+        exchange.sendResponseHeaders(status, status == 204 || bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0 && status != 204) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
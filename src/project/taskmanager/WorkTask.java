@@ -7,8 +7,12 @@ public class WorkTask extends Task {
         super(description, dueDate, priority);
     }
 
+    WorkTask(int id, String description, LocalDateTime dueDate, int priority) throws InvalidTaskException {
+        super(id, description, dueDate, priority);
+    }
+
     @Override
-    public void sendReminder() {
-        System.out.println("🚨 Work Task Reminder: \"" + getDescription() + "\" is due at " + getDueDate());
+    protected String reminderMessage() {
+        return "🚨 Work Task Reminder: \"" + getDescription() + "\" is due at " + getDueDate();
     }
 }
\ No newline at end of file